@@ -0,0 +1,316 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.beans.IntrospectionException;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.vaadin.flow.data.binder.BeanPropertySet;
+import com.vaadin.flow.data.binder.PropertyDefinition;
+import com.vaadin.flow.data.binder.Setter;
+import com.vaadin.flow.function.ValueProvider;
+
+/**
+ * Benchmarks for reading and writing all properties of a bean with 20
+ * properties through the getters and setters of a {@link BeanPropertySet}, as
+ * done by {@code Binder} and by columns added by property name. The
+ * reflective variants call the same methods using
+ * {@link Method#invoke(Object, Object...)} as a baseline.
+ *
+ * @author Vaadin Ltd
+ * @since 2.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanPropertySetBenchmark {
+
+    /**
+     * Bean with ten string and ten int properties.
+     */
+    public static class Bean {
+        private String name0;
+        private String name1;
+        private String name2;
+        private String name3;
+        private String name4;
+        private String name5;
+        private String name6;
+        private String name7;
+        private String name8;
+        private String name9;
+        private int count0;
+        private int count1;
+        private int count2;
+        private int count3;
+        private int count4;
+        private int count5;
+        private int count6;
+        private int count7;
+        private int count8;
+        private int count9;
+
+        public String getName0() {
+            return name0;
+        }
+
+        public void setName0(String name0) {
+            this.name0 = name0;
+        }
+
+        public String getName1() {
+            return name1;
+        }
+
+        public void setName1(String name1) {
+            this.name1 = name1;
+        }
+
+        public String getName2() {
+            return name2;
+        }
+
+        public void setName2(String name2) {
+            this.name2 = name2;
+        }
+
+        public String getName3() {
+            return name3;
+        }
+
+        public void setName3(String name3) {
+            this.name3 = name3;
+        }
+
+        public String getName4() {
+            return name4;
+        }
+
+        public void setName4(String name4) {
+            this.name4 = name4;
+        }
+
+        public String getName5() {
+            return name5;
+        }
+
+        public void setName5(String name5) {
+            this.name5 = name5;
+        }
+
+        public String getName6() {
+            return name6;
+        }
+
+        public void setName6(String name6) {
+            this.name6 = name6;
+        }
+
+        public String getName7() {
+            return name7;
+        }
+
+        public void setName7(String name7) {
+            this.name7 = name7;
+        }
+
+        public String getName8() {
+            return name8;
+        }
+
+        public void setName8(String name8) {
+            this.name8 = name8;
+        }
+
+        public String getName9() {
+            return name9;
+        }
+
+        public void setName9(String name9) {
+            this.name9 = name9;
+        }
+
+        public int getCount0() {
+            return count0;
+        }
+
+        public void setCount0(int count0) {
+            this.count0 = count0;
+        }
+
+        public int getCount1() {
+            return count1;
+        }
+
+        public void setCount1(int count1) {
+            this.count1 = count1;
+        }
+
+        public int getCount2() {
+            return count2;
+        }
+
+        public void setCount2(int count2) {
+            this.count2 = count2;
+        }
+
+        public int getCount3() {
+            return count3;
+        }
+
+        public void setCount3(int count3) {
+            this.count3 = count3;
+        }
+
+        public int getCount4() {
+            return count4;
+        }
+
+        public void setCount4(int count4) {
+            this.count4 = count4;
+        }
+
+        public int getCount5() {
+            return count5;
+        }
+
+        public void setCount5(int count5) {
+            this.count5 = count5;
+        }
+
+        public int getCount6() {
+            return count6;
+        }
+
+        public void setCount6(int count6) {
+            this.count6 = count6;
+        }
+
+        public int getCount7() {
+            return count7;
+        }
+
+        public void setCount7(int count7) {
+            this.count7 = count7;
+        }
+
+        public int getCount8() {
+            return count8;
+        }
+
+        public void setCount8(int count8) {
+            this.count8 = count8;
+        }
+
+        public int getCount9() {
+            return count9;
+        }
+
+        public void setCount9(int count9) {
+            this.count9 = count9;
+        }
+    }
+
+    private Bean bean = new Bean();
+    private List<ValueProvider<Bean, ?>> getters;
+    private List<Setter<Bean, Object>> setters;
+    private List<Object> values;
+    private List<Method> readMethods;
+    private List<Method> writeMethods;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() throws IntrospectionException {
+        List<PropertyDefinition<Bean, ?>> definitions = BeanPropertySet
+                .get(Bean.class).getProperties().collect(Collectors.toList());
+        getters = definitions.stream().map(PropertyDefinition::getGetter)
+                .collect(Collectors.toList());
+        setters = definitions.stream()
+                .map(definition -> (Setter<Bean, Object>) definition
+                        .getSetter().get())
+                .collect(Collectors.toList());
+        values = definitions.stream()
+                .map(definition -> definition.getType() == String.class
+                        ? (Object) "value"
+                        : (Object) Integer.valueOf(42))
+                .collect(Collectors.toList());
+
+        List<PropertyDescriptor> descriptors = new ArrayList<>();
+        for (PropertyDefinition<Bean, ?> definition : definitions) {
+            descriptors.add(
+                    new PropertyDescriptor(definition.getName(), Bean.class));
+        }
+        readMethods = descriptors.stream()
+                .map(PropertyDescriptor::getReadMethod)
+                .collect(Collectors.toList());
+        writeMethods = descriptors.stream()
+                .map(PropertyDescriptor::getWriteMethod)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public void readAllProperties(Blackhole blackhole) {
+        for (ValueProvider<Bean, ?> getter : getters) {
+            blackhole.consume(getter.apply(bean));
+        }
+    }
+
+    @Benchmark
+    public Bean writeAllProperties() {
+        for (int i = 0; i < setters.size(); i++) {
+            setters.get(i).accept(bean, values.get(i));
+        }
+        return bean;
+    }
+
+    @Benchmark
+    public void readAllPropertiesReflectively(Blackhole blackhole)
+            throws IllegalAccessException, InvocationTargetException {
+        for (Method readMethod : readMethods) {
+            blackhole.consume(readMethod.invoke(bean));
+        }
+    }
+
+    @Benchmark
+    public Bean writeAllPropertiesReflectively()
+            throws IllegalAccessException, InvocationTargetException {
+        for (int i = 0; i < writeMethods.size(); i++) {
+            writeMethods.get(i).invoke(bean, values.get(i));
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.mockito.Mockito;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.di.DefaultInstantiator;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.function.DeploymentConfiguration;
+import com.vaadin.flow.internal.CurrentInstance;
+import com.vaadin.flow.internal.StateTree;
+import com.vaadin.flow.router.Router;
+import com.vaadin.flow.server.Constants;
+import com.vaadin.flow.server.DefaultDeploymentConfiguration;
+import com.vaadin.flow.server.SystemMessages;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinSession;
+
+/**
+ * A self contained UI, session and service setup for running benchmarks
+ * without a servlet container.
+ * <p>
+ * The {@link VaadinService} is a mock which only answers the questions asked
+ * by the code paths that are benchmarked. The session is locked by the thread
+ * which created the environment, so the environment should be created in a
+ * {@code @Setup} method of a thread scoped state.
+ *
+ * @author Vaadin Ltd
+ * @since 2.2
+ */
+final class BenchmarkEnvironment {
+
+    private final VaadinService service;
+    private final VaadinSession session;
+    private final UI ui;
+
+    /**
+     * Creates a new environment using the given init parameters for the
+     * deployment configuration.
+     *
+     * @param initParameters
+     *            the deployment configuration init parameters, not
+     *            <code>null</code>
+     * @param router
+     *            the router to use for the UI, or <code>null</code> to not
+     *            configure any router
+     */
+    BenchmarkEnvironment(Properties initParameters, Router router) {
+        Properties parameters = new Properties();
+        parameters.setProperty(Constants.SERVLET_PARAMETER_PRODUCTION_MODE,
+                Boolean.TRUE.toString());
+        parameters.putAll(initParameters);
+        DeploymentConfiguration configuration = new DefaultDeploymentConfiguration(
+                BenchmarkEnvironment.class, parameters);
+
+        service = Mockito.mock(VaadinService.class);
+        Mockito.when(service.getDeploymentConfiguration())
+                .thenReturn(configuration);
+        Mockito.when(service.getDependencyFilters())
+                .thenReturn(Collections.emptyList());
+        Mockito.when(service.getSystemMessages(Mockito.any(), Mockito.any()))
+                .thenReturn(new SystemMessages());
+        Mockito.when(service.getRouter()).thenReturn(router);
+        DefaultInstantiator instantiator = new DefaultInstantiator(service);
+        Mockito.when(service.getInstantiator()).thenReturn(instantiator);
+
+        session = new BenchmarkSession(service);
+        session.setConfiguration(configuration);
+        session.lock();
+
+        ui = new UI() {
+            @Override
+            public Router getRouter() {
+                return router;
+            }
+
+            @Override
+            protected void init(VaadinRequest request) {
+                // Nothing to initialize
+            }
+        };
+        ui.getInternals().setSession(session);
+
+        CurrentInstance.setCurrent(ui);
+    }
+
+    /**
+     * Creates a new environment with default configuration and no router.
+     */
+    BenchmarkEnvironment() {
+        this(new Properties(), null);
+    }
+
+    VaadinService getService() {
+        return service;
+    }
+
+    VaadinSession getSession() {
+        return session;
+    }
+
+    UI getUI() {
+        return ui;
+    }
+
+    StateTree getStateTree() {
+        return ui.getInternals().getStateTree();
+    }
+
+    /**
+     * Creates an element tree which is attached to the UI.
+     *
+     * @param children
+     *            the number of direct children of the root element
+     * @param grandChildren
+     *            the number of children for each of the direct children
+     * @return the root element of the created tree
+     */
+    Element createTree(int children, int grandChildren) {
+        Element root = new Element("div");
+        for (int i = 0; i < children; i++) {
+            Element child = new Element("span");
+            child.setAttribute("class", "child");
+            child.setProperty("index", i);
+            for (int j = 0; j < grandChildren; j++) {
+                child.appendChild(new Element("b").setText("Text " + j));
+            }
+            root.appendChild(child);
+        }
+        ui.getElement().appendChild(root);
+        return root;
+    }
+
+    /**
+     * Marks everything in the UI as sent to the client.
+     */
+    void clearChanges() {
+        StateTree tree = getStateTree();
+        tree.runExecutionsBeforeClientResponse();
+        tree.collectChanges(change -> {
+        });
+        ui.getInternals().getConstantPool().dumpConstants();
+        ui.getInternals().getDependencyList().clearPendingSendToClient();
+        ui.getInternals().dumpPendingJavaScriptInvocations();
+    }
+
+    /**
+     * Releases the session lock and current instances.
+     */
+    void tearDown() {
+        session.unlock();
+        CurrentInstance.clearAll();
+    }
+
+    private static class BenchmarkSession extends VaadinSession {
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private BenchmarkSession(VaadinService service) {
+            super(service);
+        }
+
+        @Override
+        public Lock getLockInstance() {
+            return lock;
+        }
+    }
+}
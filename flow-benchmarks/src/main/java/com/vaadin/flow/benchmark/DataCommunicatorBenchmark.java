@@ -0,0 +1,161 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.flow.data.provider.ArrayUpdater;
+import com.vaadin.flow.data.provider.DataCommunicator;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.StateTree;
+
+import elemental.json.JsonValue;
+
+/**
+ * Benchmarks for flushing data from a {@link DataCommunicator} backed by an
+ * in-memory data provider.
+ *
+ * @author Vaadin Ltd
+ * @since 2.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataCommunicatorBenchmark {
+
+    @Param({ "1000", "100000" })
+    private int items;
+
+    @Param({ "50", "500" })
+    private int pageSize;
+
+    private BenchmarkEnvironment environment;
+    private StateTree tree;
+    private DataCommunicator<String> dataCommunicator;
+    private List<String> data;
+    private int round;
+    private int sentItems;
+    private int lastUpdateId = -1;
+
+    @Setup
+    public void setup() {
+        environment = new BenchmarkEnvironment();
+        tree = environment.getStateTree();
+        Element element = environment.createTree(0, 0);
+
+        data = IntStream.range(0, items).mapToObj(i -> "Item " + i)
+                .collect(Collectors.toList());
+
+        dataCommunicator = new DataCommunicator<>(
+                (item, json) -> json.put("name", item), new CountingUpdater(),
+                json -> sentItems += json.length(), element.getNode());
+        dataCommunicator.setDataProvider(DataProvider.ofCollection(data),
+                null);
+        dataCommunicator.setRequestedRange(0, pageSize);
+        environment.clearChanges();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (sentItems == 0) {
+            throw new IllegalStateException("No items were flushed");
+        }
+        environment.tearDown();
+    }
+
+    @Benchmark
+    public void flush_reset() {
+        confirmLastUpdate();
+        dataCommunicator.reset();
+        tree.runExecutionsBeforeClientResponse();
+    }
+
+    @Benchmark
+    public void flush_scroll() {
+        round++;
+        confirmLastUpdate();
+        int pages = Math.max(1, items / pageSize);
+        dataCommunicator.setRequestedRange((round % pages) * pageSize,
+                pageSize);
+        tree.runExecutionsBeforeClientResponse();
+    }
+
+    @Benchmark
+    public void flush_refreshItem() {
+        round++;
+        confirmLastUpdate();
+        dataCommunicator.refresh(data.get(round % pageSize));
+        tree.runExecutionsBeforeClientResponse();
+    }
+
+    /*
+     * Acknowledges the previous update the same way as the client does with
+     * its next request, so that the communicator can release passivated keys.
+     */
+    private void confirmLastUpdate() {
+        if (lastUpdateId != -1) {
+            dataCommunicator.confirmUpdate(lastUpdateId);
+            lastUpdateId = -1;
+        }
+    }
+
+    private class CountingUpdater implements ArrayUpdater {
+        @Override
+        public Update startUpdate(int sizeChange) {
+            return new Update() {
+                @Override
+                public void clear(int start, int length) {
+                    // Nothing is sent anywhere
+                }
+
+                @Override
+                public void set(int start, List<JsonValue> items) {
+                    sentItems += items.size();
+                }
+
+                @Override
+                public void commit(int updateId) {
+                    lastUpdateId = updateId;
+                }
+            };
+        }
+
+        @Override
+        public void initialize() {
+            // Nothing to initialize
+        }
+    }
+}
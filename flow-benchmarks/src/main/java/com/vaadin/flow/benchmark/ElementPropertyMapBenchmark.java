@@ -0,0 +1,108 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.nodefeature.ElementPropertyMap;
+
+/**
+ * Benchmarks for updating properties in an {@link ElementPropertyMap} of an
+ * attached element, including the change tracking caused by the updates.
+ *
+ * @author Vaadin Ltd
+ * @since 2.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ElementPropertyMapBenchmark {
+
+    @Param({ "1", "20" })
+    private int properties;
+
+    private BenchmarkEnvironment environment;
+    private ElementPropertyMap propertyMap;
+    private String[] names;
+    private int round;
+
+    @Setup
+    public void setup() {
+        environment = new BenchmarkEnvironment();
+        Element element = environment.createTree(1, 0);
+        propertyMap = element.getNode().getFeature(ElementPropertyMap.class);
+
+        names = new String[properties];
+        for (int i = 0; i < properties; i++) {
+            names[i] = "property" + i;
+            propertyMap.setProperty(names[i], "initial");
+        }
+        environment.clearChanges();
+    }
+
+    @TearDown
+    public void tearDown() {
+        environment.tearDown();
+    }
+
+    @Benchmark
+    public void setProperty() {
+        round++;
+        Serializable value = Integer.valueOf(round);
+        for (String name : names) {
+            propertyMap.setProperty(name, value);
+        }
+    }
+
+    @Benchmark
+    public void setProperty_sameValue() {
+        for (String name : names) {
+            propertyMap.setProperty(name, "initial");
+        }
+    }
+
+    @Benchmark
+    public void setPropertyAndCollectChanges(Blackhole blackhole) {
+        setProperty();
+        environment.getStateTree().collectChanges(blackhole::consume);
+    }
+
+    @Benchmark
+    public void getProperty(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(propertyMap.getProperty(name));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.flow.data.provider.hierarchy.HierarchyMapper;
+import com.vaadin.flow.data.provider.hierarchy.TreeData;
+import com.vaadin.flow.data.provider.hierarchy.TreeDataProvider;
+import com.vaadin.flow.function.SerializablePredicate;
+import com.vaadin.flow.internal.Range;
+
+/**
+ * Benchmarks for index lookups, expanding and collapsing in a fully expanded
+ * {@link HierarchyMapper} backed by a {@link TreeDataProvider}. Each root has
+ * 100 children with 10 leaves each, so 100 roots give a tree of over 100 000
+ * nodes.
+ *
+ * @author Vaadin Ltd
+ * @since 2.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HierarchyMapperBenchmark {
+
+    private static final int CHILDREN = 100;
+    private static final int LEAVES = 10;
+    private static final int PAGE_SIZE = 50;
+
+    @Param({ "1", "100" })
+    private int roots;
+
+    private HierarchyMapper<String, SerializablePredicate<String>> mapper;
+    private List<String> parents = new ArrayList<>();
+    private List<String> leaves = new ArrayList<>();
+    private int round;
+
+    @Setup
+    public void setup() {
+        TreeData<String> data = new TreeData<>();
+        for (int i = 0; i < roots; i++) {
+            String root = "Root " + i;
+            data.addItem(null, root);
+            for (int j = 0; j < CHILDREN; j++) {
+                String parent = root + "/" + j;
+                data.addItem(root, parent);
+                parents.add(parent);
+                for (int k = 0; k < LEAVES; k++) {
+                    String leaf = parent + "/" + k;
+                    data.addItem(parent, leaf);
+                    leaves.add(leaf);
+                }
+            }
+        }
+        mapper = new HierarchyMapper<>(new TreeDataProvider<>(data));
+        data.getRootItems().forEach(mapper::expand);
+        parents.forEach(mapper::expand);
+    }
+
+    @Benchmark
+    public int getTreeSize() {
+        return mapper.getTreeSize();
+    }
+
+    @Benchmark
+    public Integer getIndex() {
+        round++;
+        return mapper.getIndex(leaves.get(round % leaves.size()));
+    }
+
+    @Benchmark
+    public Integer getParentIndex() {
+        round++;
+        return mapper.getParentIndex(leaves.get(round % leaves.size()));
+    }
+
+    @Benchmark
+    public Range collapseAndExpand() {
+        round++;
+        String parent = parents.get(round % parents.size());
+        Integer index = mapper.getIndex(parent);
+        mapper.collapse(parent, index);
+        return mapper.expand(parent, index);
+    }
+
+    @Benchmark
+    public List<String> fetchHierarchyItems() {
+        round++;
+        int pages = mapper.getTreeSize() / PAGE_SIZE;
+        return mapper
+                .fetchHierarchyItems(Range.withLength(
+                        (round % pages) * PAGE_SIZE, PAGE_SIZE))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.JsonCodec;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+
+/**
+ * Benchmarks for encoding and decoding values with {@link JsonCodec}.
+ *
+ * @author Vaadin Ltd
+ * @since 2.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonCodecBenchmark {
+
+    private BenchmarkEnvironment environment;
+    private Object[] values;
+    private JsonValue[] encodedValues;
+    private Element attachedElement;
+
+    @Setup
+    public void setup() {
+        environment = new BenchmarkEnvironment();
+        attachedElement = environment.createTree(1, 0);
+
+        JsonObject object = Json.createObject();
+        object.put("name", "Name");
+        object.put("count", 42);
+        JsonArray array = Json.createArray();
+        array.set(0, "first");
+        array.set(1, 2);
+
+        values = new Object[] { "Some text", Integer.valueOf(42),
+                Double.valueOf(4.2), Boolean.TRUE, null, object, array };
+        encodedValues = new JsonValue[values.length];
+        for (int i = 0; i < values.length; i++) {
+            encodedValues[i] = JsonCodec.encodeWithoutTypeInfo(values[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        environment.tearDown();
+    }
+
+    @Benchmark
+    public void encodeWithTypeInfo(Blackhole blackhole) {
+        for (Object value : values) {
+            blackhole.consume(JsonCodec.encodeWithTypeInfo(value));
+        }
+    }
+
+    @Benchmark
+    public JsonValue encodeWithTypeInfo_element() {
+        return JsonCodec.encodeWithTypeInfo(attachedElement);
+    }
+
+    @Benchmark
+    public void encodeWithoutTypeInfo(Blackhole blackhole) {
+        for (Object value : values) {
+            blackhole.consume(JsonCodec.encodeWithoutTypeInfo(value));
+        }
+    }
+
+    @Benchmark
+    public void decodeWithoutTypeInfo(Blackhole blackhole) {
+        for (JsonValue value : encodedValues) {
+            Serializable decoded = JsonCodec.decodeWithoutTypeInfo(value);
+            blackhole.consume(decoded);
+        }
+    }
+
+    @Benchmark
+    public void decodeAs(Blackhole blackhole) {
+        blackhole.consume(JsonCodec.decodeAs(encodedValues[0], String.class));
+        blackhole.consume(JsonCodec.decodeAs(encodedValues[1], int.class));
+        blackhole.consume(JsonCodec.decodeAs(encodedValues[2], Double.class));
+        blackhole.consume(JsonCodec.decodeAs(encodedValues[3], boolean.class));
+        blackhole.consume(
+                JsonCodec.decodeAs(encodedValues[5], JsonObject.class));
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.router.BeforeEvent;
+import com.vaadin.flow.router.HasUrlParameter;
+import com.vaadin.flow.router.Location;
+import com.vaadin.flow.router.NavigationState;
+import com.vaadin.flow.router.NavigationTrigger;
+import com.vaadin.flow.router.RouteConfiguration;
+import com.vaadin.flow.router.Router;
+import com.vaadin.flow.server.startup.ApplicationRouteRegistry;
+
+/**
+ * Benchmarks for resolving navigation targets and navigating with a
+ * {@link Router} which has a configurable number of registered routes.
+ *
+ * @author Vaadin Ltd
+ * @since 2.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouterBenchmark {
+
+    @Tag(Tag.DIV)
+    public static class StaticTarget extends Component {
+    }
+
+    @Tag(Tag.DIV)
+    public static class ParameterTarget extends Component
+            implements HasUrlParameter<String> {
+        @Override
+        public void setParameter(BeforeEvent event, String parameter) {
+            // Parameter is not used
+        }
+    }
+
+    private static class BenchmarkRouteRegistry
+            extends ApplicationRouteRegistry {
+    }
+
+    @Param({ "10", "1000" })
+    private int routes;
+
+    private BenchmarkEnvironment environment;
+    private Router router;
+    private String[] paths;
+    private int round;
+
+    @Setup
+    public void setup() {
+        BenchmarkRouteRegistry registry = new BenchmarkRouteRegistry();
+        RouteConfiguration configuration = RouteConfiguration
+                .forRegistry(registry);
+        paths = new String[routes];
+        for (int i = 0; i < routes; i++) {
+            if (i % 2 == 0) {
+                configuration.setRoute("view" + i + "/static",
+                        StaticTarget.class);
+                paths[i] = "view" + i + "/static";
+            } else {
+                configuration.setRoute("view" + i, ParameterTarget.class);
+                paths[i] = "view" + i + "/parameter" + i;
+            }
+        }
+        router = new Router(registry);
+        environment = new BenchmarkEnvironment(new Properties(),
+                router);
+    }
+
+    @TearDown
+    public void tearDown() {
+        environment.tearDown();
+    }
+
+    @Benchmark
+    public NavigationState resolveNavigationTarget() {
+        round++;
+        return router.resolveNavigationTarget(paths[round % routes],
+                Collections.emptyMap()).orElse(null);
+    }
+
+    @Benchmark
+    public int navigate() {
+        round++;
+        int result = router.navigate(environment.getUI(),
+                new Location(paths[round % routes]),
+                NavigationTrigger.PROGRAMMATIC);
+        // Drop the produced changes the same way as a response would
+        environment.clearChanges();
+        return result;
+    }
+}
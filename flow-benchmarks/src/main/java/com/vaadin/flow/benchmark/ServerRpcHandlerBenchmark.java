@@ -0,0 +1,150 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.nodefeature.ElementPropertyMap;
+import com.vaadin.flow.internal.nodefeature.NodeFeatureRegistry;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.communication.ServerRpcHandler;
+import com.vaadin.flow.shared.ApplicationConstants;
+import com.vaadin.flow.shared.JsonConstants;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
+/**
+ * Benchmarks for handling client to server messages with
+ * {@link ServerRpcHandler#handleRpc(UI, java.io.Reader, VaadinRequest)}.
+ * <p>
+ * Each message contains a property synchronization and a DOM event for every
+ * target element, which is what e.g. typing into a form produces.
+ *
+ * @author Vaadin Ltd
+ * @since 2.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServerRpcHandlerBenchmark {
+
+    @Param({ "1", "50" })
+    private int targets;
+
+    private BenchmarkEnvironment environment;
+    private VaadinRequest request;
+    private ServerRpcHandler rpcHandler;
+    private List<Element> elements;
+    private String[] invocations;
+    private int events;
+    private int round;
+
+    @Setup
+    public void setup() {
+        environment = new BenchmarkEnvironment();
+        request = Mockito.mock(VaadinRequest.class);
+        Mockito.when(request.getService())
+                .thenReturn(environment.getService());
+
+        elements = environment.createTree(targets, 0).getChildren()
+                .collect(Collectors.toList());
+        for (Element element : elements) {
+            element.addPropertyChangeListener("value", "change",
+                    event -> events++);
+            element.addEventListener("click", event -> events++);
+        }
+        environment.clearChanges();
+        rpcHandler = new ServerRpcHandler();
+
+        // Alternate between two values so that every message changes state
+        invocations = new String[] { createInvocations("a").toJson(),
+                createInvocations("b").toJson() };
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (events == 0) {
+            throw new IllegalStateException(
+                    "No events were delivered, the RPC messages are invalid");
+        }
+        environment.tearDown();
+    }
+
+    @Benchmark
+    public void handleRpc() throws IOException {
+        round++;
+        UI ui = environment.getUI();
+        String message = "{\"" + ApplicationConstants.CSRF_TOKEN + "\":\""
+                + ui.getCsrfToken() + "\",\""
+                + ApplicationConstants.SERVER_SYNC_ID + "\":"
+                + ui.getInternals().getServerSyncId() + ",\""
+                + ApplicationConstants.CLIENT_TO_SERVER_ID + "\":"
+                + (ui.getInternals().getLastProcessedClientToServerId() + 1)
+                + ",\"" + ApplicationConstants.RPC_INVOCATIONS + "\":"
+                + invocations[round & 1] + "}";
+        rpcHandler.handleRpc(ui, new StringReader(message), request);
+    }
+
+    private JsonArray createInvocations(String value) {
+        JsonArray invocations = Json.createArray();
+        int featureId = NodeFeatureRegistry
+                .getId(ElementPropertyMap.class);
+        for (Element element : elements) {
+            int nodeId = element.getNode().getId();
+
+            JsonObject sync = Json.createObject();
+            sync.put(JsonConstants.RPC_TYPE, JsonConstants.RPC_TYPE_MAP_SYNC);
+            sync.put(JsonConstants.RPC_NODE, nodeId);
+            sync.put(JsonConstants.RPC_FEATURE, featureId);
+            sync.put(JsonConstants.RPC_PROPERTY, "value");
+            sync.put(JsonConstants.RPC_PROPERTY_VALUE, value);
+            invocations.set(invocations.length(), sync);
+
+            JsonObject event = Json.createObject();
+            event.put(JsonConstants.RPC_TYPE, JsonConstants.RPC_TYPE_EVENT);
+            event.put(JsonConstants.RPC_NODE, nodeId);
+            event.put(JsonConstants.RPC_EVENT_TYPE, "click");
+            invocations.set(invocations.length(), event);
+        }
+
+        return invocations;
+    }
+}
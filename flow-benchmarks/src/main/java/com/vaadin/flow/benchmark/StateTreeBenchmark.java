@@ -0,0 +1,304 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.StateTree;
+import com.vaadin.flow.internal.nodefeature.ElementAttributeMap;
+import com.vaadin.flow.internal.nodefeature.ElementPropertyMap;
+import com.vaadin.flow.internal.nodefeature.ElementStylePropertyMap;
+import com.vaadin.flow.internal.nodefeature.NodeFeature;
+
+/**
+ * Benchmarks for collecting changes from a {@link StateTree}.
+ * <p>
+ * The benchmarks change either all nodes of the tree or only a small part of
+ * it before collecting the changes, which shows how the cost of a round trip
+ * depends on the number of dirty nodes rather than the size of the tree.
+ * <p>
+ * The bookkeeping benchmarks compare only the tracking of dirty nodes and
+ * change trackers, without any actual changes. The baseline reproduces the
+ * previous implementation which copied a <code>LinkedHashSet</code> of dirty
+ * nodes on each collection and kept the change trackers of each node in a
+ * <code>HashMap</code> keyed by feature type. The other one reproduces the
+ * current implementation based on dirty generations and change tracker
+ * arrays.
+ *
+ * @author Vaadin Ltd
+ * @since 2.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateTreeBenchmark {
+
+    private static final List<Class<? extends NodeFeature>> FEATURES = Arrays
+            .asList(ElementPropertyMap.class, ElementAttributeMap.class,
+                    ElementStylePropertyMap.class);
+
+    @Param({ "10", "100", "1000" })
+    private int nodes;
+
+    private BenchmarkEnvironment environment;
+    private StateTree tree;
+    private List<Element> elements;
+    private int round;
+    private HashMapBookkeeping hashMapBookkeeping;
+    private ArrayBookkeeping arrayBookkeeping;
+
+    @Setup
+    public void setup() {
+        environment = new BenchmarkEnvironment();
+        tree = environment.getStateTree();
+        elements = environment.createTree(nodes, 0).getChildren()
+                .collect(Collectors.toList());
+        environment.clearChanges();
+        hashMapBookkeeping = new HashMapBookkeeping(nodes);
+        arrayBookkeeping = new ArrayBookkeeping(nodes);
+    }
+
+    @TearDown
+    public void tearDown() {
+        environment.tearDown();
+    }
+
+    @Benchmark
+    public void collectChanges_allNodesDirty(Blackhole blackhole) {
+        round++;
+        for (Element element : elements) {
+            element.setProperty("value", round);
+        }
+        tree.collectChanges(blackhole::consume);
+    }
+
+    @Benchmark
+    public void collectChanges_singleNodeDirty(Blackhole blackhole) {
+        round++;
+        elements.get(round % nodes).setProperty("value", round);
+        tree.collectChanges(blackhole::consume);
+    }
+
+    @Benchmark
+    public void collectChanges_sameNodeMarkedRepeatedly(Blackhole blackhole) {
+        round++;
+        Element element = elements.get(round % nodes);
+        for (int i = 0; i < nodes; i++) {
+            element.setProperty("value" + (i & 7), i);
+        }
+        tree.collectChanges(blackhole::consume);
+    }
+
+    @Benchmark
+    public void collectChanges_nothingDirty(Blackhole blackhole) {
+        tree.collectChanges(blackhole::consume);
+    }
+
+    @Benchmark
+    public void bookkeeping_linkedHashSetAndHashMap_baseline(
+            Blackhole blackhole) {
+        for (HashMapNode node : hashMapBookkeeping.nodes) {
+            for (Class<? extends NodeFeature> feature : FEATURES) {
+                hashMapBookkeeping.markAsDirty(node);
+                blackhole.consume(node.getChangeTracker(feature));
+            }
+        }
+        hashMapBookkeeping.collectChanges(blackhole);
+    }
+
+    @Benchmark
+    public void bookkeeping_generationAndArray(Blackhole blackhole) {
+        for (ArrayNode node : arrayBookkeeping.nodes) {
+            for (Class<? extends NodeFeature> feature : FEATURES) {
+                arrayBookkeeping.markAsDirty(node);
+                blackhole.consume(node.getChangeTracker(
+                        arrayBookkeeping.getChangeTrackerIndex(feature)));
+            }
+        }
+        arrayBookkeeping.collectChanges(blackhole);
+    }
+
+    /**
+     * Dirty node bookkeeping as implemented before dirty generations: a
+     * <code>LinkedHashSet</code> which is replaced and copied when collected.
+     */
+    private static class HashMapBookkeeping {
+        private final List<HashMapNode> nodes = new ArrayList<>();
+        private Set<HashMapNode> dirtyNodes = new LinkedHashSet<>();
+
+        private HashMapBookkeeping(int nodeCount) {
+            for (int i = 0; i < nodeCount; i++) {
+                nodes.add(new HashMapNode());
+            }
+        }
+
+        private void markAsDirty(HashMapNode node) {
+            dirtyNodes.add(node);
+        }
+
+        private void collectChanges(Blackhole blackhole) {
+            Set<HashMapNode> allDirtyNodes = new LinkedHashSet<>();
+            boolean evaluateNewDirtyNodes = true;
+            while (evaluateNewDirtyNodes) {
+                Set<HashMapNode> dirtyNodesSet = dirtyNodes;
+                dirtyNodes = new LinkedHashSet<>();
+                evaluateNewDirtyNodes = allDirtyNodes.addAll(dirtyNodesSet);
+            }
+            allDirtyNodes.forEach(node -> node.collectChanges(blackhole));
+        }
+    }
+
+    /**
+     * Change trackers of a node in a <code>HashMap</code> keyed by feature
+     * type.
+     */
+    private static class HashMapNode {
+        private Map<Class<? extends NodeFeature>, Serializable> changes;
+
+        private Serializable getChangeTracker(
+                Class<? extends NodeFeature> feature) {
+            if (changes == null) {
+                changes = new HashMap<>();
+            }
+            return changes.computeIfAbsent(feature, k -> new HashMap<>());
+        }
+
+        private void collectChanges(Blackhole blackhole) {
+            for (Class<? extends NodeFeature> feature : FEATURES) {
+                if (changes != null && changes.containsKey(feature)) {
+                    blackhole.consume(changes.remove(feature));
+                }
+            }
+            if (changes != null && changes.isEmpty()) {
+                changes = null;
+            }
+        }
+    }
+
+    /**
+     * Dirty node bookkeeping based on dirty generations, as implemented by
+     * {@link StateTree}.
+     */
+    private static class ArrayBookkeeping {
+        private final List<ArrayNode> nodes = new ArrayList<>();
+        private final Map<Class<?>, Integer> featureIndexes = new HashMap<>();
+        private ArrayList<ArrayNode> dirtyNodes = new ArrayList<>();
+        private int dirtyGeneration = 1;
+
+        private ArrayBookkeeping(int nodeCount) {
+            for (int i = 0; i < FEATURES.size(); i++) {
+                featureIndexes.put(FEATURES.get(i), Integer.valueOf(i));
+            }
+            for (int i = 0; i < nodeCount; i++) {
+                nodes.add(new ArrayNode());
+            }
+        }
+
+        private int getChangeTrackerIndex(
+                Class<? extends NodeFeature> feature) {
+            return featureIndexes.get(feature).intValue();
+        }
+
+        private void markAsDirty(ArrayNode node) {
+            if (node.dirtyGeneration != dirtyGeneration) {
+                node.dirtyGeneration = dirtyGeneration;
+                dirtyNodes.add(node);
+            }
+        }
+
+        private void collectChanges(Blackhole blackhole) {
+            List<ArrayNode> allDirtyNodes = dirtyNodes;
+            dirtyNodes = new ArrayList<>();
+            dirtyGeneration++;
+            if (dirtyGeneration == 0) {
+                dirtyGeneration = 1;
+            }
+            for (ArrayNode node : allDirtyNodes) {
+                for (Class<? extends NodeFeature> feature : FEATURES) {
+                    node.collectChanges(getChangeTrackerIndex(feature),
+                            blackhole);
+                }
+                node.clearIfEmpty();
+            }
+        }
+    }
+
+    /**
+     * Change trackers of a node in an array indexed by feature.
+     */
+    private static class ArrayNode {
+        private int dirtyGeneration;
+        private Serializable[] changes;
+
+        private Serializable getChangeTracker(int index) {
+            if (changes == null) {
+                changes = new Serializable[FEATURES.size()];
+            }
+            Serializable tracker = changes[index];
+            if (tracker == null) {
+                tracker = new HashMap<>();
+                changes[index] = tracker;
+            }
+            return tracker;
+        }
+
+        private void collectChanges(int index, Blackhole blackhole) {
+            if (changes != null && changes[index] != null) {
+                blackhole.consume(changes[index]);
+                changes[index] = null;
+            }
+        }
+
+        private void clearIfEmpty() {
+            if (changes == null) {
+                return;
+            }
+            for (Serializable tracker : changes) {
+                if (tracker != null) {
+                    return;
+                }
+            }
+            changes = null;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.server.Constants;
+import com.vaadin.flow.server.communication.UidlWriter;
+
+import elemental.json.JsonObject;
+
+/**
+ * Benchmarks for creating UIDL responses with {@link UidlWriter}, both as an
+ * in-memory JSON object and streamed to a writer, with the default and the
+ * compact change encoding.
+ *
+ * @author Vaadin Ltd
+ * @since 2.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UidlWriterBenchmark {
+
+    @Param({ "10", "1000" })
+    private int dirtyNodes;
+
+    @Param({ "false", "true" })
+    private boolean compactChanges;
+
+    private BenchmarkEnvironment environment;
+    private List<Element> elements;
+    private UidlWriter uidlWriter;
+    private int round;
+
+    @Setup
+    public void setup() {
+        Properties parameters = new Properties();
+        parameters.setProperty(Constants.SERVLET_PARAMETER_COMPACT_CHANGES,
+                String.valueOf(compactChanges));
+        environment = new BenchmarkEnvironment(parameters, null);
+        elements = environment.createTree(dirtyNodes, 0).getChildren()
+                .collect(Collectors.toList());
+        environment.clearChanges();
+        uidlWriter = new UidlWriter();
+    }
+
+    @TearDown
+    public void tearDown() {
+        environment.tearDown();
+    }
+
+    @Benchmark
+    public JsonObject createUidl() {
+        changeElements();
+        return uidlWriter.createUidl(environment.getUI(), false);
+    }
+
+    @Benchmark
+    public void writeUidl(Blackhole blackhole) throws IOException {
+        changeElements();
+        uidlWriter.writeUidl(environment.getUI(), false, false,
+                new BlackholeWriter(blackhole));
+    }
+
+    private void changeElements() {
+        round++;
+        for (Element element : elements) {
+            element.setProperty("value", "Value " + round);
+            element.setAttribute("title", "Title " + round);
+        }
+    }
+
+    private static class BlackholeWriter extends Writer {
+        private final Blackhole blackhole;
+
+        private BlackholeWriter(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            blackhole.consume(cbuf);
+            blackhole.consume(len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            blackhole.consume(str);
+            blackhole.consume(len);
+        }
+
+        @Override
+        public void flush() {
+            // Nothing to flush
+        }
+
+        @Override
+        public void close() {
+            // Nothing to close
+        }
+    }
+}
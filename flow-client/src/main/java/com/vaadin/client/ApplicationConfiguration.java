@@ -38,6 +38,7 @@ public class ApplicationConfiguration {
     private boolean productionMode;
     private boolean requestTiming;
     private boolean webComponentMode;
+    private int maxPipelinedRequests = 1;
 
     private String servletVersion;
     private String atmosphereVersion;
@@ -294,6 +295,29 @@ public class ApplicationConfiguration {
         this.requestTiming = requestTiming;
     }
 
+    /**
+     * Gets the maximum number of UIDL requests that may be in progress at the
+     * same time.
+     *
+     * @return the maximum number of requests in progress, <code>1</code> if
+     *         requests are not pipelined
+     */
+    public int getMaxPipelinedRequests() {
+        return maxPipelinedRequests;
+    }
+
+    /**
+     * Sets the maximum number of UIDL requests that may be in progress at the
+     * same time.
+     *
+     * @param maxPipelinedRequests
+     *            the maximum number of requests in progress, <code>1</code>
+     *            to not pipeline requests
+     */
+    public void setMaxPipelinedRequests(int maxPipelinedRequests) {
+        this.maxPipelinedRequests = maxPipelinedRequests;
+    }
+
     /**
      * Gets the base URL of the frontend components on the server.
      *
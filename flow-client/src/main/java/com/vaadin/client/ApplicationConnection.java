@@ -54,6 +54,9 @@ public class ApplicationConnection {
         GWT.setUncaughtExceptionHandler(
                 registry.getSystemErrorHandler()::handleError);
 
+        registry.getRequestResponseTracker().setMaxActiveRequests(
+                applicationConfiguration.getMaxPipelinedRequests());
+
         StateNode rootNode = registry.getStateTree().getRootNode();
 
         // Bind UI configuration objects
@@ -167,6 +167,11 @@ public class Bootstrapper implements EntryPoint {
         conf.setProductionMode(!jsoConfiguration.getConfigBoolean("debug"));
         conf.setRequestTiming(
                 jsoConfiguration.getConfigBoolean("requestTiming"));
+        Integer maxPipelinedRequests = jsoConfiguration
+                .getConfigInteger("maxPipelinedRequests");
+        if (maxPipelinedRequests != null) {
+            conf.setMaxPipelinedRequests(maxPipelinedRequests.intValue());
+        }
         conf.setExportedWebComponents(
                 jsoConfiguration.getConfigStringArray("webcomponents"));
     }
@@ -299,7 +299,8 @@ public class DefaultConnectionStateHandler implements ConnectionStateHandler {
     protected final void giveUp() {
         reconnectionCause = null;
 
-        if (registry.getRequestResponseTracker().hasActiveRequest()) {
+        // All pipelined requests have failed as well
+        while (registry.getRequestResponseTracker().hasActiveRequest()) {
             endRequest();
         }
 
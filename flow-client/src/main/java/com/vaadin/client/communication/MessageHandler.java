@@ -568,7 +568,14 @@ public class MessageHandler {
             // There are messages but the next id was not found, likely it
             // has been lost
             // Drop pending messages and resynchronize
-            pendingUIDLMessages.clear();
+            JsArray<PendingUIDLMessage> dropped = pendingUIDLMessages;
+            pendingUIDLMessages = JsCollections.array();
+            // Requests which got a dropped response would otherwise stay
+            // active, leaving no room for the resynchronization request when
+            // requests are pipelined
+            for (int i = 0; i < dropped.length(); i++) {
+                endRequestIfResponse(dropped.get(i).getJson());
+            }
             registry.getMessageSender().resynchronize();
         }
     }
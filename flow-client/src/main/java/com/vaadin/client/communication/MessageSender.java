@@ -61,7 +61,9 @@ public class MessageSender {
      * progress and the application is running.
      * <p>
      * If a request is in progress, this method does nothing and assumes that it
-     * is called again when the request completes.
+     * is called again when the request completes. When requests are pipelined,
+     * invocations are sent right away as long as the maximum number of requests
+     * in progress has not been reached.
      */
     public void sendInvocationsToServer() {
         if (!registry.getUILifecycle().isRunning()) {
@@ -70,10 +72,11 @@ public class MessageSender {
             return;
         }
 
-        if (registry.getRequestResponseTracker().hasActiveRequest()
+        if (!registry.getRequestResponseTracker().canStartRequest()
                 || (push != null && !push.isActive())) {
-            // There is an active request or push is enabled but not active
-            // -> send when current request completes or push becomes active
+            // There are too many active requests or push is enabled but not
+            // active -> send when current request completes or push becomes
+            // active
         } else {
             doSendInvocationsToServer();
         }
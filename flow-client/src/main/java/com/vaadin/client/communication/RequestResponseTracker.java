@@ -26,7 +26,8 @@ import com.vaadin.client.gwt.com.google.web.bindery.event.shared.SimpleEventBus;
  * Tracks active server UIDL requests.
  * <p>
  * Ensures that there is only one outgoing server request active at a given
- * time.
+ * time, unless requests are pipelined using
+ * {@link #setMaxActiveRequests(int)}.
  * <p>
  * Fires events when a requests starts, response handling starts and when
  * response handling ends.
@@ -36,7 +37,8 @@ import com.vaadin.client.gwt.com.google.web.bindery.event.shared.SimpleEventBus;
  */
 public class RequestResponseTracker {
 
-    private boolean hasActiveRequest = false;
+    private int activeRequests = 0;
+    private int maxActiveRequests = 1;
     private final Registry registry;
     private EventBus eventBus = new SimpleEventBus();
 
@@ -53,20 +55,58 @@ public class RequestResponseTracker {
     /**
      * Marks that a new request has started.
      * <p>
-     * Should not be called when a request is in progress, i.e.
-     * {@link #startRequest()} has been called but not {@link #endRequest()}.
+     * Should not be called when the maximum number of requests is in progress,
+     * see {@link #canStartRequest()}.
      * <p>
      * Fires a {@link RequestStartingEvent}.
      */
     public void startRequest() {
-        if (hasActiveRequest) {
+        if (!canStartRequest()) {
             throw new IllegalStateException(
                     "Trying to start a new request while another is active");
         }
-        hasActiveRequest = true;
+        activeRequests++;
         fireEvent(new RequestStartingEvent());
     }
 
+    /**
+     * Checks if a new request can be started without waiting for any active
+     * request to end.
+     *
+     * @return true if a new request can be started, false otherwise
+     */
+    public boolean canStartRequest() {
+        return activeRequests < maxActiveRequests;
+    }
+
+    /**
+     * Sets the maximum number of requests that can be active at the same time.
+     * <p>
+     * With more than one request, pending invocations are sent to the server
+     * without waiting for the responses to earlier requests. The server
+     * processes the requests in the order they were sent and responses are
+     * handled in the order of their server sync ids.
+     *
+     * @param maxActiveRequests
+     *            the maximum number of active requests, at least 1
+     */
+    public void setMaxActiveRequests(int maxActiveRequests) {
+        if (maxActiveRequests < 1) {
+            throw new IllegalArgumentException(
+                    "The maximum number of active requests must be at least 1");
+        }
+        this.maxActiveRequests = maxActiveRequests;
+    }
+
+    /**
+     * Gets the maximum number of requests that can be active at the same time.
+     *
+     * @return the maximum number of active requests
+     */
+    public int getMaxActiveRequests() {
+        return maxActiveRequests;
+    }
+
     /**
      * Fires the given event using the event bus for this class.
      *
@@ -83,11 +123,12 @@ public class RequestResponseTracker {
      * @return true if there is an active request, false otherwise
      */
     public boolean hasActiveRequest() {
-        return hasActiveRequest;
+        return activeRequests > 0;
     }
 
     /**
-     * Marks that the current request has ended.
+     * Marks that the current request, or the oldest one of pipelined requests,
+     * has ended.
      * <p>
      * Should not be called unless a request is in progress, i.e.
      * {@link #startRequest()} has been called but not {@link #endRequest()}.
@@ -97,14 +138,14 @@ public class RequestResponseTracker {
      * Fires a {@link ResponseHandlingEndedEvent}.
      */
     public void endRequest() {
-        if (!hasActiveRequest) {
+        if (activeRequests == 0) {
             throw new IllegalStateException(
                     "endRequest called when no request is active");
         }
         // After sendInvocationsToServer() there may be a new active
-        // request, so we must set hasActiveRequest to false before, not after,
-        // the call.
-        hasActiveRequest = false;
+        // request, so we must decrement activeRequests before, not after, the
+        // call.
+        activeRequests--;
 
         if (registry.getUILifecycle().isRunning()
                 && registry.getServerRpcQueue().isFlushPending()) {
@@ -18,9 +18,12 @@ package com.vaadin.client.communication;
 import com.google.gwt.core.client.Scheduler;
 import com.vaadin.client.Console;
 import com.vaadin.client.Registry;
+import com.vaadin.flow.shared.JsonConstants;
 
 import elemental.json.Json;
 import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.JsonType;
 import elemental.json.JsonValue;
 
 /**
@@ -44,6 +47,15 @@ public class ServerRpcQueue {
 
     private Runnable doFlushStrategy = NO_OP;
 
+    private boolean coalescePropertySyncs = true;
+
+    /*
+     * Index of the first pending invocation after the last invocation which is
+     * not a property sync. Property syncs before it cannot be coalesced since
+     * the later invocations might depend on the synced values.
+     */
+    private int coalesceStart = 0;
+
     /**
      * Creates a new instance connected to the given registry.
      *
@@ -66,14 +78,37 @@ public class ServerRpcQueue {
                     "Trying to invoke method on not yet started or stopped application");
             return;
         }
+        if (!isPropertySync(invocation)) {
+            pendingInvocations.set(pendingInvocations.length(), invocation);
+            coalesceStart = pendingInvocations.length();
+            return;
+        }
+        if (coalescePropertySyncs) {
+            removeSupersededSync((JsonObject) invocation);
+        }
         pendingInvocations.set(pendingInvocations.length(), invocation);
     }
 
+    /**
+     * Sets whether a pending property sync is replaced by a later sync of the
+     * same node, feature and property, so that only the last value is sent to
+     * the server. A sync is only replaced if no other kind of invocation has
+     * been added after it. Enabled by default.
+     *
+     * @param coalescePropertySyncs
+     *            <code>true</code> to send only the last value of a property,
+     *            <code>false</code> to send every property sync
+     */
+    public void setCoalescePropertySyncs(boolean coalescePropertySyncs) {
+        this.coalescePropertySyncs = coalescePropertySyncs;
+    }
+
     /**
      * Clears the queue.
      */
     public void clear() {
         pendingInvocations = Json.createArray();
+        coalesceStart = 0;
         flushPending = false;
         doFlushStrategy = NO_OP;
     }
@@ -140,6 +175,35 @@ public class ServerRpcQueue {
         return pendingInvocations;
     }
 
+    private static boolean isPropertySync(JsonValue invocation) {
+        return invocation.getType() == JsonType.OBJECT
+                && JsonConstants.RPC_TYPE_MAP_SYNC.equals(
+                        ((JsonObject) invocation)
+                                .getString(JsonConstants.RPC_TYPE));
+    }
+
+    private void removeSupersededSync(JsonObject sync) {
+        // There can be at most one superseded sync since it has been removed
+        // whenever a new sync was added
+        for (int i = pendingInvocations.length() - 1; i >= coalesceStart;
+                i--) {
+            JsonObject pending = pendingInvocations.getObject(i);
+            if (isSameProperty(pending, sync)) {
+                pendingInvocations.remove(i);
+                return;
+            }
+        }
+    }
+
+    private static boolean isSameProperty(JsonObject sync1, JsonObject sync2) {
+        return sync1.getNumber(JsonConstants.RPC_NODE) == sync2
+                .getNumber(JsonConstants.RPC_NODE)
+                && sync1.getNumber(JsonConstants.RPC_FEATURE) == sync2
+                        .getNumber(JsonConstants.RPC_FEATURE)
+                && sync1.getString(JsonConstants.RPC_PROPERTY)
+                        .equals(sync2.getString(JsonConstants.RPC_PROPERTY));
+    }
+
     private boolean isFlushScheduled() {
         return NO_OP != doFlushStrategy;
     }
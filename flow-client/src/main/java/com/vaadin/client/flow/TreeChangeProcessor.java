@@ -27,10 +27,13 @@ import com.vaadin.flow.shared.JsonConstants;
 
 import elemental.json.JsonArray;
 import elemental.json.JsonObject;
+import elemental.json.JsonType;
 import elemental.json.JsonValue;
 
 /**
- * Updates a state tree based on changes in JSON format.
+ * Updates a state tree based on changes in JSON format. Each change is either
+ * a JSON object with named properties or a compact JSON array with positional
+ * values, depending on how the server has been configured.
  *
  * @author Vaadin Ltd
  * @since 1.0
@@ -61,10 +64,9 @@ public class TreeChangeProcessor {
 
             // Attach all nodes before doing anything else
             for (int i = 0; i < length; i++) {
-                JsonObject change = changes.getObject(i);
+                JsonValue change = changes.get(i);
                 if (isAttach(change)) {
-                    int nodeId = (int) change
-                            .getNumber(JsonConstants.CHANGE_NODE);
+                    int nodeId = getNodeId(change);
 
                     StateNode node = new StateNode(nodeId, tree);
                     tree.registerNode(node);
@@ -74,9 +76,11 @@ public class TreeChangeProcessor {
 
             // Then process all non-attach changes
             for (int i = 0; i < length; i++) {
-                JsonObject change = changes.getObject(i);
+                JsonValue change = changes.get(i);
                 if (!isAttach(change)) {
-                    nodes.add(processChange(tree, change));
+                    nodes.add(isCompact(change)
+                            ? processCompactChange(tree, (JsonArray) change)
+                            : processChange(tree, (JsonObject) change));
                 }
             }
             return nodes;
@@ -86,9 +90,24 @@ public class TreeChangeProcessor {
 
     }
 
-    private static boolean isAttach(JsonObject change) {
-        return JsonConstants.CHANGE_TYPE_ATTACH
-                .equals(change.getString(JsonConstants.CHANGE_TYPE));
+    private static boolean isCompact(JsonValue change) {
+        return change.getType() == JsonType.ARRAY;
+    }
+
+    private static boolean isAttach(JsonValue change) {
+        if (isCompact(change)) {
+            return (int) ((JsonArray) change).getNumber(
+                    1) == JsonConstants.COMPACT_CHANGE_TYPE_ATTACH;
+        }
+        return JsonConstants.CHANGE_TYPE_ATTACH.equals(
+                ((JsonObject) change).getString(JsonConstants.CHANGE_TYPE));
+    }
+
+    private static int getNodeId(JsonValue change) {
+        if (isCompact(change)) {
+            return (int) ((JsonArray) change).getNumber(0);
+        }
+        return (int) ((JsonObject) change).getNumber(JsonConstants.CHANGE_NODE);
     }
 
     /**
@@ -133,6 +152,71 @@ public class TreeChangeProcessor {
         return node;
     }
 
+    /**
+     * Update a state tree based on a compact JSON change on the form
+     * <code>[node, type, ...]</code>. This method is public for testing
+     * purposes.
+     *
+     * @param tree
+     *            the tree to update
+     * @param change
+     *            the compact JSON change
+     * @return the updated node addressed by the provided {@code change}
+     */
+    public static StateNode processCompactChange(StateTree tree,
+            JsonArray change) {
+        int nodeId = (int) change.getNumber(0);
+        int type = (int) change.getNumber(1);
+
+        StateNode node = tree.getNode(nodeId);
+        assert node != null;
+
+        if (type == JsonConstants.COMPACT_CHANGE_TYPE_DETACH) {
+            processDetachChange(node);
+            return node;
+        }
+
+        int featureId = (int) change.getNumber(2);
+        switch (type) {
+        case JsonConstants.COMPACT_CHANGE_TYPE_NOOP:
+            populateFeature(node, featureId, change.getBoolean(3));
+            break;
+        case JsonConstants.COMPACT_CHANGE_TYPE_PUT:
+            putValue(node.getMap(featureId).getProperty(change.getString(3)),
+                    change.get(4));
+            break;
+        case JsonConstants.COMPACT_CHANGE_TYPE_PUT_NODE:
+            putNode(node, node.getMap(featureId).getProperty(
+                    change.getString(3)), (int) change.getNumber(4));
+            break;
+        case JsonConstants.COMPACT_CHANGE_TYPE_REMOVE:
+            node.getMap(featureId).getProperty(change.getString(3))
+                    .removeValue();
+            break;
+        case JsonConstants.COMPACT_CHANGE_TYPE_SPLICE:
+        case JsonConstants.COMPACT_CHANGE_TYPE_SPLICE_NODES:
+            NodeList list = node.getList(featureId);
+            int index = (int) change.getNumber(3);
+            int remove = (int) change.getNumber(4);
+            if (change.length() <= 5) {
+                list.splice(index, remove);
+            } else if (type == JsonConstants.COMPACT_CHANGE_TYPE_SPLICE) {
+                list.splice(index, remove,
+                        ClientJsonCodec.jsonArrayAsJsArray(change.getArray(5)));
+            } else {
+                list.splice(index, remove,
+                        getChildNodes(node, change.getArray(5)));
+            }
+            break;
+        case JsonConstants.COMPACT_CHANGE_TYPE_CLEAR:
+            node.getList(featureId).clear();
+            break;
+        default:
+            assert false : "Unsupported compact change type: " + type;
+        }
+        return node;
+    }
+
     private static void processDetachChange(StateNode node) {
         node.getTree().unregisterNode(node);
         node.setParent(null);
@@ -142,8 +226,13 @@ public class TreeChangeProcessor {
         assert change.hasKey(
                 JsonConstants.CHANGE_FEATURE_TYPE) : "Change doesn't contain feature type. Don't know how to populate feature";
         int featureId = (int) change.getNumber(JsonConstants.CHANGE_FEATURE);
-        if (change.getBoolean(JsonConstants.CHANGE_FEATURE_TYPE)) {
-            // list feature
+        populateFeature(node, featureId,
+                change.getBoolean(JsonConstants.CHANGE_FEATURE_TYPE));
+    }
+
+    private static void populateFeature(StateNode node, int featureId,
+            boolean isList) {
+        if (isList) {
             node.getList(featureId);
         } else {
             node.getMap(featureId);
@@ -154,23 +243,30 @@ public class TreeChangeProcessor {
         MapProperty property = findProperty(change, node);
 
         if (change.hasKey(JsonConstants.CHANGE_PUT_VALUE)) {
-            JsonValue jsonValue = change.get(JsonConstants.CHANGE_PUT_VALUE);
-            Object value = ClientJsonCodec.decodeWithoutTypeInfo(jsonValue);
-            property.setValue(value);
+            putValue(property, change.get(JsonConstants.CHANGE_PUT_VALUE));
         } else if (change.hasKey(JsonConstants.CHANGE_PUT_NODE_VALUE)) {
-            int childId = (int) change
-                    .getNumber(JsonConstants.CHANGE_PUT_NODE_VALUE);
-            StateNode child = node.getTree().getNode(childId);
-            assert child != null;
-            child.setParent(node);
-
-            property.setValue(child);
+            putNode(node, property, (int) change
+                    .getNumber(JsonConstants.CHANGE_PUT_NODE_VALUE));
         } else {
             assert false : "Change should have either value or nodeValue property: "
                     + WidgetUtil.stringify(change);
         }
     }
 
+    private static void putValue(MapProperty property, JsonValue jsonValue) {
+        Object value = ClientJsonCodec.decodeWithoutTypeInfo(jsonValue);
+        property.setValue(value);
+    }
+
+    private static void putNode(StateNode node, MapProperty property,
+            int childId) {
+        StateNode child = node.getTree().getNode(childId);
+        assert child != null;
+        child.setParent(node);
+
+        property.setValue(child);
+    }
+
     private static void processRemoveChange(JsonObject change, StateNode node) {
         MapProperty property = findProperty(change, node);
 
@@ -208,24 +304,29 @@ public class TreeChangeProcessor {
         } else if (change.hasKey(JsonConstants.CHANGE_SPLICE_ADD_NODES)) {
             JsonArray addNodes = change
                     .getArray(JsonConstants.CHANGE_SPLICE_ADD_NODES);
-            int length = addNodes.length();
 
-            JsArray<StateNode> add = JsCollections.array();
+            list.splice(index, remove, getChildNodes(node, addNodes));
+        } else {
+            list.splice(index, remove);
+        }
+    }
 
-            StateTree tree = node.getTree();
-            for (int i = 0; i < length; i++) {
-                int childId = (int) addNodes.getNumber(i);
-                StateNode child = tree.getNode(childId);
-                assert child != null : "No child node found with id " + childId;
-                child.setParent(node);
+    private static JsArray<StateNode> getChildNodes(StateNode node,
+            JsonArray addNodes) {
+        int length = addNodes.length();
 
-                add.set(i, child);
-            }
+        JsArray<StateNode> add = JsCollections.array();
 
-            list.splice(index, remove, add);
-        } else {
-            list.splice(index, remove);
+        StateTree tree = node.getTree();
+        for (int i = 0; i < length; i++) {
+            int childId = (int) addNodes.getNumber(i);
+            StateNode child = tree.getNode(childId);
+            assert child != null : "No child node found with id " + childId;
+            child.setParent(node);
+
+            add.set(i, child);
         }
+        return add;
     }
 
     private static void processClearChange(JsonObject change, StateNode node) {
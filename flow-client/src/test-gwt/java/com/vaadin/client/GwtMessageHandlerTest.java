@@ -24,8 +24,10 @@ import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.user.client.Timer;
 
 import com.vaadin.client.communication.MessageHandler;
+import com.vaadin.client.communication.MessageSender;
 import com.vaadin.client.communication.RequestResponseTracker;
 import com.vaadin.client.flow.StateTree;
+import com.vaadin.flow.shared.ApplicationConstants;
 import com.vaadin.flow.shared.ui.Dependency;
 import com.vaadin.flow.shared.ui.LoadMode;
 
@@ -39,6 +41,9 @@ import elemental.json.JsonObject;
  */
 public class GwtMessageHandlerTest extends ClientEngineTestBase {
 
+    // Same as the timeout in MessageHandler
+    private static final int MAX_SUSPENDED_TIMEOUT = 5000;
+
     private Registry registry;
     private TestMessageHandler handler;
 
@@ -66,8 +71,25 @@ public class GwtMessageHandlerTest extends ClientEngineTestBase {
             super(registry);
         }
 
+        private int endedRequests;
+
         @Override
         public void endRequest() {
+            endedRequests++;
+        }
+    }
+
+    private static class TestMessageSender extends MessageSender {
+
+        private int resynchronizeCalls;
+
+        public TestMessageSender(Registry registry) {
+            super(registry);
+        }
+
+        @Override
+        public void resynchronize() {
+            resynchronizeCalls++;
         }
     }
 
@@ -135,6 +157,7 @@ public class GwtMessageHandlerTest extends ClientEngineTestBase {
                 set(ApplicationConfiguration.class,
                         new ApplicationConfiguration());
                 set(EventsOrder.class, new EventsOrder());
+                set(MessageSender.class, new TestMessageSender(this));
             }
         };
         handler = new TestMessageHandler(registry);
@@ -219,6 +242,46 @@ public class GwtMessageHandlerTest extends ClientEngineTestBase {
         }.schedule(100);
     }
 
+    public void testMessageProcessing_missingMessageNeverArrives_droppedResponseEndsRequest() {
+        JavaScriptObject first = JavaScriptObject.createObject();
+        JsonObject firstJson = first.cast();
+        firstJson.put(ApplicationConstants.SERVER_SYNC_ID, 0);
+        firstJson.put("changes", Json.createArray());
+        handler.handleJSON(first.cast());
+
+        delayTestFinish(MAX_SUSPENDED_TIMEOUT + 2000);
+
+        new Timer() {
+            @Override
+            public void run() {
+                // Response to a pipelined request while the response with
+                // sync id 1 is lost
+                JavaScriptObject outOfOrder = JavaScriptObject.createObject();
+                JsonObject outOfOrderJson = outOfOrder.cast();
+                outOfOrderJson.put(ApplicationConstants.SERVER_SYNC_ID, 2);
+                outOfOrderJson.put("changes", Json.createArray());
+                handler.handleJSON(outOfOrder.cast());
+
+                assertEquals(1, getRequestResponseTracker().endedRequests);
+            }
+        }.schedule(100);
+
+        new Timer() {
+            @Override
+            public void run() {
+                assertEquals(2, getRequestResponseTracker().endedRequests);
+                assertEquals(1, ((TestMessageSender) registry
+                        .getMessageSender()).resynchronizeCalls);
+                finishTest();
+            }
+        }.schedule(MAX_SUSPENDED_TIMEOUT + 500);
+    }
+
+    private TestRequestResponseTracker getRequestResponseTracker() {
+        return (TestRequestResponseTracker) registry
+                .getRequestResponseTracker();
+    }
+
     private TestResourceLoader getResourceLoader() {
         return (TestResourceLoader) registry.getResourceLoader();
     }
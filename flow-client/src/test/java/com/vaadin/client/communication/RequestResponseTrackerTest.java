@@ -0,0 +1,90 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.client.communication;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.client.Registry;
+
+public class RequestResponseTrackerTest {
+
+    private RequestResponseTracker tracker = new RequestResponseTracker(
+            new Registry());
+
+    @Test
+    public void defaultLimit_oneActiveRequest() {
+        Assert.assertEquals(1, tracker.getMaxActiveRequests());
+        Assert.assertFalse(tracker.hasActiveRequest());
+        Assert.assertTrue(tracker.canStartRequest());
+
+        tracker.startRequest();
+
+        Assert.assertTrue(tracker.hasActiveRequest());
+        Assert.assertFalse(tracker.canStartRequest());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void defaultLimit_startSecondRequest_throws() {
+        tracker.startRequest();
+        tracker.startRequest();
+    }
+
+    @Test
+    public void pipelined_requestsCountedUpToLimit() {
+        tracker.setMaxActiveRequests(3);
+
+        tracker.startRequest();
+        Assert.assertTrue(tracker.canStartRequest());
+        tracker.startRequest();
+        Assert.assertTrue(tracker.canStartRequest());
+        tracker.startRequest();
+
+        Assert.assertTrue(tracker.hasActiveRequest());
+        Assert.assertFalse(tracker.canStartRequest());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void pipelined_startRequestOverLimit_throws() {
+        tracker.setMaxActiveRequests(3);
+
+        tracker.startRequest();
+        tracker.startRequest();
+        tracker.startRequest();
+        tracker.startRequest();
+    }
+
+    @Test
+    public void limitLoweredWhileRequestsActive_noNewRequestAllowed() {
+        tracker.setMaxActiveRequests(2);
+        tracker.startRequest();
+        tracker.startRequest();
+
+        tracker.setMaxActiveRequests(1);
+
+        Assert.assertFalse(tracker.canStartRequest());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setMaxActiveRequests_zero_throws() {
+        tracker.setMaxActiveRequests(0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void endRequest_noActiveRequest_throws() {
+        tracker.endRequest();
+    }
+}
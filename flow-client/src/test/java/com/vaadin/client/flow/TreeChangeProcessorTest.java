@@ -26,6 +26,7 @@ import com.vaadin.client.Registry;
 import com.vaadin.client.flow.collection.JsSet;
 import com.vaadin.client.flow.nodefeature.MapProperty;
 import com.vaadin.client.flow.nodefeature.NodeList;
+import com.vaadin.client.flow.nodefeature.NodeMap;
 import com.vaadin.flow.internal.JsonUtils;
 import com.vaadin.flow.internal.nodefeature.NodeFeatures;
 import com.vaadin.flow.shared.JsonConstants;
@@ -316,6 +317,110 @@ public class TreeChangeProcessorTest {
         Assert.assertNull(child.getParent());
     }
 
+    @Test
+    public void testCompactPutChange() {
+        JsonArray change = compactChange(rootId,
+                JsonConstants.COMPACT_CHANGE_TYPE_PUT, Json.create(ns),
+                Json.create(myKey), Json.create(myValue));
+
+        StateNode node = TreeChangeProcessor.processCompactChange(tree,
+                change);
+
+        Object value = tree.getRootNode().getMap(ns).getProperty(myKey)
+                .getValue();
+
+        Assert.assertEquals(myValue, value);
+        Assert.assertEquals(tree.getRootNode(), node);
+    }
+
+    @Test
+    public void testCompactRemoveChange() {
+        MapProperty property = tree.getRootNode().getMap(ns).getProperty(myKey);
+        property.setValue(myValue);
+
+        JsonArray change = compactChange(rootId,
+                JsonConstants.COMPACT_CHANGE_TYPE_REMOVE, Json.create(ns),
+                Json.create(myKey));
+
+        TreeChangeProcessor.processCompactChange(tree, change);
+
+        Assert.assertFalse(property.hasValue());
+    }
+
+    @Test
+    public void testCompactSpliceChanges() {
+        JsonArray add = compactChange(rootId,
+                JsonConstants.COMPACT_CHANGE_TYPE_SPLICE, Json.create(ns),
+                Json.create(0), Json.create(0),
+                toArray(Json.create("foo"), Json.create("bar")));
+        JsonArray remove = compactChange(rootId,
+                JsonConstants.COMPACT_CHANGE_TYPE_SPLICE, Json.create(ns),
+                Json.create(0), Json.create(1));
+
+        TreeChangeProcessor.processCompactChange(tree, add);
+        TreeChangeProcessor.processCompactChange(tree, remove);
+
+        NodeList list = tree.getRootNode().getList(ns);
+        Assert.assertEquals(1, list.length());
+        Assert.assertEquals("bar", list.get(0));
+    }
+
+    @Test
+    public void testCompactAttachAndNodeSplice() {
+        int nodeId = 2;
+        JsonArray changes = toArray(
+                compactChange(rootId,
+                        JsonConstants.COMPACT_CHANGE_TYPE_SPLICE_NODES,
+                        Json.create(ns), Json.create(0), Json.create(0),
+                        toArray(Json.create(nodeId))),
+                compactChange(nodeId, JsonConstants.COMPACT_CHANGE_TYPE_ATTACH));
+
+        JsSet<StateNode> updatedNodes = TreeChangeProcessor.processChanges(tree,
+                changes);
+
+        StateNode child = tree.getNode(nodeId);
+        Assert.assertSame(child, tree.getRootNode().getList(ns).get(0));
+        Assert.assertEquals(tree.getRootNode(), child.getParent());
+        Assert.assertEquals(2, updatedNodes.size());
+    }
+
+    @Test
+    public void testCompactAndRegularChangesMixed() {
+        JsonArray changes = toArray(
+                compactChange(rootId, JsonConstants.COMPACT_CHANGE_TYPE_PUT,
+                        Json.create(ns), Json.create(myKey),
+                        Json.create(myValue)),
+                putChange(rootId, ns, "other", Json.create("otherValue")));
+
+        TreeChangeProcessor.processChanges(tree, changes);
+
+        NodeMap map = tree.getRootNode().getMap(ns);
+        Assert.assertEquals(myValue, map.getProperty(myKey).getValue());
+        Assert.assertEquals("otherValue", map.getProperty("other").getValue());
+    }
+
+    @Test
+    public void testCompactDetachRemovesNode() {
+        StateNode childNode = new StateNode(2, tree);
+        tree.registerNode(childNode);
+
+        TreeChangeProcessor.processChanges(tree, toArray(compactChange(
+                childNode.getId(), JsonConstants.COMPACT_CHANGE_TYPE_DETACH)));
+
+        Assert.assertNull(tree.getNode(childNode.getId()));
+    }
+
+    private static JsonArray compactChange(int node, int type,
+            JsonValue... values) {
+        JsonArray json = Json.createArray();
+        json.set(0, node);
+        json.set(1, type);
+        for (JsonValue value : values) {
+            json.set(json.length(), value);
+        }
+        return json;
+    }
+
     private static JsonArray toArray(JsonValue... changes) {
         return Arrays.stream(changes).collect(JsonUtils.asArray());
     }
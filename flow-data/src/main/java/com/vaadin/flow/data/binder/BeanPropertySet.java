@@ -19,8 +19,14 @@ import java.beans.IntrospectionException;
 import java.beans.PropertyDescriptor;
 import java.io.IOException;
 import java.io.Serializable;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,10 +34,13 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.slf4j.LoggerFactory;
+
 import com.vaadin.flow.function.ValueProvider;
 import com.vaadin.flow.internal.BeanUtil;
 
@@ -108,6 +117,8 @@ public class BeanPropertySet<T> implements PropertySet<T> {
     private static class BeanPropertyDefinition<T, V>
             extends AbstractBeanPropertyDefinition<T, V> {
 
+        private transient volatile PropertyAccessor accessor;
+
         public BeanPropertyDefinition(BeanPropertySet<T> propertySet,
                 Class<T> propertyHolderType, PropertyDescriptor descriptor) {
             super(propertySet, propertyHolderType, descriptor);
@@ -116,8 +127,7 @@ public class BeanPropertySet<T> implements PropertySet<T> {
         @Override
         public ValueProvider<T, V> getGetter() {
             return bean -> {
-                Method readMethod = getDescriptor().getReadMethod();
-                Object value = invokeWrapExceptions(readMethod, bean);
+                Object value = getAccessor().read(bean);
                 return getType().cast(value);
             };
         }
@@ -133,12 +143,18 @@ public class BeanPropertySet<T> implements PropertySet<T> {
                 // if its done outside the code block, that will produce
                 // NotSerializableException because of some lambda compilation
                 // magic
-                Method innerSetter = getDescriptor().getWriteMethod();
-                invokeWrapExceptions(innerSetter, bean, value);
+                getAccessor().write(bean, value);
             };
             return Optional.of(setter);
         }
 
+        private PropertyAccessor getAccessor() {
+            if (accessor == null) {
+                accessor = new PropertyAccessor(getDescriptor());
+            }
+            return accessor;
+        }
+
         private Object writeReplace() {
             /*
              * Instead of serializing this actual property definition, only
@@ -176,6 +192,8 @@ public class BeanPropertySet<T> implements PropertySet<T> {
 
         private final PropertyDefinition<T, ?> parent;
 
+        private transient volatile PropertyAccessor accessor;
+
         /**
          * Creates a new instance of a nested property definition.
          *
@@ -196,9 +214,8 @@ public class BeanPropertySet<T> implements PropertySet<T> {
         @Override
         public ValueProvider<T, V> getGetter() {
             return bean -> {
-                Method readMethod = getDescriptor().getReadMethod();
-                Object value = invokeWrapExceptions(readMethod,
-                        parent.getGetter().apply(bean));
+                Object value = getAccessor()
+                        .read(parent.getGetter().apply(bean));
                 return getType().cast(value);
             };
         }
@@ -214,13 +231,18 @@ public class BeanPropertySet<T> implements PropertySet<T> {
                 // if its done outside the code block, that will produce
                 // NotSerializableException because of some lambda compilation
                 // magic
-                Method innerSetter = getDescriptor().getWriteMethod();
-                invokeWrapExceptions(innerSetter,
-                        parent.getGetter().apply(bean), value);
+                getAccessor().write(parent.getGetter().apply(bean), value);
             };
             return Optional.of(setter);
         }
 
+        private PropertyAccessor getAccessor() {
+            if (accessor == null) {
+                accessor = new PropertyAccessor(getDescriptor());
+            }
+            return accessor;
+        }
+
         @Override
         public String getName() {
             return parent.getName() + "." + super.getName();
@@ -248,6 +270,70 @@ public class BeanPropertySet<T> implements PropertySet<T> {
         }
     }
 
+    /**
+     * Reads and writes the value of a property using accessors generated with
+     * {@link LambdaMetafactory}, which are almost as fast as direct method
+     * calls. Reflection is used instead if accessors cannot be generated for
+     * the property, e.g. if the bean class is not public or it is not visible
+     * to the class loader of this class.
+     * <p>
+     * Reflection is also used for a bean or value which the generated accessor
+     * cannot take as such, so that such calls fail with the same exception as
+     * with {@link Method#invoke(Object, Object...)}, or have the value widened
+     * the same way.
+     */
+    private static class PropertyAccessor {
+        private final Method readMethod;
+        private final Method writeMethod;
+        private final Function<Object, Object> reader;
+        private final BiConsumer<Object, Object> writer;
+        private final Class<?> valueType;
+
+        private PropertyAccessor(PropertyDescriptor descriptor) {
+            readMethod = descriptor.getReadMethod();
+            writeMethod = descriptor.getWriteMethod();
+            reader = createReader(readMethod);
+            writer = writeMethod == null ? null : createWriter(writeMethod);
+            valueType = writer == null ? null
+                    : MethodType.methodType(writeMethod.getParameterTypes()[0])
+                            .wrap().returnType();
+        }
+
+        private Object read(Object bean) {
+            if (reader == null
+                    || !readMethod.getDeclaringClass().isInstance(bean)) {
+                return invokeWrapExceptions(readMethod, bean);
+            }
+            try {
+                return reader.apply(bean);
+            } catch (Throwable e) {
+                // Same exception as when invoking the method reflectively
+                throw new RuntimeException(new InvocationTargetException(e));
+            }
+        }
+
+        private void write(Object bean, Object value) {
+            if (writer == null
+                    || !writeMethod.getDeclaringClass().isInstance(bean)
+                    || !canWrite(value)) {
+                invokeWrapExceptions(writeMethod, bean, value);
+                return;
+            }
+            try {
+                writer.accept(bean, value);
+            } catch (Throwable e) {
+                throw new RuntimeException(new InvocationTargetException(e));
+            }
+        }
+
+        private boolean canWrite(Object value) {
+            if (value == null) {
+                return !writeMethod.getParameterTypes()[0].isPrimitive();
+            }
+            return valueType.isInstance(value);
+        }
+    }
+
     /**
      * Key for identifying cached BeanPropertySet instances.
      *
@@ -510,6 +596,80 @@ public class BeanPropertySet<T> implements PropertySet<T> {
                 && readMethod.getDeclaringClass() != Object.class;
     }
 
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> createReader(Method readMethod) {
+        if (!canGenerateAccessor(readMethod)) {
+            return null;
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle handle = lookup.unreflect(readMethod);
+            CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class), handle,
+                    handle.type().wrap());
+            return (Function<Object, Object>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            logAccessorFailure(readMethod, e);
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> createWriter(
+            Method writeMethod) {
+        if (!canGenerateAccessor(writeMethod)) {
+            return null;
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle handle = lookup.unreflect(writeMethod);
+            CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class,
+                            Object.class),
+                    handle, handle.type().wrap().changeReturnType(void.class));
+            return (BiConsumer<Object, Object>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            logAccessorFailure(writeMethod, e);
+            return null;
+        }
+    }
+
+    /**
+     * Checks that the method is public and all the types in its signature can
+     * be resolved by the class loader of this class, which is where the
+     * generated accessor classes are defined.
+     */
+    private static boolean canGenerateAccessor(Method method) {
+        if (method.isVarArgs() || method.getParameterCount() > 1
+                || !Modifier.isPublic(method.getModifiers())) {
+            return false;
+        }
+        ClassLoader loader = BeanPropertySet.class.getClassLoader();
+        return isVisible(method.getDeclaringClass(), loader)
+                && isVisible(method.getReturnType(), loader)
+                && Stream.of(method.getParameterTypes())
+                        .allMatch(type -> isVisible(type, loader));
+    }
+
+    private static boolean isVisible(Class<?> type, ClassLoader loader) {
+        if (type.isPrimitive()) {
+            return true;
+        }
+        try {
+            return Class.forName(type.getName(), false, loader) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static void logAccessorFailure(Method method, Throwable e) {
+        LoggerFactory.getLogger(BeanPropertySet.class).debug(
+                "Cannot generate an accessor for {}, using reflection instead",
+                method, e);
+    }
+
     private static Object invokeWrapExceptions(Method method, Object target,
             Object... parameters) {
         try {
@@ -15,6 +15,8 @@
  */
 package com.vaadin.flow.data.provider;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -37,6 +39,9 @@ public abstract class AbstractComponentDataGenerator<T>
 
     private final Map<String, Component> renderedComponents = new HashMap<>();
 
+    // Components of destroyed items kept attached to the container for reuse
+    private final Deque<Component> recycledComponents = new ArrayDeque<>();
+
     @Override
     public void refreshData(T item) {
         String itemKey = getItemKey(item);
@@ -58,7 +63,11 @@ public abstract class AbstractComponentDataGenerator<T>
         String itemKey = getItemKey(item);
         Component renderedComponent = renderedComponents.remove(itemKey);
         if (renderedComponent != null) {
-            renderedComponent.getElement().removeFromParent();
+            if (recycledComponents.size() < getRecycledComponentLimit()) {
+                recycledComponents.push(renderedComponent);
+            } else {
+                renderedComponent.getElement().removeFromParent();
+            }
         }
     }
 
@@ -67,6 +76,42 @@ public abstract class AbstractComponentDataGenerator<T>
         renderedComponents.values().forEach(
                 component -> component.getElement().removeFromParent());
         renderedComponents.clear();
+        recycledComponents.forEach(
+                component -> component.getElement().removeFromParent());
+        recycledComponents.clear();
+    }
+
+    /**
+     * Gets the maximum number of components of destroyed items to keep for
+     * reuse. By default, no components are reused.
+     *
+     * @return the maximum number of components to keep for reuse
+     * @see #createOrRecycleComponent(Object)
+     */
+    protected int getRecycledComponentLimit() {
+        return 0;
+    }
+
+    /**
+     * Gets a component for a newly rendered item. If there is a component of
+     * a destroyed item available for reuse, it is rebound to the given item
+     * using {@link #updateComponent(Component, Object)}. Otherwise a new
+     * component is created using {@link #createComponent(Object)}.
+     *
+     * @param item
+     *            the data item, possibly <code>null</code>
+     * @return a {@link Component} which represents the provided item
+     */
+    protected Component createOrRecycleComponent(T item) {
+        Component recycledComponent = recycledComponents.poll();
+        if (recycledComponent == null) {
+            return createComponent(item);
+        }
+        Component component = updateComponent(recycledComponent, item);
+        if (component != recycledComponent) {
+            recycledComponent.getElement().removeFromParent();
+        }
+        return component;
     }
 
     /**
@@ -125,7 +170,10 @@ public abstract class AbstractComponentDataGenerator<T>
             Component component) {
 
         Element element = component.getElement();
-        getContainer().appendChild(element);
+        // Recycled components are already attached to the container
+        if (!getContainer().equals(element.getParent())) {
+            getContainer().appendChild(element);
+        }
         renderedComponents.put(itemKey, component);
     }
 
@@ -80,7 +80,7 @@ public class ComponentDataGenerator<T>
         if (oldRenderedComponent != null) {
             nodeId = oldRenderedComponent.getElement().getNode().getId();
         } else {
-            Component renderedComponent = createComponent(item);
+            Component renderedComponent = createOrRecycleComponent(item);
             registerRenderedComponent(itemKey, renderedComponent);
 
             nodeId = renderedComponent.getElement().getNode().getId();
@@ -99,6 +99,11 @@ public class ComponentDataGenerator<T>
         return componentRenderer.updateComponent(currentComponent, item);
     }
 
+    @Override
+    protected int getRecycledComponentLimit() {
+        return componentRenderer.getRecycledComponentLimit();
+    }
+
     @Override
     protected String getItemKey(T item) {
         if (keyMapper == null) {
@@ -17,13 +17,18 @@ package com.vaadin.flow.data.provider;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -31,10 +36,13 @@ import java.util.stream.Stream;
 
 import org.slf4j.LoggerFactory;
 
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.data.provider.ArrayUpdater.Update;
 import com.vaadin.flow.data.provider.DataChangeEvent.DataRefreshEvent;
 import com.vaadin.flow.function.SerializableComparator;
 import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.function.SerializablePredicate;
 import com.vaadin.flow.internal.ExecutionContext;
 import com.vaadin.flow.internal.JsonUtils;
 import com.vaadin.flow.internal.Range;
@@ -62,7 +70,7 @@ public class DataCommunicator<T> implements Serializable {
     private final SerializableConsumer<JsonArray> dataUpdater;
     private final StateNode stateNode;
 
-    private DataKeyMapper<T> keyMapper = new KeyMapper<>();
+    private DataKeyMapper<T> keyMapper = new IntKeyMapper<>();
 
     // The range of items that the client wants to have
     private Range requestedRange = Range.between(0, 0);
@@ -93,14 +101,186 @@ public class DataCommunicator<T> implements Serializable {
     private Object filter;
     private SerializableComparator<T> inMemorySorting;
 
-    private final ArrayList<QuerySortOrder> backEndSorting = new ArrayList<>();
+    // Replaced instead of modified so that it can be read by asynchronous
+    // fetches without the session lock
+    private List<QuerySortOrder> backEndSorting = new ArrayList<>();
 
     private Registration dataProviderUpdateRegistration;
-    private HashSet<T> updatedData = new HashSet<>();
+    // Updated items by key, so that each item is sent only once per flush
+    private Map<String, T> updatedData = new LinkedHashMap<>();
 
     private SerializableConsumer<ExecutionContext> flushRequest;
     private SerializableConsumer<ExecutionContext> flushUpdatedDataRequest;
 
+    // Executors are typically not serializable, push updates need to be
+    // enabled again after deserialization
+    private transient Executor executor;
+    private transient AsyncFetch runningFetch;
+    private transient Prefetch<T> prefetched;
+    // Incremented on reset to detect fetches of outdated data
+    private int resetCount;
+
+    private int readAheadPageSize;
+    private int readAheadCachedPages;
+    // Direction of the last change of the requested range, -1 for backwards
+    private int scrollDirection = 1;
+    // Pages of readAheadPageSize items by page index, cleared on reset
+    private transient Map<Integer, List<T>> pageCache;
+
+    private int sizeEstimate;
+    // Whether the end of the data has been found when using a size estimate
+    private boolean sizeDiscovered;
+    private transient Executor exactSizeExecutor;
+    // Reset count for which the exact size count has been started
+    private int exactSizeResetCount = -1;
+    // Exact size counted in the background, -1 if there is none to apply
+    private int countedSize = -1;
+
+    // Hashes of the JSON last sent to the client by key, null if unchanged
+    // rows are not skipped
+    private HashMap<String, Long> sentRowHashes;
+
+    /**
+     * Result of fetching the size and the requested items from the data
+     * provider in the background.
+     */
+    private static class Prefetch<T> {
+        private final int size;
+        private final Range range;
+        private final List<T> items;
+
+        private Prefetch(int size, Range range, List<T> items) {
+            this.size = size;
+            this.range = range;
+            this.items = items;
+        }
+
+        private static <T> Prefetch<T> failed() {
+            return new Prefetch<>(-1, Range.withLength(0, 0),
+                    Collections.emptyList());
+        }
+    }
+
+    /**
+     * Fetch from the data provider running in the push updates executor.
+     */
+    private class AsyncFetch implements Runnable {
+        private final UI ui;
+        private final Range requested;
+        private final int fetchPageSize;
+        private final int fetchScrollDirection;
+        private final int knownSize;
+        private final int fetchResetCount;
+        // Query inputs captured while the session is locked
+        private final DataProvider<T, ?> fetchDataProvider;
+        private final Object fetchFilter;
+        private final List<QuerySortOrder> fetchBackEndSorting;
+        private final SerializableComparator<T> fetchInMemorySorting;
+        private volatile boolean cancelled;
+        // Guarded by this, so that the fetch thread is only interrupted while
+        // it is running this fetch
+        private Thread thread;
+
+        private AsyncFetch(UI ui) {
+            this.ui = ui;
+            requested = requestedRange;
+            fetchDataProvider = getDataProvider();
+            fetchFilter = getFilter();
+            fetchBackEndSorting = new ArrayList<>(backEndSorting);
+            fetchInMemorySorting = inMemorySorting;
+            if (resendEntireRange && sizeEstimate <= 0) {
+                knownSize = -1;
+            } else {
+                knownSize = growSizeEstimate(
+                        resendEntireRange ? sizeEstimate : assumedSize,
+                        requested);
+            }
+            fetchResetCount = resetCount;
+            fetchPageSize = readAheadPageSize;
+            fetchScrollDirection = scrollDirection;
+        }
+
+        @Override
+        @SuppressWarnings({ "rawtypes", "unchecked" })
+        public void run() {
+            Prefetch<T> result = null;
+            if (start()) {
+                try {
+                    int size = knownSize < 0
+                            ? fetchDataProvider.size(new Query(fetchFilter))
+                            : knownSize;
+                    Range range = getFetchRange(size)
+                            .restrictTo(Range.withLength(0, size));
+                    List<T> items = range.isEmpty() ? Collections.emptyList()
+                            : fetchFromProvider(fetchDataProvider,
+                                    fetchFilter, fetchBackEndSorting,
+                                    fetchInMemorySorting, range.getStart(),
+                                    range.length())
+                                    .collect(Collectors.toList());
+                    result = new Prefetch<>(size, range, items);
+                } catch (RuntimeException e) {
+                    if (!cancelled) {
+                        // Fetched again while handling the next flush so that
+                        // the failure is reported in the request thread
+                        LoggerFactory.getLogger(DataCommunicator.class).debug(
+                                "Asynchronous fetch from the data provider failed",
+                                e);
+                        result = Prefetch.failed();
+                    }
+                } finally {
+                    finish();
+                }
+            }
+            Prefetch<T> fetched = result;
+            try {
+                ui.access(() -> handleFetchCompleted(this, fetched));
+            } catch (UIDetachedException e) {
+                // Nothing to update anymore
+            }
+        }
+
+        private boolean isCurrent() {
+            return !cancelled && fetchResetCount == resetCount
+                    && requested.equals(requestedRange);
+        }
+
+        /**
+         * Gets the requested range, extended to whole read-ahead pages when
+         * read-ahead is enabled.
+         */
+        private Range getFetchRange(int size) {
+            if (fetchPageSize <= 0 || requested.isEmpty()) {
+                return requested;
+            }
+            Range pages = getReadAheadPages(requested.getStart(),
+                    requested.length(), fetchPageSize, fetchScrollDirection,
+                    size);
+            return Range.between(pages.getStart() * fetchPageSize,
+                    pages.getEnd() * fetchPageSize);
+        }
+
+        private synchronized boolean start() {
+            if (cancelled) {
+                return false;
+            }
+            thread = Thread.currentThread();
+            return true;
+        }
+
+        private synchronized void finish() {
+            thread = null;
+            // Don't leak the interrupt of a cancelled fetch to the executor
+            Thread.interrupted();
+        }
+
+        private synchronized void cancel() {
+            cancelled = true;
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+
     private static class SizeVerifier<T> implements Consumer<T>, Serializable {
 
         private int size;
@@ -159,6 +339,9 @@ public class DataCommunicator<T> implements Serializable {
      *            the end of the requested range
      */
     public void setRequestedRange(int start, int length) {
+        if (start != requestedRange.getStart()) {
+            scrollDirection = start > requestedRange.getStart() ? 1 : -1;
+        }
         requestedRange = Range.withLength(start, length);
 
         requestFlush();
@@ -171,8 +354,16 @@ public class DataCommunicator<T> implements Serializable {
      */
     public void reset() {
         resendEntireRange = true;
+        resetCount++;
+        prefetched = null;
+        pageCache = null;
+        sizeDiscovered = false;
+        countedSize = -1;
         dataGenerator.destroyAllData();
         updatedData.clear();
+        if (sentRowHashes != null) {
+            sentRowHashes.clear();
+        }
         requestFlush();
     }
 
@@ -186,11 +377,84 @@ public class DataCommunicator<T> implements Serializable {
         Objects.requireNonNull(data,
                 "DataCommunicator can not refresh null object");
         getKeyMapper().refresh(data);
+        refreshCachedPages(Collections
+                .singletonMap(getDataProvider().getId(data), data));
         dataGenerator.refreshData(data);
-        updatedData.add(data);
+        updatedData.put(getKeyMapper().key(data), data);
         requestFlushUpdatedData();
     }
 
+    /**
+     * Informs the DataCommunicator that the given data objects have been
+     * updated.
+     * <p>
+     * Items which have not been sent to the client are ignored. Items with the
+     * same identifier are refreshed only once, using the last given instance,
+     * and JSON is generated only for items within the currently active range.
+     * All the updated items are sent to the client in a single update.
+     *
+     * @param items
+     *            the updated data objects; not {@code null}
+     */
+    public void refreshItems(Collection<T> items) {
+        Objects.requireNonNull(items,
+                "DataCommunicator can not refresh null collection");
+        Map<Object, T> refreshed = new LinkedHashMap<>();
+        for (T item : items) {
+            Objects.requireNonNull(item,
+                    "DataCommunicator can not refresh null object");
+            if (getKeyMapper().has(item)) {
+                refreshed.put(getDataProvider().getId(item), item);
+            }
+        }
+        if (refreshed.isEmpty()) {
+            return;
+        }
+        refreshCachedPages(refreshed);
+
+        Set<String> activeKeys = new HashSet<>(getActiveKeys());
+        boolean updated = false;
+        for (T item : refreshed.values()) {
+            getKeyMapper().refresh(item);
+            dataGenerator.refreshData(item);
+            String key = getKeyMapper().key(item);
+            if (activeKeys.contains(key)) {
+                updatedData.put(key, item);
+                updated = true;
+            }
+        }
+        if (updated) {
+            requestFlushUpdatedData();
+        }
+    }
+
+    /**
+     * Informs the DataCommunicator that all the currently active data objects
+     * matching the given filter have been updated.
+     *
+     * @param filter
+     *            the filter selecting the updated data objects; not
+     *            {@code null}
+     * @see #refreshItems(Collection)
+     */
+    public void refreshItems(SerializablePredicate<T> filter) {
+        Objects.requireNonNull(filter,
+                "DataCommunicator can not refresh with null filter");
+        refreshItems(getActiveKeys().stream().map(getKeyMapper()::get)
+                .filter(Objects::nonNull).filter(filter)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Gets the keys of the items which are currently active on the client
+     * side.
+     *
+     * @return the active keys, not <code>null</code>
+     */
+    protected Collection<String> getActiveKeys() {
+        return Collections.unmodifiableList(activeKeyOrder);
+    }
+
     /**
      * Confirm update with the given {@code updateId}.
      *
@@ -311,8 +575,7 @@ public class DataCommunicator<T> implements Serializable {
      *            list of sort order information to pass to a query
      */
     public void setBackEndSorting(List<QuerySortOrder> sortOrder) {
-        backEndSorting.clear();
-        backEndSorting.addAll(sortOrder);
+        backEndSorting = new ArrayList<>(sortOrder);
         reset();
     }
 
@@ -325,6 +588,178 @@ public class DataCommunicator<T> implements Serializable {
         return Collections.unmodifiableList(backEndSorting);
     }
 
+    /**
+     * Sets up reading ahead when fetching items from the data provider.
+     * <p>
+     * With read-ahead enabled, items are fetched in pages of the given size
+     * aligned to multiples of the page size. One page more than what the
+     * client requested is fetched in the direction the client is scrolling
+     * to, and the most recently used pages are kept in memory so that the
+     * following requested ranges can be served without querying the data
+     * provider. The cached pages are discarded whenever the data is reset,
+     * e.g. when the filter, the sorting or the data provider is changed or
+     * all data is refreshed.
+     *
+     * @param pageSize
+     *            the number of items to fetch with one query, or
+     *            <code>0</code> to fetch exactly the requested items
+     * @param cachedPages
+     *            the maximum number of pages to keep in memory, at least
+     *            <code>1</code>
+     */
+    public void setReadAhead(int pageSize, int cachedPages) {
+        if (pageSize < 0) {
+            throw new IllegalArgumentException(
+                    "Page size cannot be negative: " + pageSize);
+        }
+        if (cachedPages < 1) {
+            throw new IllegalArgumentException(
+                    "At least one page must be cached: " + cachedPages);
+        }
+        readAheadPageSize = pageSize;
+        readAheadCachedPages = cachedPages;
+        pageCache = null;
+    }
+
+    /**
+     * Gets the page size used for reading ahead.
+     *
+     * @return the read-ahead page size, or <code>0</code> if read-ahead is
+     *         not enabled
+     * @see #setReadAhead(int, int)
+     */
+    public int getReadAheadPageSize() {
+        return readAheadPageSize;
+    }
+
+    /**
+     * Sets an estimate of the number of items to use instead of querying the
+     * data provider for its size whenever the data is reset.
+     * <p>
+     * The estimate is increased by the initial estimate whenever the client
+     * requests items up to the end of the current estimate, and the exact
+     * size is set once the data provider returns fewer items than requested.
+     * The size is only queried from the data provider if the requested range
+     * turns out to be completely beyond the end of the data. The exact size
+     * can also be counted in the background with
+     * {@link #setExactSizeExecutor(Executor)}.
+     *
+     * @param sizeEstimate
+     *            the initial estimate of the number of items, or
+     *            <code>0</code> to always query the size from the data
+     *            provider
+     */
+    public void setSizeEstimate(int sizeEstimate) {
+        if (sizeEstimate < 0) {
+            throw new IllegalArgumentException(
+                    "Size estimate cannot be negative: " + sizeEstimate);
+        }
+        this.sizeEstimate = sizeEstimate;
+        reset();
+    }
+
+    /**
+     * Gets the estimate of the number of items used instead of querying the
+     * data provider for its size.
+     *
+     * @return the initial size estimate, or <code>0</code> if the size is
+     *         always queried from the data provider
+     * @see #setSizeEstimate(int)
+     */
+    public int getSizeEstimate() {
+        return sizeEstimate;
+    }
+
+    /**
+     * Sets an executor for counting the exact number of items in the
+     * background when a {@link #setSizeEstimate(int) size estimate} is used.
+     * The counted size is sent to the client using
+     * {@link UI#access(com.vaadin.flow.server.Command)} unless the data has
+     * been reset in the meantime, so server push should be enabled.
+     * <p>
+     * {@link #getDataProviderSize()} is invoked from the executor threads
+     * without holding the session lock.
+     *
+     * @param exactSizeExecutor
+     *            the executor to count the exact size with, or
+     *            <code>null</code> to only use the estimate
+     */
+    public void setExactSizeExecutor(Executor exactSizeExecutor) {
+        this.exactSizeExecutor = exactSizeExecutor;
+    }
+
+    /**
+     * Sets whether refreshed items are sent to the client even if their
+     * generated JSON is identical to what was sent the previous time.
+     * <p>
+     * When unchanged rows are skipped, a 64-bit hash of the JSON of each
+     * active item is kept, and items refreshed using {@link #refresh(Object)}
+     * or {@link #refreshItems(Collection)} are only sent if the hash of their
+     * regenerated JSON differs. This reduces the traffic when items are
+     * refreshed periodically but only few of them actually change. Unchanged
+     * rows are not skipped by default.
+     *
+     * @param skipUnchangedRows
+     *            <code>true</code> to skip sending refreshed items with
+     *            unchanged JSON, <code>false</code> to always send them
+     */
+    public void setSkipUnchangedRows(boolean skipUnchangedRows) {
+        if (skipUnchangedRows != isSkipUnchangedRows()) {
+            sentRowHashes = skipUnchangedRows ? new HashMap<>() : null;
+        }
+    }
+
+    /**
+     * Gets whether refreshed items with unchanged JSON are skipped.
+     *
+     * @return <code>true</code> if refreshed items with unchanged JSON are
+     *         not sent to the client, <code>false</code> otherwise
+     * @see #setSkipUnchangedRows(boolean)
+     */
+    public boolean isSkipUnchangedRows() {
+        return sentRowHashes != null;
+    }
+
+    /**
+     * Enables fetching data from the data provider in a background thread
+     * instead of while the session is locked, so that a slow data provider
+     * doesn't block other requests to the same session.
+     * <p>
+     * The size and the items of the requested range are fetched using the
+     * given executor, and the fetched items are sent to the client using
+     * {@link UI#access(com.vaadin.flow.server.Command)}. Server push must be
+     * enabled for the items to be sent without waiting for the next request
+     * from the client. At most one fetch per data communicator is running at
+     * a time; a fetch which is superseded by a new requested range, a reset
+     * or a filter change is cancelled by interrupting it and its result is
+     * discarded. The client shows its own placeholders for the rows which
+     * have not been sent yet.
+     * <p>
+     * With {@link #setReadAhead(int, int) read-ahead} enabled, the background
+     * fetch reads whole pages including the page read ahead, and adds them to
+     * the page cache. Requested ranges which are already in the page cache
+     * are sent without starting a fetch.
+     * <p>
+     * With push updates enabled, the size and the items are queried from the
+     * data provider in the executor threads without holding the session lock,
+     * using the data provider, filter and sorting in effect when the fetch
+     * was started. Overrides of {@link #getDataProviderSize()} and
+     * {@link #fetchFromProvider(int, int)} are thus not used for these
+     * queries. The data provider must be safe to use from any thread.
+     *
+     * @param executor
+     *            the executor to fetch data with, or <code>null</code> to
+     *            fetch data while the session is locked
+     */
+    public void enablePushUpdates(Executor executor) {
+        this.executor = executor;
+        if (executor == null && runningFetch != null) {
+            runningFetch.cancel();
+            runningFetch = null;
+        }
+        prefetched = null;
+    }
+
     /**
      * Getter method for finding the size of DataProvider. Can be overridden by
      * a subclass that uses a specific type of DataProvider and/or query.
@@ -355,16 +790,23 @@ public class DataCommunicator<T> implements Serializable {
      * @return the list of items in given range
      *
      */
-    @SuppressWarnings({ "rawtypes", "unchecked" })
     protected Stream<T> fetchFromProvider(int offset, int limit) {
-        QueryTrace query = new QueryTrace(offset, limit, backEndSorting,
-                inMemorySorting, filter);
-        Stream<T> stream = getDataProvider().fetch(query);
+        return fetchFromProvider(getDataProvider(), filter, backEndSorting,
+                inMemorySorting, offset, limit);
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private Stream<T> fetchFromProvider(DataProvider<T, ?> provider,
+            Object queryFilter, List<QuerySortOrder> sorting,
+            SerializableComparator<T> comparator, int offset, int limit) {
+        QueryTrace query = new QueryTrace(offset, limit, sorting, comparator,
+                queryFilter);
+        Stream<T> stream = ((DataProvider) provider).fetch(query);
         if (stream.isParallel()) {
             LoggerFactory.getLogger(DataCommunicator.class)
                     .debug("Data provider {} has returned "
                             + "parallel stream on 'fetch' call",
-                            getDataProvider().getClass());
+                            provider.getClass());
             stream = stream.collect(Collectors.toList()).stream();
             assert !stream.isParallel();
         }
@@ -422,7 +864,17 @@ public class DataCommunicator<T> implements Serializable {
                     reset();
                     arrayUpdater.initialize();
                 }
-                flush();
+                if (resendEntireRange && sizeEstimate > 0
+                        && exactSizeExecutor != null
+                        && exactSizeResetCount != resetCount) {
+                    countExactSize(context.getUI());
+                }
+                if (executor == null || prefetched != null
+                        || (runningFetch == null
+                                && (!isFetchNeeded() || isPageCached()))
+                        || !requestAsyncFetch(context.getUI())) {
+                    flush();
+                }
                 flushRequest = null;
             };
             stateNode.runWhenAttached(ui -> ui.getInternals().getStateTree()
@@ -441,6 +893,258 @@ public class DataCommunicator<T> implements Serializable {
         }
     }
 
+    private boolean isFetchNeeded() {
+        if (resendEntireRange) {
+            return true;
+        }
+        Range previousActive = Range.withLength(activeStart,
+                activeKeyOrder.size());
+        return !requestedRange
+                .restrictTo(Range.withLength(0,
+                        growSizeEstimate(assumedSize, requestedRange)))
+                .isSubsetOf(previousActive);
+    }
+
+    private int growSizeEstimate(int size, Range requested) {
+        if (sizeEstimate > 0 && !sizeDiscovered
+                && requested.getEnd() >= size) {
+            return requested.getEnd() + sizeEstimate;
+        }
+        return size;
+    }
+
+    private void countExactSize(UI ui) {
+        int countResetCount = resetCount;
+        exactSizeResetCount = countResetCount;
+        try {
+            exactSizeExecutor.execute(() -> {
+                int size;
+                try {
+                    size = getDataProviderSize();
+                } catch (RuntimeException e) {
+                    LoggerFactory.getLogger(DataCommunicator.class)
+                            .debug("Counting the exact size failed", e);
+                    return;
+                }
+                try {
+                    ui.access(() -> {
+                        if (countResetCount == resetCount && sizeEstimate > 0) {
+                            countedSize = size;
+                            requestFlush();
+                        }
+                    });
+                } catch (UIDetachedException e) {
+                    // Nothing to update anymore
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The executor has been shut down, count in this thread instead
+            countedSize = getDataProviderSize();
+        }
+    }
+
+    /**
+     * Starts fetching the requested range in the background unless a fetch is
+     * already running.
+     *
+     * @return <code>true</code> if a fetch is running, <code>false</code> if
+     *         the executor rejected the fetch and the data must be flushed
+     *         right away instead
+     */
+    private boolean requestAsyncFetch(UI ui) {
+        if (runningFetch != null) {
+            if (!runningFetch.isCurrent()) {
+                // A new fetch is started when the superseded one has
+                // finished so that only one fetch is running at a time
+                runningFetch.cancel();
+            }
+            return true;
+        }
+        AsyncFetch fetch = new AsyncFetch(ui);
+        try {
+            executor.execute(fetch);
+        } catch (RejectedExecutionException e) {
+            // The executor has been shut down, don't wait for a fetch which
+            // will never complete
+            return false;
+        }
+        // The fetch cannot complete before this since the session is locked
+        runningFetch = fetch;
+        return true;
+    }
+
+    private void handleFetchCompleted(AsyncFetch fetch, Prefetch<T> result) {
+        if (fetch != runningFetch) {
+            // Push updates have been disabled meanwhile
+            return;
+        }
+        runningFetch = null;
+        if (fetch.isCurrent() && result != null) {
+            prefetched = result;
+            if (result.size >= 0 && fetch.fetchPageSize > 0
+                    && fetch.fetchPageSize == readAheadPageSize) {
+                cachePages(result);
+            }
+        }
+        // Either sends the fetched items or starts fetching the latest range
+        requestFlush();
+    }
+
+    private int fetchSize() {
+        if (prefetched != null && prefetched.size >= 0) {
+            return prefetched.size;
+        }
+        if (sizeEstimate > 0) {
+            return sizeEstimate;
+        }
+        return getDataProviderSize();
+    }
+
+    private Stream<T> fetchItems(int offset, int limit) {
+        if (prefetched != null) {
+            Range range = Range.withLength(offset, limit);
+            if (range.isSubsetOf(prefetched.range)) {
+                int start = offset - prefetched.range.getStart();
+                return prefetched.items.subList(start, start + limit)
+                        .stream();
+            }
+        }
+        if (readAheadPageSize > 0) {
+            return fetchPages(offset, limit);
+        }
+        return fetchFromProvider(offset, limit);
+    }
+
+    private Range getReadAheadPages(int offset, int limit) {
+        return getReadAheadPages(offset, limit, readAheadPageSize,
+                scrollDirection, assumedSize);
+    }
+
+    /**
+     * Gets the indexes of the pages to fetch for the given items, including
+     * the page read ahead in the scrolling direction.
+     */
+    private static Range getReadAheadPages(int offset, int limit,
+            int pageSize, int direction, int size) {
+        int firstPage = offset / pageSize;
+        int lastPage = (offset + limit - 1) / pageSize;
+        // Read ahead one page in the scrolling direction within the data
+        if (direction < 0 && firstPage > 0) {
+            firstPage--;
+        } else if (direction > 0 && (lastPage + 1) * pageSize < size) {
+            lastPage++;
+        }
+        return Range.between(firstPage, lastPage + 1);
+    }
+
+    private Map<Integer, List<T>> getPageCache() {
+        if (pageCache == null) {
+            int maxPages = readAheadCachedPages;
+            pageCache = new LinkedHashMap<Integer, List<T>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        Map.Entry<Integer, List<T>> eldest) {
+                    return size() > maxPages;
+                }
+            };
+        }
+        return pageCache;
+    }
+
+    /**
+     * Checks whether the items to send for the requested range can be served
+     * from the read-ahead page cache without querying the data provider.
+     */
+    private boolean isPageCached() {
+        if (readAheadPageSize <= 0 || pageCache == null || resendEntireRange) {
+            return false;
+        }
+        Range range = requestedRange.restrictTo(Range.withLength(0,
+                growSizeEstimate(assumedSize, requestedRange)));
+        if (range.isEmpty()) {
+            return false;
+        }
+        Range pages = getReadAheadPages(range.getStart(), range.length());
+        for (int page = pages.getStart(); page < pages.getEnd(); page++) {
+            if (!pageCache.containsKey(page)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stores the items fetched in the background as read-ahead pages. The
+     * fetched range starts at a page boundary.
+     */
+    private void cachePages(Prefetch<T> result) {
+        int pageSize = readAheadPageSize;
+        Range range = result.range;
+        if (range.isEmpty()) {
+            return;
+        }
+        Map<Integer, List<T>> cache = getPageCache();
+        int firstPage = range.getStart() / pageSize;
+        int lastPage = (range.getEnd() - 1) / pageSize;
+        for (int page = firstPage; page <= lastPage; page++) {
+            int start = Math.min(result.items.size(),
+                    (page - firstPage) * pageSize);
+            cache.put(page, new ArrayList<>(result.items.subList(start,
+                    Math.min(result.items.size(), start + pageSize))));
+        }
+    }
+
+    private Stream<T> fetchPages(int offset, int limit) {
+        int pageSize = readAheadPageSize;
+        Range pageRange = getReadAheadPages(offset, limit);
+        int firstPage = pageRange.getStart();
+        int lastPage = pageRange.getEnd() - 1;
+        Map<Integer, List<T>> cache = getPageCache();
+
+        // Pages are collected separately since the cache may be smaller
+        List<List<T>> pages = new ArrayList<>();
+        int page = firstPage;
+        while (page <= lastPage) {
+            List<T> cached = cache.get(page);
+            if (cached != null) {
+                pages.add(cached);
+                page++;
+                continue;
+            }
+            // Fetch consecutive missing pages with one query
+            int missingEnd = page + 1;
+            while (missingEnd <= lastPage
+                    && !cache.containsKey(missingEnd)) {
+                missingEnd++;
+            }
+            int fetchStart = page;
+            List<T> items = fetchFromProvider(fetchStart * pageSize,
+                    (missingEnd - fetchStart) * pageSize)
+                            .collect(Collectors.toList());
+            for (; page < missingEnd; page++) {
+                int start = Math.min(items.size(),
+                        (page - fetchStart) * pageSize);
+                List<T> fetched = new ArrayList<>(items.subList(start,
+                        Math.min(items.size(), start + pageSize)));
+                cache.put(page, fetched);
+                pages.add(fetched);
+            }
+        }
+
+        return pages.stream().flatMap(List::stream)
+                .skip(offset - (long) firstPage * pageSize).limit(limit);
+    }
+
+    private void refreshCachedPages(Map<Object, T> itemsById) {
+        if (pageCache == null || pageCache.isEmpty()) {
+            return;
+        }
+        pageCache.values()
+                .forEach(page -> page.replaceAll(cached -> itemsById
+                        .getOrDefault(getDataProvider().getId(cached),
+                                cached)));
+    }
+
     private void flush() {
         Set<String> oldActive = new HashSet<>(activeKeyOrder);
 
@@ -450,8 +1154,14 @@ public class DataCommunicator<T> implements Serializable {
 
         // Phase 1: Find all items that the client should have
         if (resendEntireRange) {
-            assumedSize = getDataProviderSize();
+            assumedSize = fetchSize();
         }
+        if (countedSize >= 0) {
+            assumedSize = countedSize;
+            sizeDiscovered = true;
+            countedSize = -1;
+        }
+        assumedSize = growSizeEstimate(assumedSize, requestedRange);
         effectiveRequested = requestedRange
                 .restrictTo(Range.withLength(0, assumedSize));
 
@@ -464,7 +1174,15 @@ public class DataCommunicator<T> implements Serializable {
         // If the returned stream from the DataProvider is smaller than it
         // should, a new query for the actual size needs to be done
         if (activation.isSizeRecheckNeeded()) {
-            assumedSize = getDataProviderSize();
+            List<String> activeKeys = activation.getActiveKeys();
+            if (sizeEstimate > 0 && !activeKeys.isEmpty()) {
+                // The end of the data is within the requested range
+                assumedSize = effectiveRequested.getStart()
+                        + activeKeys.size();
+            } else {
+                assumedSize = getDataProviderSize();
+            }
+            sizeDiscovered = true;
             effectiveRequested = requestedRange
                     .restrictTo(Range.withLength(0, assumedSize));
         }
@@ -485,15 +1203,21 @@ public class DataCommunicator<T> implements Serializable {
 
         // Phase 4: unregister passivated and updated items
         unregisterPassivatedKeys();
+
+        prefetched = null;
     }
 
     private void flushUpdatedData() {
         if (updatedData.isEmpty()) {
             return;
         }
-        dataUpdater.accept(updatedData.stream().map(this::generateJson)
-                .collect(JsonUtils.asArray()));
+        JsonArray changed = updatedData.values().stream()
+                .map(this::generateJson).filter(this::isRowChanged)
+                .collect(JsonUtils.asArray());
         updatedData.clear();
+        if (changed.length() > 0) {
+            dataUpdater.accept(changed);
+        }
     }
 
     private void unregisterPassivatedKeys() {
@@ -516,6 +1240,9 @@ public class DataCommunicator<T> implements Serializable {
                     dataGenerator.destroyData(item);
                     keyMapper.remove(item);
                 }
+                if (sentRowHashes != null) {
+                    sentRowHashes.remove(key);
+                }
             });
         }
     }
@@ -611,10 +1338,44 @@ public class DataCommunicator<T> implements Serializable {
     }
 
     private List<JsonValue> getJsonItems(Range range) {
-        return range.stream()
+        List<JsonValue> items = range.stream()
                 .mapToObj(index -> activeKeyOrder.get(index - activeStart))
                 .map(keyMapper::get).map(this::generateJson)
                 .collect(Collectors.toList());
+        // Rows sent in a full update are always sent, but the hashes are
+        // needed to detect unchanged rows when they are refreshed
+        items.forEach(this::isRowChanged);
+        return items;
+    }
+
+    /**
+     * Records the hash of the given row JSON if unchanged rows are skipped.
+     *
+     * @param row
+     *            the generated JSON of an item
+     * @return <code>true</code> if the row needs to be sent to the client,
+     *         <code>false</code> if the same JSON has already been sent
+     */
+    private boolean isRowChanged(JsonValue row) {
+        if (sentRowHashes == null) {
+            return true;
+        }
+        String key = ((JsonObject) row).getString("key");
+        Long hash = Long.valueOf(hash(row.toJson()));
+        return !hash.equals(sentRowHashes.put(key, hash));
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the given string, so that a collision between
+     * two versions of the same row is practically impossible.
+     */
+    private static long hash(String json) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < json.length(); i++) {
+            hash ^= json.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
     }
 
     private static final void withMissing(Range expected, Range actual,
@@ -639,7 +1400,7 @@ public class DataCommunicator<T> implements Serializable {
 
         // XXX Explicitly refresh anything that is updated
         List<String> activeKeys = new ArrayList<>(range.length());
-        fetchFromProvider(range.getStart(), range.length()).forEach(bean -> {
+        fetchItems(range.getStart(), range.length()).forEach(bean -> {
             boolean mapperHasKey = keyMapper.has(bean);
             String key = keyMapper.key(bean);
             if (mapperHasKey) {
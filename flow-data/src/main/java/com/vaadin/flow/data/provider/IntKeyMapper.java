@@ -0,0 +1,352 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import com.vaadin.flow.function.ValueProvider;
+
+/**
+ * Compact two-way map for generating textual keys for objects and retrieving
+ * the objects later with the key.
+ * <p>
+ * The keys are generated the same way as by {@link KeyMapper}, but they are
+ * stored as <code>int</code> values in open addressing hash tables and
+ * converted to strings only when passed to or from the methods of this class.
+ * This uses considerably less memory than two hash maps with string keys
+ * when a large number of objects is mapped.
+ * <p>
+ * Keys of removed objects are not reused until all positive <code>int</code>
+ * values have been used as keys, after which the keys start again from
+ * <code>1</code>, skipping the keys still in use.
+ *
+ * @param <V>
+ *            the type of mapped objects
+ *
+ * @author Vaadin Ltd
+ * @since 2.2
+ */
+public class IntKeyMapper<V> implements DataKeyMapper<V> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    // Markers of free and removed slots in the key table, generated keys are
+    // always positive
+    private static final int FREE_KEY = 0;
+    private static final int REMOVED_KEY = -1;
+
+    // Marker of removed slots in the identifier table, free slots are null
+    private static final Object REMOVED_ID = new Object();
+    // Stand-in for a null identifier in the identifier table
+    private static final Object NULL_ID = new Object();
+
+    private int lastKey = 0;
+
+    // Whether lastKey has wrapped around, so the next key may be in use
+    private boolean keysWrapped;
+
+    private int size = 0;
+
+    private ValueProvider<V, Object> identifierGetter;
+
+    // Mapped objects by key
+    private transient int[] keys;
+    private transient Object[] values;
+    // Number of slots in the key table which are not free
+    private transient int usedKeySlots;
+
+    // Keys by object identifier
+    private transient Object[] ids;
+    private transient int[] idKeys;
+    // Number of slots in the identifier table which are not free
+    private transient int usedIdSlots;
+
+    /**
+     * Constructs a new mapper.
+     *
+     * @param identifierGetter
+     *            has to return a unique key for every bean, and the returned
+     *            key has to follow general {@code hashCode()} and
+     *            {@code equals()} contract, see {@link Object#hashCode()} for
+     *            details.
+     */
+    public IntKeyMapper(ValueProvider<V, Object> identifierGetter) {
+        this.identifierGetter = identifierGetter;
+        initTables(MIN_CAPACITY);
+    }
+
+    /**
+     * Constructs a new mapper with trivial {@code identifierGetter}
+     */
+    public IntKeyMapper() {
+        this(v -> v);
+    }
+
+    @Override
+    public String key(V dataObject) {
+        if (dataObject == null) {
+            return "null";
+        }
+
+        Object id = identifierGetter.apply(dataObject);
+        int key = getKey(id);
+        if (key == FREE_KEY) {
+            key = nextKey();
+            putValue(key, dataObject);
+            putKey(id, key);
+            size++;
+        }
+        return String.valueOf(key);
+    }
+
+    @Override
+    public boolean has(V dataObject) {
+        return getKey(identifierGetter.apply(dataObject)) != FREE_KEY;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(String key) {
+        int slot = findKeySlot(parseKey(key));
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    @Override
+    public void remove(V dataObject) {
+        int slot = findIdSlot(identifierGetter.apply(dataObject));
+        if (slot >= 0) {
+            int key = idKeys[slot];
+            ids[slot] = REMOVED_ID;
+            idKeys[slot] = FREE_KEY;
+
+            int keySlot = findKeySlot(key);
+            keys[keySlot] = REMOVED_KEY;
+            values[keySlot] = null;
+            size--;
+        }
+    }
+
+    @Override
+    public void removeAll() {
+        // Dropped keys are not reused until the keys wrap around, so lastKey
+        // is kept
+        size = 0;
+        initTables(MIN_CAPACITY);
+    }
+
+    /**
+     * Checks if the given key is mapped to an object.
+     *
+     * @param key
+     *            the key to check
+     * @return <code>true</code> if the key is currently mapped,
+     *         <code>false</code> otherwise
+     */
+    public boolean containsKey(String key) {
+        return findKeySlot(parseKey(key)) >= 0;
+    }
+
+    @Override
+    public void refresh(V dataObject) {
+        int key = getKey(identifierGetter.apply(dataObject));
+        if (key != FREE_KEY) {
+            values[findKeySlot(key)] = dataObject;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void setIdentifierGetter(ValueProvider<V, Object> identifierGetter) {
+        if (this.identifierGetter != identifierGetter) {
+            this.identifierGetter = identifierGetter;
+            ids = new Object[ids.length];
+            idKeys = new int[ids.length];
+            usedIdSlots = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] > 0) {
+                    putKey(identifierGetter.apply((V) values[i]), keys[i]);
+                }
+            }
+        }
+    }
+
+    private int nextKey() {
+        do {
+            if (lastKey == Integer.MAX_VALUE) {
+                lastKey = 0;
+                keysWrapped = true;
+            }
+            lastKey++;
+        } while (keysWrapped && findKeySlot(lastKey) >= 0);
+        return lastKey;
+    }
+
+    private void initTables(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        usedKeySlots = 0;
+        ids = new Object[capacity];
+        idKeys = new int[capacity];
+        usedIdSlots = 0;
+    }
+
+    private static int parseKey(String key) {
+        if (key == null || key.isEmpty() || key.length() > 10
+                || key.charAt(0) == '0') {
+            return REMOVED_KEY;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (!Character.isDigit(key.charAt(i))) {
+                return REMOVED_KEY;
+            }
+        }
+        try {
+            return Integer.parseInt(key);
+        } catch (NumberFormatException e) {
+            return REMOVED_KEY;
+        }
+    }
+
+    private static int hash(int value) {
+        int hash = value * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private int findKeySlot(int key) {
+        if (key <= 0) {
+            return -1;
+        }
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask;; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return i;
+            } else if (keys[i] == FREE_KEY) {
+                return -1;
+            }
+        }
+    }
+
+    private void putValue(int key, Object value) {
+        if ((usedKeySlots + 1) * 4 > keys.length * 3) {
+            rehash();
+        }
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        // New keys are unique, so removed slots can be reused right away
+        while (keys[i] > 0) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == FREE_KEY) {
+            usedKeySlots++;
+        }
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    private int findIdSlot(Object id) {
+        Object idKey = id == null ? NULL_ID : id;
+        int mask = ids.length - 1;
+        for (int i = hash(idKey.hashCode()) & mask;; i = (i + 1) & mask) {
+            Object slotId = ids[i];
+            if (slotId == null) {
+                return -1;
+            } else if (slotId != REMOVED_ID && slotId.equals(idKey)) {
+                return i;
+            }
+        }
+    }
+
+    private int getKey(Object id) {
+        int slot = findIdSlot(id);
+        return slot < 0 ? FREE_KEY : idKeys[slot];
+    }
+
+    private void putKey(Object id, int key) {
+        if ((usedIdSlots + 1) * 4 > ids.length * 3) {
+            rehash();
+        }
+        Object idKey = id == null ? NULL_ID : id;
+        int mask = ids.length - 1;
+        int i = hash(idKey.hashCode()) & mask;
+        // Only called for identifiers which are not mapped yet
+        while (ids[i] != null && ids[i] != REMOVED_ID) {
+            i = (i + 1) & mask;
+        }
+        if (ids[i] == null) {
+            usedIdSlots++;
+        }
+        ids[i] = idKey;
+        idKeys[i] = key;
+    }
+
+    /**
+     * Rebuilds both tables without removed slots, with a capacity based on
+     * the number of mapped objects.
+     */
+    private void rehash() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        Object[] oldIds = ids;
+        int[] oldIdKeys = idKeys;
+
+        int capacity = MIN_CAPACITY;
+        while (capacity < (size + 1) * 2) {
+            capacity <<= 1;
+        }
+        initTables(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] > 0) {
+                putValue(oldKeys[i], oldValues[i]);
+            }
+        }
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] != null && oldIds[i] != REMOVED_ID) {
+                putKey(oldIds[i] == NULL_ID ? null : oldIds[i], oldIdKeys[i]);
+            }
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        // Only the mapped objects are written, the identifiers are computed
+        // again when reading
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] > 0) {
+                out.writeInt(keys[i]);
+                out.writeObject(values[i]);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in)
+            throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int capacity = MIN_CAPACITY;
+        while (capacity < (size + 1) * 2) {
+            capacity <<= 1;
+        }
+        initTables(capacity);
+        for (int i = 0; i < size; i++) {
+            int key = in.readInt();
+            V value = (V) in.readObject();
+            putValue(key, value);
+            putKey(identifierGetter.apply(value), key);
+        }
+    }
+}
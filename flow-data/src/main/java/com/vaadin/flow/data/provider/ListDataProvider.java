@@ -15,10 +15,18 @@
  */
 package com.vaadin.flow.data.provider;
 
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import com.vaadin.flow.function.SerializableComparator;
@@ -26,6 +34,11 @@ import com.vaadin.flow.function.SerializablePredicate;
 
 /**
  * {@link DataProvider} wrapper for {@link Collection}s.
+ * <p>
+ * By default every query filters and sorts the whole backing collection. With
+ * {@link #setViewCacheEnabled(boolean) view caching} enabled, the filtered and
+ * sorted items are kept for the most recently used combinations of query
+ * filter and sorting, so that consecutive pages are fetched by index.
  *
  * @param <T>
  *            data type
@@ -41,6 +54,48 @@ public class ListDataProvider<T>
 
     private final Collection<T> backend;
 
+    private static final int MAX_VIEWS = 4;
+
+    private boolean viewCacheEnabled;
+
+    /**
+     * Guards {@link #views}, since the access ordered map is modified also by
+     * reads and the provider may be shared between sessions.
+     */
+    private final ReentrantLock viewLock = new ReentrantLock();
+
+    private transient Map<ViewKey<T>, List<T>> views;
+
+    /**
+     * Identifies a cached view by the identity of the query filter and the
+     * query sorting.
+     */
+    private static final class ViewKey<T> implements Serializable {
+        private final SerializablePredicate<T> filter;
+        private final Comparator<T> sorting;
+
+        private ViewKey(SerializablePredicate<T> filter,
+                Comparator<T> sorting) {
+            this.filter = filter;
+            this.sorting = sorting;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ViewKey)) {
+                return false;
+            }
+            ViewKey<?> other = (ViewKey<?>) obj;
+            return filter == other.filter && sorting == other.sorting;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(filter)
+                    + System.identityHashCode(sorting);
+        }
+    }
+
     /**
      * Constructs a new ListDataProvider.
      * <p>
@@ -66,25 +121,204 @@ public class ListDataProvider<T>
         return backend;
     }
 
+    /**
+     * Sets whether the filtered and sorted items are cached for the most
+     * recently used combinations of query filter and query sorting. Queries
+     * reuse a cached view when they have the same filter and sorting
+     * instances.
+     * <p>
+     * When view caching is enabled, changes to the backing collection are
+     * only visible after {@link #refreshAll()} has been called. Changes to
+     * single items are applied by {@link #refreshItem(Object)}. View caching
+     * is disabled by default.
+     * <p>
+     * The cached views are guarded by a lock, so the provider can be shared
+     * between sessions also when view caching is enabled.
+     *
+     * @param viewCacheEnabled
+     *            <code>true</code> to cache views, <code>false</code> to
+     *            filter and sort the backing collection for every query
+     */
+    public void setViewCacheEnabled(boolean viewCacheEnabled) {
+        this.viewCacheEnabled = viewCacheEnabled;
+        clearViews();
+    }
+
+    /**
+     * Checks whether the filtered and sorted items are cached.
+     *
+     * @return <code>true</code> if views are cached, <code>false</code>
+     *         otherwise
+     * @see #setViewCacheEnabled(boolean)
+     */
+    public boolean isViewCacheEnabled() {
+        return viewCacheEnabled;
+    }
+
     @Override
     public Stream<T> fetch(Query<T, SerializablePredicate<T>> query) {
+        if (viewCacheEnabled) {
+            viewLock.lock();
+            try {
+                List<T> view = getView(query);
+                int from = Math.min(query.getOffset(), view.size());
+                int to = (int) Math.min((long) from + query.getLimit(),
+                        view.size());
+                // Copy the page so that patching the view does not affect it
+                return new ArrayList<>(view.subList(from, to)).stream();
+            } finally {
+                viewLock.unlock();
+            }
+        }
+        return getSortedStream(query).skip(query.getOffset())
+                .limit(query.getLimit());
+    }
+
+    @Override
+    public int size(Query<T, SerializablePredicate<T>> query) {
+        if (viewCacheEnabled) {
+            // Any view with the same filter has the same size
+            SerializablePredicate<T> queryFilter = query.getFilter()
+                    .orElse(null);
+            viewLock.lock();
+            try {
+                if (views != null) {
+                    for (Map.Entry<ViewKey<T>, List<T>> entry : views
+                            .entrySet()) {
+                        if (entry.getKey().filter == queryFilter) {
+                            return entry.getValue().size();
+                        }
+                    }
+                }
+                return getView(query).size();
+            } finally {
+                viewLock.unlock();
+            }
+        }
+        return (int) getFilteredStream(query).count();
+    }
+
+    @Override
+    public void refreshAll() {
+        clearViews();
+        super.refreshAll();
+    }
+
+    @Override
+    public void refreshItem(T item) {
+        patchViews(item);
+        super.refreshItem(item);
+    }
+
+    @Override
+    public void refreshItem(T item, boolean refreshChildren) {
+        patchViews(item);
+        super.refreshItem(item, refreshChildren);
+    }
+
+    private void clearViews() {
+        viewLock.lock();
+        try {
+            views = null;
+        } finally {
+            viewLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the cached view for the query, building it if needed. Must be
+     * called while holding {@link #viewLock}.
+     */
+    private List<T> getView(Query<T, SerializablePredicate<T>> query) {
+        if (views == null) {
+            views = new LinkedHashMap<ViewKey<T>, List<T>>(MAX_VIEWS + 1,
+                    0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        Map.Entry<ViewKey<T>, List<T>> eldest) {
+                    return size() > MAX_VIEWS;
+                }
+            };
+        }
+        return views.computeIfAbsent(
+                new ViewKey<>(query.getFilter().orElse(null),
+                        query.getInMemorySorting()),
+                key -> getSortedStream(query).collect(
+                        Collectors.toCollection(ArrayList::new)));
+    }
+
+    /**
+     * Updates the cached views for a refreshed item. The item is replaced or
+     * removed in place if its position in the view stays valid, otherwise the
+     * view is discarded and built again on the next query.
+     */
+    private void patchViews(T item) {
+        viewLock.lock();
+        try {
+            if (views == null) {
+                return;
+            }
+            Object id = getId(item);
+            Iterator<Map.Entry<ViewKey<T>, List<T>>> iterator = views
+                    .entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<ViewKey<T>, List<T>> entry = iterator.next();
+                if (!patchView(entry.getKey(), entry.getValue(), item, id)) {
+                    iterator.remove();
+                }
+            }
+        } finally {
+            viewLock.unlock();
+        }
+    }
+
+    private boolean patchView(ViewKey<T> key, List<T> view, T item,
+            Object id) {
+        int index = -1;
+        for (int i = 0; i < view.size(); i++) {
+            if (Objects.equals(id, getId(view.get(i)))) {
+                index = i;
+                break;
+            }
+        }
+        boolean included = (filter == null || filter.test(item))
+                && (key.filter == null || key.filter.test(item));
+        if (index < 0) {
+            // An item which was filtered out is not visible in the view
+            return !included;
+        }
+        if (!included) {
+            view.remove(index);
+            return true;
+        }
+        Comparator<T> comparator = getComparator(key.sorting).orElse(null);
+        if (comparator != null && ((index > 0
+                && comparator.compare(view.get(index - 1), item) > 0)
+                || (index < view.size() - 1 && comparator.compare(item,
+                        view.get(index + 1)) > 0))) {
+            return false;
+        }
+        view.set(index, item);
+        return true;
+    }
+
+    private Stream<T> getSortedStream(
+            Query<T, SerializablePredicate<T>> query) {
         Stream<T> stream = getFilteredStream(query);
 
-        Optional<Comparator<T>> comparing = Stream
-                .of(query.getInMemorySorting(), sortOrder)
-                .filter(Objects::nonNull)
-                .reduce((c1, c2) -> c1.thenComparing(c2));
+        Optional<Comparator<T>> comparing = getComparator(
+                query.getInMemorySorting());
 
         if (comparing.isPresent()) {
             stream = stream.sorted(comparing.get());
         }
-
-        return stream.skip(query.getOffset()).limit(query.getLimit());
+        return stream;
     }
 
-    @Override
-    public int size(Query<T, SerializablePredicate<T>> query) {
-        return (int) getFilteredStream(query).count();
+    private Optional<Comparator<T>> getComparator(
+            Comparator<T> querySorting) {
+        return Stream.of(querySorting, sortOrder).filter(Objects::nonNull)
+                .reduce((c1, c2) -> c1.thenComparing(c2));
     }
 
     private Stream<T> getFilteredStream(
@@ -153,6 +153,16 @@ public class HierarchicalCommunicationController<T> implements Serializable {
         requestedRange = Range.withLength(start, length);
     }
 
+    /**
+     * Gets the keys of the child items which are currently active on the
+     * client side.
+     *
+     * @return the active keys, not <code>null</code>
+     */
+    List<String> getActiveKeys() {
+        return Collections.unmodifiableList(activeKeyOrder);
+    }
+
     public void setResendEntireRange(boolean resend) {
         resendEntireRange = resend;
     }
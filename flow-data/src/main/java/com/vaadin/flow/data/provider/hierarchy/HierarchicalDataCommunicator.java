@@ -22,6 +22,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.stream.Stream;
 
 import com.vaadin.flow.data.provider.CompositeDataGenerator;
@@ -155,6 +156,7 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
         }
 
         if (getHierarchyMapper() != null) {
+            getHierarchyMapper().invalidateHierarchy();
             HierarchicalUpdate update = arrayUpdater
                     .startUpdate(getHierarchyMapper().getRootSize());
             update.enqueue("$connector.ensureHierarchy");
@@ -164,6 +166,8 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
 
     @Override
     protected void handleDataRefreshEvent(DataChangeEvent.DataRefreshEvent<T> event) {
+        // The refreshed item may have moved or its children may have changed
+        mapper.invalidateHierarchy();
         if (event.isRefreshChildren()) {
             T item = event.getItem();
             if (isExpanded(item)) {
@@ -189,6 +193,59 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
         return mapper.fetchRootItems(Range.withLength(offset, limit));
     }
 
+    /**
+     * Push updates are not supported for hierarchical data since the
+     * {@link HierarchyMapper} can only be used while the session is locked.
+     *
+     * @param executor
+     *            not used
+     * @throws UnsupportedOperationException
+     *             always
+     */
+    @Override
+    public void enablePushUpdates(Executor executor) {
+        throw new UnsupportedOperationException(
+                "Push updates are not supported for hierarchical data");
+    }
+
+    /**
+     * Size estimates are not supported for hierarchical data since the size
+     * of each level is needed for expanding and collapsing items.
+     *
+     * @param sizeEstimate
+     *            not used
+     * @throws UnsupportedOperationException
+     *             always
+     */
+    @Override
+    public void setSizeEstimate(int sizeEstimate) {
+        throw new UnsupportedOperationException(
+                "Size estimates are not supported for hierarchical data");
+    }
+
+    /**
+     * Skipping unchanged rows is not supported for hierarchical data since
+     * the child items are sent to the client by separate controllers.
+     *
+     * @param skipUnchangedRows
+     *            not used
+     * @throws UnsupportedOperationException
+     *             always
+     */
+    @Override
+    public void setSkipUnchangedRows(boolean skipUnchangedRows) {
+        throw new UnsupportedOperationException(
+                "Skipping unchanged rows is not supported for hierarchical data");
+    }
+
+    @Override
+    protected Collection<String> getActiveKeys() {
+        List<String> activeKeys = new ArrayList<>(super.getActiveKeys());
+        dataControllers.values().forEach(
+                controller -> activeKeys.addAll(controller.getActiveKeys()));
+        return activeKeys;
+    }
+
     public void setParentRequestedRange(int start, int length, T parentItem) {
         String parentKey = uniqueKeyProviderSupplier.get().apply(parentItem);
 
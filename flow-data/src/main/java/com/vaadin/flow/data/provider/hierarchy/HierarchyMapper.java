@@ -15,7 +15,10 @@
  */
 package com.vaadin.flow.data.provider.hierarchy;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -65,6 +68,78 @@ public class HierarchyMapper<T, F> implements Serializable {
 
     private Set<Object> expandedItemIds = new HashSet<>();
 
+    // Fetched children and subtree sizes of expanded nodes by the id of the
+    // node, with the null key for the root level. Nodes of collapsed items
+    // are removed, but nodes below them are kept so that they can be reused
+    // when the ancestor is expanded again.
+    private transient Map<Object, ExpandedNode<T>> expandedNodes =
+            new HashMap<>();
+
+    /**
+     * Children of an expanded node together with a binary indexed tree of the
+     * number of rows each child occupies in the flattened hierarchy, i.e. one
+     * for the child itself and the size of its subtree if it is expanded.
+     * Finding the row offset of a child and updating the row count of a child
+     * are logarithmic in the number of children.
+     *
+     * @param <T>
+     *            the data type
+     */
+    private static class ExpandedNode<T> {
+        private final List<T> children;
+        private final Map<Object, Integer> positions;
+        private final int[] tree;
+        private int size;
+
+        private ExpandedNode(List<T> children, Map<Object, Integer> positions,
+                int[] rowCounts) {
+            this.children = children;
+            this.positions = positions;
+            tree = new int[rowCounts.length + 1];
+            for (int i = 1; i < tree.length; i++) {
+                tree[i] += rowCounts[i - 1];
+                size += rowCounts[i - 1];
+                int parent = i + (i & -i);
+                if (parent < tree.length) {
+                    tree[parent] += tree[i];
+                }
+            }
+        }
+
+        private int getPosition(Object id) {
+            Integer position = positions.get(id);
+            return position == null ? -1 : position;
+        }
+
+        private int getOffset(int position) {
+            int offset = 0;
+            for (int i = position; i > 0; i -= i & -i) {
+                offset += tree[i];
+            }
+            return offset;
+        }
+
+        private void addRows(int position, int delta) {
+            for (int i = position + 1; i < tree.length; i += i & -i) {
+                tree[i] += delta;
+            }
+            size += delta;
+        }
+
+        private int findPosition(int offset) {
+            int position = 0;
+            for (int mask = Integer.highestOneBit(
+                    tree.length - 1); mask != 0; mask >>= 1) {
+                int next = position + mask;
+                if (next < tree.length && tree[next] <= offset) {
+                    position = next;
+                    offset -= tree[next];
+                }
+            }
+            return position;
+        }
+    }
+
     /**
      * Constructs a new HierarchyMapper.
      *
@@ -81,7 +156,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      * @return the amount of available data
      */
     public int getTreeSize() {
-        return (int) getHierarchy(null).count();
+        return getExpandedNode(null).size;
     }
 
     /**
@@ -103,8 +178,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      *
      */
     public Integer getParentIndex(T item) {
-        List<T> flatHierarchy = getHierarchy(null).collect(Collectors.toList());
-        return flatHierarchy.indexOf(getParentOfItem(item));
+        return getIndexInHierarchy(getParentOfItem(item));
     }
 
     /**
@@ -116,8 +190,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      *
      */
     public Integer getIndex(T item) {
-        List<T> flatHierarchy = getHierarchy(null).collect(Collectors.toList());
-        return flatHierarchy.indexOf(item);
+        return getIndexInHierarchy(item);
     }
 
     /**
@@ -158,8 +231,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      */
     public Range expand(T item, Integer position) {
         if (doExpand(item) && position != null) {
-            return Range.withLength(position + 1,
-                    (int) getHierarchy(item, false).count());
+            return Range.withLength(position + 1, getSubtreeSize(item));
         }
 
         return Range.withLength(0, 0);
@@ -177,8 +249,15 @@ public class HierarchyMapper<T, F> implements Serializable {
     private boolean doExpand(T item) {
         boolean expanded = false;
         if (!isExpanded(item) && hasChildren(item)) {
-            expandedItemIds.add(getDataProvider().getId(item));
+            Object id = getDataProvider().getId(item);
+            expandedItemIds.add(id);
             expanded = true;
+            if (isRegisteredInExpandedNode(id)) {
+                ExpandedNode<T> node = getExpandedNode(item);
+                if (node != null) {
+                    addRows(id, node.size);
+                }
+            }
         }
         return expanded;
     }
@@ -194,7 +273,9 @@ public class HierarchyMapper<T, F> implements Serializable {
             return false;
         }
         if (isExpanded(item)) {
-            expandedItemIds.remove(getDataProvider().getId(item));
+            Object id = getDataProvider().getId(item);
+            expandedItemIds.remove(id);
+            discardExpandedNode(id);
             return true;
         }
         return false;
@@ -215,9 +296,11 @@ public class HierarchyMapper<T, F> implements Serializable {
         if (isExpanded(item)) {
             if (position != null) {
                 removedRows = Range.withLength(position + 1,
-                        (int) getHierarchy(item, false).count());
+                        getSubtreeSize(item));
             }
-            expandedItemIds.remove(getDataProvider().getId(item));
+            Object id = getDataProvider().getId(item);
+            expandedItemIds.remove(id);
+            discardExpandedNode(id);
         }
         return removedRows;
     }
@@ -241,6 +324,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      */
     public void setInMemorySorting(Comparator<T> inMemorySorting) {
         this.inMemorySorting = inMemorySorting;
+        invalidateHierarchy();
     }
 
     /**
@@ -261,6 +345,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      */
     public void setBackEndSorting(List<QuerySortOrder> backEndSorting) {
         this.backEndSorting = backEndSorting;
+        invalidateHierarchy();
     }
 
     /**
@@ -281,6 +366,16 @@ public class HierarchyMapper<T, F> implements Serializable {
      */
     public void setFilter(Object filter) {
         this.filter = (F) filter;
+        invalidateHierarchy();
+    }
+
+    /**
+     * Discards the fetched structure of the expanded hierarchy so that it is
+     * fetched again from the data provider when it is needed next time. This
+     * should be called whenever the data of the data provider changes.
+     */
+    public void invalidateHierarchy() {
+        expandedNodes.clear();
     }
 
     /**
@@ -315,7 +410,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      * @return the stream of items
      */
     public Stream<T> fetchHierarchyItems(Range range) {
-        return getHierarchy(null).skip(range.getStart()).limit(range.length());
+        return getHierarchyRows(null, range);
     }
 
     /**
@@ -329,8 +424,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      * @return the stream of items
      */
     public Stream<T> fetchHierarchyItems(T parent, Range range) {
-        return getHierarchy(parent, false).skip(range.getStart())
-                .limit(range.length());
+        return getHierarchyRows(parent, range);
     }
 
     /**
@@ -428,6 +522,9 @@ public class HierarchyMapper<T, F> implements Serializable {
      *            the item id
      */
     protected void removeChildren(Object id) {
+        if (id != null) {
+            discardExpandedNode(id);
+        }
         // Clean up removed nodes from child map
         Iterator<Entry<T, Set<T>>> iterator = childMap.entrySet().iterator();
         Set<T> invalidatedChildren = new HashSet<>();
@@ -460,90 +557,199 @@ public class HierarchyMapper<T, F> implements Serializable {
             return Optional.empty();
         }
 
-        final List<Object> collect = getHierarchy(null).map(provider::getId)
-                .collect(Collectors.toList());
-        int index = collect.indexOf(getDataProvider().getId(target));
+        int index = getIndexInHierarchy(target);
         return Optional.ofNullable(index < 0 ? null : index);
     }
 
     /**
-     * Gets the full hierarchy tree starting from given node.
+     * Gets the stream of direct children for given node.
      *
      * @param parent
-     *            the parent node to start from
-     * @return the flattened hierarchy as a stream
+     *            the parent node
+     * @param range
+     * @return the stream of direct children
      */
-    private Stream<T> getHierarchy(T parent) {
-        return getHierarchy(parent, true);
+    private Stream<T> getDirectChildren(T parent, Range range) {
+        return getChildrenStream(parent, range, false);
     }
 
     /**
-     * Gets the full hierarchy tree starting from given node. The starting node
-     * can be omitted.
+     * Gets the expanded node of the given item, fetching its children and the
+     * children of its expanded descendants if they have not been fetched yet.
      *
      * @param parent
-     *            the parent node to start from
-     * @param includeParent
-     *            {@code true} to include the parent; {@code false} if not
-     * @return the flattened hierarchy as a stream
-     */
-    private Stream<T> getHierarchy(T parent, boolean includeParent) {
-        return Stream.of(parent)
-                .flatMap(node -> getFlatChildrenStream(node, includeParent));
+     *            the parent item, or {@code null} for the root level
+     * @return the expanded node, or {@code null} if the item is not expanded
+     *         or has no children
+     */
+    private ExpandedNode<T> getExpandedNode(T parent) {
+        ExpandedNode<T> node = expandedNodes.get(getItemId(parent));
+        if (node == null && isExpanded(parent)) {
+            node = fetchExpandedNode(parent);
+        }
+        return node;
     }
 
     /**
-     * Gets the stream of direct children for given node.
+     * Fetches the children of the given expanded item and builds its expanded
+     * node. Nodes of expanded children are reused or fetched recursively.
      *
      * @param parent
-     *            the parent node
-     * @param range
-     * @return the stream of direct children
+     *            the parent item, or {@code null} for the root level
+     * @return the expanded node, or {@code null} if the item has no children
      */
-    private Stream<T> getDirectChildren(T parent, Range range) {
-        return getChildrenStream(parent, range, false);
+    private ExpandedNode<T> fetchExpandedNode(T parent) {
+        Object parentId = getItemId(parent);
+        List<T> childList = doFetchDirectChildren(parent)
+                .collect(Collectors.toList());
+        if (childList.isEmpty()) {
+            removeChildren(parentId);
+            if (parent != null) {
+                return null;
+            }
+        } else {
+            registerChildren(parent, childList);
+        }
+        Map<Object, Integer> positions = new HashMap<>();
+        int[] rowCounts = new int[childList.size()];
+        for (int i = 0; i < rowCounts.length; i++) {
+            T child = childList.get(i);
+            positions.put(getDataProvider().getId(child), i);
+            ExpandedNode<T> childNode = getExpandedNode(child);
+            rowCounts[i] = childNode == null ? 1 : childNode.size + 1;
+        }
+        ExpandedNode<T> node = new ExpandedNode<>(childList, positions,
+                rowCounts);
+        expandedNodes.put(parentId, node);
+        return node;
     }
 
     /**
-     * The method to recursively fetch the children of given parent. Used with
-     * {@link Stream#flatMap} to expand a stream of parent nodes into a
-     * flattened hierarchy.
+     * Removes the expanded node of the given item and its rows from the
+     * ancestors of the item.
      *
-     * @param parent
-     *            the parent node
-     * @return the stream of all children under the parent, includes the parent
+     * @param id
+     *            the item id
+     */
+    private void discardExpandedNode(Object id) {
+        ExpandedNode<T> node = expandedNodes.remove(id);
+        if (node != null) {
+            addRows(id, -node.size);
+        }
+    }
+
+    /**
+     * Adds rows to the subtree of the given item and to the subtrees of its
+     * ancestors as far as their expanded nodes have been fetched.
+     *
+     * @param id
+     *            the item id
+     * @param delta
+     *            the number of rows to add, negative to remove rows
+     */
+    private void addRows(Object id, int delta) {
+        Object currentId = id;
+        while (currentId != null) {
+            T parent = parentIdMap.get(currentId);
+            ExpandedNode<T> node = expandedNodes.get(getItemId(parent));
+            int position = node == null ? -1 : node.getPosition(currentId);
+            if (position < 0) {
+                return;
+            }
+            node.addRows(position, delta);
+            currentId = getItemId(parent);
+        }
+    }
+
+    private boolean isRegisteredInExpandedNode(Object id) {
+        ExpandedNode<T> node = expandedNodes
+                .get(getItemId(parentIdMap.get(id)));
+        return node != null && node.getPosition(id) >= 0;
+    }
+
+    /**
+     * Gets the index of the given item in the flattened hierarchy by summing
+     * up the rows preceding the item and each of its ancestors.
+     *
+     * @param item
+     *            the item
+     * @return the index or a negative value if the item is not visible
      */
-    private Stream<T> getFlatChildrenStream(T parent) {
-        return getFlatChildrenStream(parent, true);
+    private int getIndexInHierarchy(T item) {
+        if (item == null) {
+            return -1;
+        }
+        // Make sure the visible hierarchy has been fetched
+        getExpandedNode(null);
+
+        int index = 0;
+        Object currentId = getDataProvider().getId(item);
+        while (true) {
+            T parent = parentIdMap.get(currentId);
+            ExpandedNode<T> node = expandedNodes.get(getItemId(parent));
+            int position = node == null ? -1 : node.getPosition(currentId);
+            if (position < 0) {
+                return -1;
+            }
+            index += node.getOffset(position);
+            if (parent == null) {
+                return index;
+            }
+            // The parent row itself precedes its children
+            index++;
+            currentId = getItemId(parent);
+        }
+    }
+
+    private int getSubtreeSize(T item) {
+        ExpandedNode<T> node = getExpandedNode(item);
+        return node == null ? 0 : node.size;
     }
 
     /**
-     * The method to recursively fetch the children of given parent. Used with
-     * {@link Stream#flatMap} to expand a stream of parent nodes into a
-     * flattened hierarchy.
+     * Gets the given range of rows in the flattened hierarchy below the given
+     * parent, excluding the parent itself.
      *
      * @param parent
-     *            the parent node
-     * @param includeParent
-     *            {@code true} to include the parent in the stream;
-     *            {@code false} if not
-     * @return the stream of all children under the parent
-     */
-    private Stream<T> getFlatChildrenStream(T parent, boolean includeParent) {
-        List<T> childList = Collections.emptyList();
-        if (isExpanded(parent)) {
-            childList = doFetchDirectChildren(parent)
-                    .collect(Collectors.toList());
-            if (childList.isEmpty()) {
-                removeChildren(parent == null ? null
-                        : getDataProvider().getId(parent));
-            } else {
-                registerChildren(parent, childList);
+     *            the parent item, or {@code null} for the root level
+     * @param range
+     *            the range of rows
+     * @return the stream of rows
+     */
+    private Stream<T> getHierarchyRows(T parent, Range range) {
+        ExpandedNode<T> node = getExpandedNode(parent);
+        if (node == null || range.getStart() >= node.size
+                || range.isEmpty()) {
+            return Stream.empty();
+        }
+        List<T> rows = new ArrayList<>();
+        collectRows(node, range.getStart(),
+                Math.min(range.length(), node.size - range.getStart()), rows);
+        return rows.stream();
+    }
+
+    private void collectRows(ExpandedNode<T> node, int offset, int limit,
+            List<T> rows) {
+        int position = node.findPosition(offset);
+        // Rows of the child at the position to skip, zero being the child
+        int skip = offset - node.getOffset(position);
+        for (int i = position; i < node.children.size()
+                && rows.size() < limit; i++) {
+            T child = node.children.get(i);
+            if (skip == 0) {
+                rows.add(child);
+            }
+            ExpandedNode<T> childNode = expandedNodes
+                    .get(getDataProvider().getId(child));
+            if (childNode != null && rows.size() < limit) {
+                collectRows(childNode, Math.max(skip - 1, 0), limit, rows);
             }
+            skip = 0;
         }
-        return combineParentAndChildStreams(parent,
-                childList.stream().flatMap(this::getFlatChildrenStream),
-                includeParent);
+    }
+
+    private Object getItemId(T item) {
+        return item == null ? null : getDataProvider().getId(item);
     }
 
     /**
@@ -617,6 +823,7 @@ public class HierarchyMapper<T, F> implements Serializable {
         childMap.clear();
         parentIdMap.clear();
         expandedItemIds.clear();
+        expandedNodes.clear();
     }
 
     /**
@@ -627,4 +834,10 @@ public class HierarchyMapper<T, F> implements Serializable {
     public boolean hasExpandedItems() {
         return !expandedItemIds.isEmpty();
     }
+
+    private void readObject(ObjectInputStream in)
+            throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        expandedNodes = new HashMap<>();
+    }
 }
@@ -54,6 +54,7 @@ public class ComponentRenderer<COMPONENT extends Component, SOURCE>
     private SerializableBiFunction<Component, SOURCE, Component> componentUpdateFunction;
     private SerializableBiConsumer<COMPONENT, SOURCE> itemConsumer;
     private String componentRendererTag = "flow-component-renderer";
+    private int recycledComponentLimit;
 
     /**
      * Creates a new ComponentRenderer that uses the componentSupplier to
@@ -188,6 +189,42 @@ public class ComponentRenderer<COMPONENT extends Component, SOURCE>
         this.componentRendererTag = componentRendererTag;
     }
 
+    /**
+     * Sets the maximum number of components to keep for reuse when items are
+     * no longer rendered, e.g. when they are scrolled out of view in a grid.
+     * <p>
+     * A kept component stays attached, and it is rebound to a newly rendered
+     * item using {@link #updateComponent(Component, Object)} instead of
+     * creating a new component. This avoids creating and removing components
+     * on both the server and the client while scrolling. Recycling is only
+     * useful when an update function is given using
+     * {@link #ComponentRenderer(SerializableFunction, SerializableBiFunction)}
+     * or {@link #updateComponent(Component, Object)} is overridden to reuse
+     * the given component. By default, no components are kept.
+     *
+     * @param recycledComponentLimit
+     *            the maximum number of components to keep for reuse, or
+     *            <code>0</code> to disable recycling
+     */
+    public void setRecycledComponentLimit(int recycledComponentLimit) {
+        if (recycledComponentLimit < 0) {
+            throw new IllegalArgumentException(
+                    "Recycled component limit cannot be negative: "
+                            + recycledComponentLimit);
+        }
+        this.recycledComponentLimit = recycledComponentLimit;
+    }
+
+    /**
+     * Gets the maximum number of components to keep for reuse.
+     *
+     * @return the maximum number of components to keep for reuse
+     * @see #setRecycledComponentLimit(int)
+     */
+    public int getRecycledComponentLimit() {
+        return recycledComponentLimit;
+    }
+
     private void setupTemplateWhenAttached(UI ui, Element owner,
             ComponentRendering rendering, DataKeyMapper<SOURCE> keyMapper) {
         String appId = ui.getInternals().getAppId();
@@ -21,6 +21,7 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashSet;
@@ -72,6 +73,12 @@ public class BeanPropertySetTest {
         }
     }
 
+    public static class ThrowingBean {
+        public String getValue() {
+            throw new IllegalStateException();
+        }
+    }
+
     @Test
     public void testSerializeDeserialize_propertySet() throws Exception {
         PropertySet<Person> originalPropertySet = BeanPropertySet
@@ -221,6 +228,69 @@ public class BeanPropertySetTest {
         BeanPropertySet.get(FatherAndSon.class).getProperty("father.age");
     }
 
+    @Test
+    public void primitiveAndNestedProperties_readAndWritten() {
+        PropertySet<com.vaadin.flow.tests.data.bean.Person> propertySet = BeanPropertySet
+                .get(com.vaadin.flow.tests.data.bean.Person.class);
+        com.vaadin.flow.tests.data.bean.Person person = new com.vaadin.flow.tests.data.bean.Person();
+        person.setAddress(new Address());
+
+        setValue(propertySet, "age", person, 42);
+        setValue(propertySet, "deceased", person, true);
+        setValue(propertySet, "address.city", person, "Turku");
+
+        Assert.assertEquals(42, person.getAge());
+        Assert.assertTrue(person.getDeceased());
+        Assert.assertEquals("Turku", person.getAddress().getCity());
+        Assert.assertEquals(42, propertySet.getProperty("age").get()
+                .getGetter().apply(person));
+        Assert.assertEquals("Turku", propertySet.getProperty("address.city")
+                .get().getGetter().apply(person));
+    }
+
+    @Test
+    public void getterThrows_exceptionWrapped() {
+        PropertyDefinition<ThrowingBean, ?> definition = BeanPropertySet
+                .get(ThrowingBean.class).getProperty("value").get();
+
+        try {
+            definition.getGetter().apply(new ThrowingBean());
+            Assert.fail("Exception from the getter should be rethrown");
+        } catch (RuntimeException e) {
+            Assert.assertEquals(InvocationTargetException.class,
+                    e.getCause().getClass());
+            Assert.assertEquals(IllegalStateException.class,
+                    e.getCause().getCause().getClass());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nullValueForPrimitiveProperty_illegalArgument() {
+        PropertySet<com.vaadin.flow.tests.data.bean.Person> propertySet = BeanPropertySet
+                .get(com.vaadin.flow.tests.data.bean.Person.class);
+
+        setValue(propertySet, "age",
+                new com.vaadin.flow.tests.data.bean.Person(), null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void readFromWrongBeanType_illegalArgument() {
+        PropertyDefinition definition = BeanPropertySet
+                .get(com.vaadin.flow.tests.data.bean.Person.class)
+                .getProperty("age").get();
+
+        definition.getGetter().apply(new ThrowingBean());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void setValue(PropertySet<T> propertySet,
+            String name, T bean, Object value) {
+        PropertyDefinition<T, Object> definition = (PropertyDefinition<T, Object>) propertySet
+                .getProperty(name).get();
+        definition.getSetter().get().accept(bean, value);
+    }
+
     @Test
     public void properties() {
         PropertySet<Person> propertySet = BeanPropertySet.get(Person.class);
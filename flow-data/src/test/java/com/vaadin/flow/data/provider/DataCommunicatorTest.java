@@ -16,9 +16,14 @@
 package com.vaadin.flow.data.provider;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -28,6 +33,7 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
@@ -35,10 +41,13 @@ import org.mockito.MockitoAnnotations;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.dom.Element;
 import com.vaadin.flow.internal.Range;
+import com.vaadin.flow.server.Command;
 import com.vaadin.flow.server.VaadinRequest;
 import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.VaadinSession;
 
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
 import elemental.json.JsonValue;
 
 public class DataCommunicatorTest {
@@ -342,6 +351,291 @@ public class DataCommunicatorTest {
         Mockito.verify(dataProvider, Mockito.times(1)).fetch(Mockito.any());
     }
 
+    @Test
+    public void pushUpdatesEnabled_itemsFetchedInExecutorAndSentWhenDone() {
+        List<Runnable> tasks = new ArrayList<>();
+        dataCommunicator.enablePushUpdates(tasks::add);
+        AbstractDataProvider<Item, Object> dataProvider = Mockito
+                .spy(createDataProvider());
+        dataCommunicator.setDataProvider(dataProvider, null);
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        Assert.assertNull("Nothing should be sent before the fetch is done",
+                lastSet);
+        Mockito.verify(dataProvider, Mockito.never()).fetch(Mockito.any());
+        Assert.assertEquals(1, tasks.size());
+
+        tasks.remove(0).run();
+        fakeClientCommunication();
+
+        Assert.assertEquals(Range.withLength(0, 50), lastSet);
+        Assert.assertTrue(tasks.isEmpty());
+        Mockito.verify(dataProvider, Mockito.times(1)).size(Mockito.any());
+        Mockito.verify(dataProvider, Mockito.times(1)).fetch(Mockito.any());
+    }
+
+    @Test
+    public void pushUpdatesEnabled_rangeChangedWhileFetching_supersededFetchDiscarded() {
+        List<Runnable> tasks = new ArrayList<>();
+        dataCommunicator.enablePushUpdates(tasks::add);
+        AbstractDataProvider<Item, Object> dataProvider = Mockito
+                .spy(createDataProvider());
+        dataCommunicator.setDataProvider(dataProvider, null);
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+        dataCommunicator.setRequestedRange(50, 50);
+        fakeClientCommunication();
+
+        Assert.assertEquals("Only one fetch should run at a time", 1,
+                tasks.size());
+
+        tasks.remove(0).run();
+        fakeClientCommunication();
+
+        Assert.assertNull("The superseded fetch should not be sent",
+                lastSet);
+        Mockito.verify(dataProvider, Mockito.never()).fetch(Mockito.any());
+        Assert.assertEquals(1, tasks.size());
+
+        tasks.remove(0).run();
+        fakeClientCommunication();
+
+        Assert.assertEquals(Range.withLength(50, 50), lastSet);
+        Mockito.verify(dataProvider, Mockito.times(1)).fetch(Mockito.any());
+    }
+
+    @Test
+    public void pushUpdatesEnabled_resetAfterFetchCompleted_fetchedItemsDiscarded() {
+        List<Runnable> tasks = new ArrayList<>();
+        dataCommunicator.enablePushUpdates(tasks::add);
+        AbstractDataProvider<Item, Object> dataProvider = Mockito
+                .spy(createDataProvider());
+        dataCommunicator.setDataProvider(dataProvider, null);
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+        tasks.remove(0).run();
+
+        dataCommunicator.reset();
+        fakeClientCommunication();
+
+        Assert.assertNull("Items fetched before the reset should not be sent",
+                lastSet);
+        Assert.assertEquals(1, tasks.size());
+
+        tasks.remove(0).run();
+        fakeClientCommunication();
+
+        Assert.assertEquals(Range.withLength(0, 50), lastSet);
+        Mockito.verify(dataProvider, Mockito.times(2)).fetch(Mockito.any());
+    }
+
+    @Test
+    public void readAheadEnabled_pagesFetchedOnceAndDiscardedOnReset() {
+        dataCommunicator.setReadAhead(50, 4);
+        AbstractDataProvider<Item, Object> dataProvider = Mockito
+                .spy(createDataProvider());
+        dataCommunicator.setDataProvider(dataProvider, null);
+
+        dataCommunicator.setRequestedRange(0, 20);
+        fakeClientCommunication();
+
+        Assert.assertEquals(Range.withLength(0, 20), lastSet);
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        Mockito.verify(dataProvider).fetch(query.capture());
+        Assert.assertEquals(0, query.getValue().getOffset());
+        Assert.assertEquals("The next page should be read ahead", 100,
+                query.getValue().getLimit());
+
+        dataCommunicator.setRequestedRange(0, 70);
+        fakeClientCommunication();
+
+        Assert.assertEquals(Range.withLength(20, 50), lastSet);
+        Mockito.verify(dataProvider, Mockito.times(1)).fetch(Mockito.any());
+
+        dataProvider.refreshAll();
+        fakeClientCommunication();
+
+        Mockito.verify(dataProvider, Mockito.times(2)).fetch(Mockito.any());
+    }
+
+    @Test
+    public void pushUpdatesAndReadAheadEnabled_pagesFetchedInExecutorAndCached() {
+        List<Runnable> tasks = new ArrayList<>();
+        dataCommunicator.enablePushUpdates(tasks::add);
+        dataCommunicator.setReadAhead(50, 4);
+        AbstractDataProvider<Item, Object> dataProvider = Mockito
+                .spy(createDataProvider());
+        dataCommunicator.setDataProvider(dataProvider, null);
+
+        dataCommunicator.setRequestedRange(0, 20);
+        fakeClientCommunication();
+        tasks.remove(0).run();
+        fakeClientCommunication();
+
+        Assert.assertEquals(Range.withLength(0, 20), lastSet);
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        Mockito.verify(dataProvider).fetch(query.capture());
+        Assert.assertEquals(0, query.getValue().getOffset());
+        Assert.assertEquals("The next page should be read ahead", 100,
+                query.getValue().getLimit());
+
+        dataCommunicator.setRequestedRange(0, 70);
+        fakeClientCommunication();
+
+        Assert.assertTrue("Cached pages should be sent without a fetch",
+                tasks.isEmpty());
+        Assert.assertEquals(Range.withLength(20, 50), lastSet);
+        Mockito.verify(dataProvider, Mockito.times(1)).fetch(Mockito.any());
+    }
+
+    @Test
+    public void refreshItems_onlyActiveItemsSentOnceInSingleUpdate() {
+        List<JsonArray> updates = new ArrayList<>();
+        dataCommunicator = new DataCommunicator<>(dataGenerator, arrayUpdater,
+                updates::add, element.getNode());
+        dataCommunicator.setDataProvider(createListDataProvider(100), null);
+        dataCommunicator.setRequestedRange(0, 10);
+        fakeClientCommunication();
+
+        dataCommunicator.refreshItems(Arrays.asList(new Item(1, "First"),
+                new Item(2), new Item(1, "Second"), new Item(50)));
+        fakeClientCommunication();
+
+        Assert.assertEquals(1, updates.size());
+        Assert.assertEquals(2, updates.get(0).length());
+        Mockito.verify(dataGenerator).refreshData(new Item(1));
+        Mockito.verify(dataGenerator, Mockito.never())
+                .refreshData(new Item(50));
+
+        dataCommunicator.refreshItems(item -> item.id % 2 == 0);
+        fakeClientCommunication();
+
+        Assert.assertEquals(2, updates.size());
+        Assert.assertEquals(5, updates.get(1).length());
+    }
+
+    @Test
+    public void skipUnchangedRows_onlyChangedRowsSent() {
+        List<JsonArray> updates = new ArrayList<>();
+        dataCommunicator = new DataCommunicator<>(dataGenerator, arrayUpdater,
+                updates::add, element.getNode());
+        Mockito.doAnswer(invocation -> {
+            Item item = (Item) invocation.getArguments()[0];
+            JsonObject json = (JsonObject) invocation.getArguments()[1];
+            json.put("value", item.value);
+            return null;
+        }).when(dataGenerator).generateData(Mockito.any(), Mockito.any());
+        dataCommunicator.setSkipUnchangedRows(true);
+        dataCommunicator.setDataProvider(createListDataProvider(100), null);
+        dataCommunicator.setRequestedRange(0, 10);
+        fakeClientCommunication();
+
+        dataCommunicator.refreshItems(
+                Arrays.asList(new Item(1), new Item(2, "Changed")));
+        fakeClientCommunication();
+
+        Assert.assertEquals(1, updates.size());
+        Assert.assertEquals(1, updates.get(0).length());
+        Assert.assertEquals("Changed",
+                updates.get(0).getObject(0).getString("value"));
+
+        dataCommunicator.refresh(new Item(2, "Changed"));
+        fakeClientCommunication();
+
+        Assert.assertEquals("Unchanged row should not be sent again", 1,
+                updates.size());
+    }
+
+    @Test
+    public void sizeEstimateSet_sizeGrowsUntilEndIsFound_sizeNotQueried() {
+        dataCommunicator.setSizeEstimate(30);
+        ListDataProvider<Item> dataProvider = Mockito
+                .spy(createListDataProvider(45));
+        dataCommunicator.setDataProvider(dataProvider, null);
+
+        dataCommunicator.setRequestedRange(0, 20);
+        fakeClientCommunication();
+        Mockito.verify(arrayUpdater).startUpdate(30);
+
+        dataCommunicator.setRequestedRange(0, 30);
+        fakeClientCommunication();
+        Mockito.verify(arrayUpdater).startUpdate(60);
+
+        dataCommunicator.setRequestedRange(0, 60);
+        fakeClientCommunication();
+        Mockito.verify(arrayUpdater).startUpdate(45);
+        Assert.assertEquals(Range.withLength(30, 15), lastSet);
+
+        Mockito.verify(dataProvider, Mockito.never()).size(Mockito.any());
+    }
+
+    @Test
+    public void sizeEstimateSet_exactSizeCountedInExecutor_sizeUpdated() {
+        List<Runnable> tasks = new ArrayList<>();
+        dataCommunicator.setSizeEstimate(30);
+        dataCommunicator.setExactSizeExecutor(tasks::add);
+        ListDataProvider<Item> dataProvider = Mockito
+                .spy(createListDataProvider(45));
+        dataCommunicator.setDataProvider(dataProvider, null);
+
+        dataCommunicator.setRequestedRange(0, 20);
+        fakeClientCommunication();
+        Mockito.verify(arrayUpdater).startUpdate(30);
+        Mockito.verify(dataProvider, Mockito.never()).size(Mockito.any());
+        Assert.assertEquals(1, tasks.size());
+
+        tasks.remove(0).run();
+        fakeClientCommunication();
+
+        Mockito.verify(arrayUpdater).startUpdate(45);
+        Mockito.verify(dataProvider, Mockito.times(1)).size(Mockito.any());
+        Assert.assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    public void pushUpdatesEnabled_executorRejectsFetch_itemsSentSynchronously() {
+        dataCommunicator.enablePushUpdates(task -> {
+            throw new RejectedExecutionException();
+        });
+        AbstractDataProvider<Item, Object> dataProvider = Mockito
+                .spy(createDataProvider());
+        dataCommunicator.setDataProvider(dataProvider, null);
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        Assert.assertEquals(Range.withLength(0, 50), lastSet);
+
+        lastSet = null;
+        dataCommunicator.setRequestedRange(50, 50);
+        fakeClientCommunication();
+
+        Assert.assertEquals(
+                "Items should still be sent after a rejected fetch",
+                Range.withLength(50, 50), lastSet);
+    }
+
+    @Test
+    public void sizeEstimateSet_exactSizeExecutorRejects_sizeCountedSynchronously() {
+        dataCommunicator.setSizeEstimate(30);
+        dataCommunicator.setExactSizeExecutor(task -> {
+            throw new RejectedExecutionException();
+        });
+        ListDataProvider<Item> dataProvider = Mockito
+                .spy(createListDataProvider(45));
+        dataCommunicator.setDataProvider(dataProvider, null);
+
+        dataCommunicator.setRequestedRange(0, 20);
+        fakeClientCommunication();
+
+        Mockito.verify(arrayUpdater).startUpdate(45);
+        Mockito.verify(dataProvider, Mockito.times(1)).size(Mockito.any());
+    }
+
     private void fakeClientCommunication() {
         ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
         ui.getInternals().getStateTree().collectChanges(ignore -> {
@@ -379,6 +673,11 @@ public class DataCommunicatorTest {
         };
     }
 
+    private ListDataProvider<Item> createListDataProvider(int size) {
+        return new ListDataProvider<>(IntStream.range(0, size)
+                .mapToObj(Item::new).collect(Collectors.toList()));
+    }
+
     private AbstractDataProvider<Item, Object> createDataProvider() {
         return new AbstractDataProvider<Item, Object>() {
             @Override
@@ -417,6 +716,13 @@ public class DataCommunicatorTest {
             // Do nothing
         }
 
+        @Override
+        public Future<Void> access(Command command) {
+            // The session is always locked by the test thread
+            command.execute();
+            return CompletableFuture.completedFuture(null);
+        }
+
         private static VaadinSession findOrcreateSession() {
             VaadinSession session = VaadinSession.getCurrent();
             if (session == null) {
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.lang.reflect.Field;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IntKeyMapperTest {
+
+    private IntKeyMapper<StrBean> mapper = new IntKeyMapper<>(
+            StrBean::getId);
+
+    @Test
+    public void key_sameIdentifier_sameKey() {
+        StrBean bean = new StrBean("foo", 1, 0);
+
+        String key = mapper.key(bean);
+
+        Assert.assertEquals("1", key);
+        Assert.assertEquals(key, mapper.key(new StrBean("bar", 1, 0)));
+        Assert.assertEquals("2", mapper.key(new StrBean("foo", 2, 0)));
+        Assert.assertSame(bean, mapper.get(key));
+        Assert.assertTrue(mapper.containsKey(key));
+        Assert.assertFalse(mapper.containsKey("01"));
+        Assert.assertNull(mapper.get("foo"));
+    }
+
+    @Test
+    public void remove_keyNotReused() {
+        StrBean bean = new StrBean("foo", 1, 0);
+        String key = mapper.key(bean);
+
+        mapper.remove(bean);
+
+        Assert.assertFalse(mapper.has(bean));
+        Assert.assertNull(mapper.get(key));
+        Assert.assertEquals("2", mapper.key(bean));
+    }
+
+    @Test
+    public void lastKeyUsed_keysRestartSkippingKeysInUse() throws Exception {
+        StrBean first = new StrBean("foo", 1, 0);
+        Assert.assertEquals("1", mapper.key(first));
+        mapper.key(new StrBean("foo", 2, 0));
+        mapper.remove(new StrBean("foo", 2, 0));
+
+        Field lastKey = IntKeyMapper.class.getDeclaredField("lastKey");
+        lastKey.setAccessible(true);
+        lastKey.setInt(mapper, Integer.MAX_VALUE - 1);
+
+        StrBean last = new StrBean("foo", 3, 0);
+        Assert.assertEquals(String.valueOf(Integer.MAX_VALUE),
+                mapper.key(last));
+        // 1 is still in use, 2 has been removed
+        Assert.assertEquals("2", mapper.key(new StrBean("foo", 4, 0)));
+        Assert.assertEquals("3", mapper.key(new StrBean("foo", 5, 0)));
+
+        Assert.assertSame(first, mapper.get("1"));
+        Assert.assertSame(last, mapper.get(String.valueOf(Integer.MAX_VALUE)));
+    }
+
+    @Test
+    public void manyObjectsAddedAndRemoved_remainingObjectsFound() {
+        for (int i = 0; i < 10000; i++) {
+            mapper.key(new StrBean("bean", i, 0));
+            if (i % 3 != 0) {
+                mapper.remove(new StrBean("bean", i, 0));
+            }
+        }
+
+        for (int i = 0; i < 10000; i++) {
+            StrBean bean = new StrBean("bean", i, 0);
+            Assert.assertEquals(i % 3 == 0, mapper.has(bean));
+            Assert.assertEquals(i % 3 == 0,
+                    mapper.containsKey(String.valueOf(i + 1)));
+        }
+    }
+
+    @Test
+    public void refresh_latestInstanceReturned() {
+        String key = mapper.key(new StrBean("foo", 1, 0));
+        StrBean updated = new StrBean("bar", 1, 0);
+
+        mapper.refresh(updated);
+
+        Assert.assertSame(updated, mapper.get(key));
+    }
+
+    @Test
+    public void serializeAndDeserialize_mappingsAndNextKeyRestored() {
+        StrBean bean = new StrBean("foo", 1, 0);
+        mapper.key(new StrBean("foo", 0, 0));
+        mapper.key(bean);
+        mapper.remove(new StrBean("foo", 0, 0));
+
+        IntKeyMapper<StrBean> copy = SerializationUtils.clone(mapper);
+
+        Assert.assertEquals("2", copy.key(bean));
+        Assert.assertNull(copy.get("1"));
+        Assert.assertEquals("3", copy.key(new StrBean("foo", 3, 0)));
+    }
+}
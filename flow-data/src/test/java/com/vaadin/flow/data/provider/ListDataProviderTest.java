@@ -15,9 +15,13 @@
  */
 package com.vaadin.flow.data.provider;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.SerializationUtils;
@@ -25,6 +29,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import com.vaadin.flow.function.SerializableComparator;
+import com.vaadin.flow.function.SerializablePredicate;
 
 public class ListDataProviderTest
         extends DataProviderTestBase<ListDataProvider<StrBean>> {
@@ -250,4 +255,101 @@ public class ListDataProviderTest
         SerializationUtils.serialize(provider);
     }
 
+    @Test
+    public void viewCacheEnabled_pagesMatchUncachedProvider() {
+        ListDataProvider<StrBean> cached = DataProvider.ofCollection(data);
+        cached.setViewCacheEnabled(true);
+        Comparator<StrBean> sorting = Comparator
+                .comparing(StrBean::getValue);
+
+        for (int offset = 0; offset < 100; offset += 30) {
+            Query<StrBean, SerializablePredicate<StrBean>> query = new Query<>(
+                    offset, 30, null, sorting, gt5Filter);
+            Assert.assertEquals(
+                    dataProvider.fetch(query).collect(Collectors.toList()),
+                    cached.fetch(query).collect(Collectors.toList()));
+            Assert.assertEquals(dataProvider.size(query), cached.size(query));
+        }
+    }
+
+    @Test
+    public void viewCacheEnabled_refreshItem_viewUpdated() {
+        ListDataProvider<StrBean> cached = DataProvider.ofCollection(data);
+        cached.setViewCacheEnabled(true);
+        Comparator<StrBean> sorting = Comparator
+                .comparing(StrBean::getValue);
+        Query<StrBean, SerializablePredicate<StrBean>> query = new Query<>(0,
+                Integer.MAX_VALUE, null, sorting, fooFilter);
+        int fooCount = cached.size(query);
+
+        StrBean first = cached.fetch(query).findFirst().get();
+        first.setValue("Bar");
+        cached.refreshItem(first);
+
+        Assert.assertEquals(fooCount - 1, cached.size(query));
+        Assert.assertEquals(
+                dataProvider.fetch(query).collect(Collectors.toList()),
+                cached.fetch(query).collect(Collectors.toList()));
+
+        Query<StrBean, SerializablePredicate<StrBean>> unfiltered = new Query<>(
+                0, Integer.MAX_VALUE, null, sorting, null);
+        cached.fetch(unfiltered);
+        first.setValue("Zzz");
+        cached.refreshItem(first);
+        Assert.assertEquals(
+                dataProvider.fetch(unfiltered).collect(Collectors.toList()),
+                cached.fetch(unfiltered).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void viewCacheEnabled_backendChanged_visibleAfterRefreshAll() {
+        ListDataProvider<StrBean> cached = DataProvider.ofCollection(data);
+        cached.setViewCacheEnabled(true);
+        Query<StrBean, SerializablePredicate<StrBean>> query = new Query<>();
+        Assert.assertEquals(100, cached.size(query));
+
+        data.remove(0);
+        Assert.assertEquals(100, cached.size(query));
+
+        cached.refreshAll();
+        Assert.assertEquals(99, cached.size(query));
+    }
+
+    @Test
+    public void viewCacheEnabled_concurrentQueries_pagesMatchUncachedProvider()
+            throws Exception {
+        ListDataProvider<StrBean> cached = DataProvider.ofCollection(data);
+        cached.setViewCacheEnabled(true);
+        List<Comparator<StrBean>> sortings = new ArrayList<>();
+        sortings.add(Comparator.comparing(StrBean::getValue));
+        sortings.add(Comparator.comparing(StrBean::getId));
+        sortings.add(Comparator.comparing(StrBean::getRandomNumber));
+        sortings.add(Comparator.comparing(StrBean::getId).reversed());
+        sortings.add(Comparator.comparing(StrBean::getValue).reversed());
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                Comparator<StrBean> sorting = sortings
+                        .get(i % sortings.size());
+                int offset = i % 90;
+                futures.add(executor.submit(() -> {
+                    Query<StrBean, SerializablePredicate<StrBean>> query = new Query<>(
+                            offset, 10, null, sorting, null);
+                    Assert.assertEquals(
+                            dataProvider.fetch(query)
+                                    .collect(Collectors.toList()),
+                            cached.fetch(query).collect(Collectors.toList()));
+                    Assert.assertEquals(100, cached.size(query));
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
 }
@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -225,6 +226,49 @@ public class HierarchyMapperWithDataTest {
         verifyFetchIsCorrect(expectedResult, range);
     }
 
+    @Test
+    public void indexLookups_expandAndCollapse_childrenNotFetchedAgain() {
+        AtomicInteger fetches = new AtomicInteger();
+        mapper = new HierarchyMapper<>(new TreeDataProvider<Node>(data) {
+            @Override
+            public Stream<Node> fetchChildren(
+                    HierarchicalQuery<Node, SerializablePredicate<Node>> query) {
+                fetches.incrementAndGet();
+                return super.fetchChildren(query);
+            }
+        });
+        Node root = roots.get(1);
+        Node parent = testData.get(testData.indexOf(root) + 1);
+        Node leaf = testData.get(testData.indexOf(parent) + 1);
+
+        expand(root);
+        expand(parent);
+        // Root level, second root and its first child
+        assertEquals(3, fetches.get());
+
+        assertEquals(Integer.valueOf(1), mapper.getIndex(root));
+        assertEquals(Integer.valueOf(2), mapper.getIndex(parent));
+        assertEquals(Integer.valueOf(3), mapper.getIndex(leaf));
+        assertEquals(Integer.valueOf(2), mapper.getParentIndex(leaf));
+        assertEquals(Integer.valueOf(1 + 1 + PARENT_COUNT + LEAF_COUNT),
+                mapper.getIndex(roots.get(2)));
+
+        collapse(root);
+        assertEquals(Integer.valueOf(2), mapper.getIndex(roots.get(2)));
+        assertEquals(Integer.valueOf(-1), mapper.getIndex(leaf));
+
+        // The expanded child is restored without fetching its children
+        expand(root);
+        assertEquals(Integer.valueOf(3), mapper.getIndex(leaf));
+        assertEquals(ROOT_COUNT + PARENT_COUNT + LEAF_COUNT,
+                mapper.getTreeSize());
+        assertEquals(4, fetches.get());
+
+        mapper.invalidateHierarchy();
+        assertEquals(Integer.valueOf(3), mapper.getIndex(leaf));
+        assertEquals(7, fetches.get());
+    }
+
     private void expand(Node node) {
         insertRows(mapper.expand(node, mapper.getIndexOf(node).orElse(null)));
     }
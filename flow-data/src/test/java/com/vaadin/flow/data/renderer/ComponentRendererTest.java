@@ -213,4 +213,46 @@ public class ComponentRendererTest {
                 updatedComponent);
     }
 
+    @Test
+    public void recyclingEnabled_destroyedComponentReboundToNewItem() {
+        AtomicInteger createInvocations = new AtomicInteger();
+        AtomicInteger updateInvocations = new AtomicInteger();
+        ComponentRenderer<TestLabel, String> renderer = new ComponentRenderer<>(
+                item -> {
+                    createInvocations.incrementAndGet();
+                    return new TestLabel();
+                }, (component, item) -> {
+                    updateInvocations.incrementAndGet();
+                    return component;
+                });
+        renderer.setRecycledComponentLimit(1);
+
+        KeyMapper<String> keyMapper = new KeyMapper<>();
+        ComponentDataGenerator<String> generator = new ComponentDataGenerator<>(
+                renderer, keyMapper::key);
+        Element container = new Element("div");
+        generator.setContainer(container);
+        generator.setNodeIdPropertyName("nodeId");
+
+        generator.generateData("first", Json.createObject());
+        generator.generateData("other", Json.createObject());
+        generator.destroyData("first");
+        generator.destroyData("other");
+
+        Assert.assertEquals("Only one component should be kept for reuse", 1,
+                container.getChildCount());
+        Element kept = container.getChild(0);
+
+        generator.generateData("second", Json.createObject());
+
+        Assert.assertEquals(2, createInvocations.get());
+        Assert.assertEquals(1, updateInvocations.get());
+        Assert.assertEquals(1, container.getChildCount());
+        Assert.assertSame("The destroyed component should be reused", kept,
+                container.getChild(0));
+
+        generator.destroyAllData();
+        Assert.assertEquals(0, container.getChildCount());
+    }
+
 }
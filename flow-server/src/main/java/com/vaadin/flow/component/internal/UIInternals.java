@@ -75,6 +75,7 @@ import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.server.WebBrowser;
 import com.vaadin.flow.server.communication.PushConnection;
+import com.vaadin.flow.server.communication.PushScheduler;
 import com.vaadin.flow.server.frontend.FallbackChunk;
 import com.vaadin.flow.server.frontend.FallbackChunk.CssImportData;
 import com.vaadin.flow.shared.Registration;
@@ -150,12 +151,20 @@ public class UIInternals implements Serializable {
      */
     private int lastProcessedClientToServerId = -1;
 
+    /**
+     * Messages from the client which have arrived before the messages sent
+     * before them, by client to server message id.
+     */
+    private final Map<Integer, String> pipelinedClientMessages = new HashMap<>();
+
     private int serverSyncId = 0;
 
     private final StateTree stateTree;
 
     private PushConnection pushConnection = null;
 
+    private PushScheduler pushScheduler = null;
+
     /**
      * Timestamp for keeping track of the last heartbeat of the related UI.
      * Updated to the current time whenever the application receives a heartbeat
@@ -273,6 +282,64 @@ public class UIInternals implements Serializable {
         this.lastProcessedMessageHash = lastProcessedMessageHash;
     }
 
+    /**
+     * Stores a message from the client which has arrived before all messages
+     * sent before it have been processed. The message is processed once the
+     * messages sent before it have been processed.
+     * <p>
+     * Used internally for communication tracking.
+     *
+     * @param clientToServerId
+     *            the client to server id of the message
+     * @param message
+     *            the message as received from the client
+     */
+    public void addPipelinedClientMessage(int clientToServerId,
+            String message) {
+        pipelinedClientMessages.put(clientToServerId, message);
+    }
+
+    /**
+     * Removes and returns a stored message from the client.
+     * <p>
+     * Used internally for communication tracking.
+     *
+     * @param clientToServerId
+     *            the client to server id of the message
+     * @return the message as received from the client, or <code>null</code>
+     *         if no message with the given id has been stored
+     * @see #addPipelinedClientMessage(int, String)
+     */
+    public String removePipelinedClientMessage(int clientToServerId) {
+        return pipelinedClientMessages.remove(clientToServerId);
+    }
+
+    /**
+     * Checks if a message from the client with the given id has been stored.
+     * <p>
+     * Used internally for communication tracking.
+     *
+     * @param clientToServerId
+     *            the client to server id of the message
+     * @return <code>true</code> if the message has been stored,
+     *         <code>false</code> otherwise
+     * @see #addPipelinedClientMessage(int, String)
+     */
+    public boolean hasPipelinedClientMessage(int clientToServerId) {
+        return pipelinedClientMessages.containsKey(clientToServerId);
+    }
+
+    /**
+     * Discards all stored messages from the client.
+     * <p>
+     * Used internally for communication tracking.
+     *
+     * @see #addPipelinedClientMessage(int, String)
+     */
+    public void clearPipelinedClientMessages() {
+        pipelinedClientMessages.clear();
+    }
+
     /**
      * Gets the server sync id.
      * <p>
@@ -451,6 +518,29 @@ public class UIInternals implements Serializable {
         this.pushConnection = pushConnection;
     }
 
+    /**
+     * Gets the scheduler used for automatic pushes of the related UI.
+     *
+     * @return the push scheduler, or {@code null} if changes are pushed
+     *         whenever the session is unlocked
+     */
+    public PushScheduler getPushScheduler() {
+        return pushScheduler;
+    }
+
+    /**
+     * Sets the scheduler used for automatic pushes of the related UI. The
+     * scheduler can limit the rate of pushes when the UI is updated
+     * frequently from background threads.
+     *
+     * @param pushScheduler
+     *            the push scheduler, or {@code null} to push changes whenever
+     *            the session is unlocked
+     */
+    public void setPushScheduler(PushScheduler pushScheduler) {
+        this.pushScheduler = pushScheduler;
+    }
+
     /**
      * Add a listener that will be informed when a new set of components are
      * going to be attached.
@@ -358,6 +358,128 @@ public interface DeploymentConfiguration extends Serializable {
         return getBooleanProperty(Constants.SERVLET_PARAMETER_BROTLI, false);
     }
 
+    /**
+     * Checks whether UIDL responses should be streamed directly to the
+     * response instead of building the complete response JSON in memory
+     * first.
+     *
+     * @return <code>true</code> to stream UIDL responses, <code>false</code>
+     *         to build them in memory before writing
+     */
+    default boolean isStreamingUidl() {
+        return getBooleanProperty(Constants.SERVLET_PARAMETER_STREAMING_UIDL,
+                false);
+    }
+
+    /**
+     * Checks whether state tree changes should be sent to the client using
+     * the compact positional array encoding.
+     *
+     * @return <code>true</code> to use compact change encoding,
+     *         <code>false</code> to encode changes as JSON objects
+     */
+    default boolean isCompactChanges() {
+        return getBooleanProperty(Constants.SERVLET_PARAMETER_COMPACT_CHANGES,
+                false);
+    }
+
+    /**
+     * Checks whether bootstrap pages should be built from cached templates,
+     * inserting only the parts which change for each request. Templates are
+     * only used in production mode.
+     *
+     * @return <code>true</code> to use cached bootstrap page templates,
+     *         <code>false</code> to build every bootstrap page from scratch
+     */
+    default boolean isBootstrapTemplateCache() {
+        return getBooleanProperty(
+                Constants.SERVLET_PARAMETER_BOOTSTRAP_TEMPLATE_CACHE, false);
+    }
+
+    /**
+     * Gets the maximum total size of static resources kept in memory by the
+     * static file server. Resources are only cached in production mode.
+     *
+     * @return the cache size in bytes, <code>0</code> if static resources
+     *         should not be cached
+     * @throws IllegalArgumentException
+     *             if the property value is not a non-negative number
+     */
+    default long getStaticResourceCacheSize() {
+        String size = getStringProperty(
+                Constants.SERVLET_PARAMETER_STATIC_RESOURCE_CACHE_SIZE, null);
+        if (size == null || size.isEmpty()) {
+            return 0L;
+        }
+        try {
+            long parsedSize = Long.parseLong(size.trim());
+            if (parsedSize >= 0L) {
+                return parsedSize;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException(String.format(
+                "Property named '%s' should be a non-negative number of bytes, but contains incorrect value '%s'",
+                Constants.SERVLET_PARAMETER_STATIC_RESOURCE_CACHE_SIZE, size));
+    }
+
+    /**
+     * Checks whether requests which do not need exclusive access to the
+     * session, such as heartbeats, should be handled without waiting for the
+     * session lock when another request is holding it.
+     *
+     * @return <code>true</code> to handle such requests without waiting for
+     *         the session lock, <code>false</code> to always lock the session
+     */
+    default boolean isNonExclusiveSessionAccess() {
+        return getBooleanProperty(
+                Constants.SERVLET_PARAMETER_NON_EXCLUSIVE_SESSION_ACCESS,
+                false);
+    }
+
+    /**
+     * Checks whether the time spent in the phases of handling UIDL requests
+     * should be reported in a <code>Server-Timing</code> response header.
+     *
+     * @return <code>true</code> to add the <code>Server-Timing</code> header,
+     *         <code>false</code> otherwise
+     */
+    default boolean isServerTiming() {
+        return getBooleanProperty(Constants.SERVLET_PARAMETER_SERVER_TIMING,
+                false);
+    }
+
+    /**
+     * Gets the maximum number of UIDL requests the client may have in progress
+     * at the same time. With more than one request, the client does not wait
+     * for the response to the previous request before sending the next one
+     * and the server processes the requests in the order they were sent.
+     *
+     * @return the maximum number of requests in progress, <code>1</code> if
+     *         requests should not be pipelined
+     * @throws IllegalArgumentException
+     *             if the property value is not a positive number
+     */
+    default int getMaxPipelinedRequests() {
+        String max = getStringProperty(
+                Constants.SERVLET_PARAMETER_MAX_PIPELINED_REQUESTS, null);
+        if (max == null || max.isEmpty()) {
+            return 1;
+        }
+        try {
+            int parsedMax = Integer.parseInt(max.trim());
+            if (parsedMax > 0) {
+                return parsedMax;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException(String.format(
+                "Property named '%s' should be a positive number, but contains incorrect value '%s'",
+                Constants.SERVLET_PARAMETER_MAX_PIPELINED_REQUESTS, max));
+    }
+
     default String getCompiledWebComponentsPath() {
         return getStringProperty(Constants.COMPILED_WEB_COMPONENTS_PATH,
                 "vaadin-web-components");
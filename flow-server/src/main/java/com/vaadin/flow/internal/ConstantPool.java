@@ -15,8 +15,14 @@
  */
 package com.vaadin.flow.internal;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import elemental.json.Json;
@@ -25,15 +31,21 @@ import elemental.json.JsonObject;
 /**
  * Keeps track of {@link ConstantPoolKey} values that have already been sent to
  * the client.
+ * <p>
+ * Constants which are registered in the application wide constant registry
+ * are tracked by their registry index in a bit set. Other constants are
+ * tracked by id.
  *
  * @author Vaadin Ltd
  * @since 1.0
  */
 public class ConstantPool implements Serializable {
 
-    private Set<String> knownValues = new HashSet<>();
+    private transient BitSet knownIndexes = new BitSet();
 
-    private Set<ConstantPoolKey> newKeys = new HashSet<>();
+    private transient Set<String> knownIds;
+
+    private List<ConstantPoolKey> newKeys = new ArrayList<>();
 
     /**
      * Gets the id of a given constant, registering the constant with this
@@ -49,11 +61,27 @@ public class ConstantPool implements Serializable {
         assert constant != null;
 
         String id = constant.getId();
+        int index = constant.getIndex();
 
-        if (knownValues.add(id)) {
-            newKeys.add(constant);
+        if (index >= 0) {
+            if (knownIndexes.get(index)) {
+                return id;
+            }
+            knownIndexes.set(index);
+            // Ids restored after deserialization are moved to the bit set
+            if (knownIds != null && knownIds.remove(id)) {
+                return id;
+            }
+        } else {
+            if (knownIds == null) {
+                knownIds = new HashSet<>();
+            }
+            if (!knownIds.add(id)) {
+                return id;
+            }
         }
 
+        newKeys.add(constant);
         return id;
     }
 
@@ -83,4 +111,22 @@ public class ConstantPool implements Serializable {
         return json;
     }
 
+    private void writeObject(ObjectOutputStream stream) throws IOException {
+        stream.defaultWriteObject();
+        // Registry indexes are only valid within one JVM, so write ids instead
+        HashSet<String> ids = knownIds == null ? new HashSet<>()
+                : new HashSet<>(knownIds);
+        knownIndexes.stream()
+                .forEach(index -> ids.add(ConstantRegistry.getId(index)));
+        stream.writeObject(ids);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream stream)
+            throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+        knownIds = (Set<String>) stream.readObject();
+        knownIndexes = new BitSet();
+    }
+
 }
@@ -15,10 +15,11 @@
  */
 package com.vaadin.flow.internal;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.nio.ByteBuffer;
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
+
+import com.vaadin.flow.internal.ConstantRegistry.Constant;
 
 import elemental.json.JsonObject;
 import elemental.json.JsonValue;
@@ -36,8 +37,9 @@ import elemental.json.JsonValue;
  * @since 1.0
  */
 public class ConstantPoolKey implements Serializable {
-    private final JsonValue json;
+    private JsonValue json;
     private final String id;
+    private transient int index;
 
     /**
      * Creates a new constant pool key for the given JSON value. The value
@@ -49,9 +51,11 @@ public class ConstantPoolKey implements Serializable {
      */
     public ConstantPoolKey(JsonValue json) {
         assert json != null;
-        this.json = json;
 
-        id = calculateHash(json);
+        Constant constant = ConstantRegistry.get(json);
+        this.json = constant.getJson();
+        id = constant.getId();
+        index = constant.getIndex();
     }
 
     /**
@@ -63,6 +67,17 @@ public class ConstantPoolKey implements Serializable {
         return id;
     }
 
+    /**
+     * Gets the index of the referenced JSON constant in the application wide
+     * constant registry.
+     *
+     * @return the index of the constant, or <code>-1</code> if the constant is
+     *         not registered
+     */
+    int getIndex() {
+        return index;
+    }
+
     /**
      * Exports the this key into a JSON object to send to the client. This
      * method should be called only by the {@link ConstantPool} instance that
@@ -73,31 +88,16 @@ public class ConstantPoolKey implements Serializable {
      *            <code>null</code>
      */
     public void export(JsonObject clientConstantPoolUpdate) {
-        assert id.equals(calculateHash(json)) : "Json value has been changed";
-
         clientConstantPoolUpdate.put(id, json);
     }
 
-    /**
-     * Calculates the key of a JSON value by Base 64 encoding the first 64 bits
-     * of the SHA-256 digest of the JSON's string representation.
-     *
-     * @param json
-     *            the JSON to get a hash of, not <code>null</code>
-     * @return the key uniquely identifying the given JSON value
-     */
-    private static String calculateHash(JsonValue json) {
-        byte[] digest = MessageDigestUtil.sha256(json.toJson());
-
-        /*
-         * Only use first 64 bits to keep id string short (1 in 100 000 000
-         * collision risk with 500 000 items). 64 bits base64 -> 11 ASCII chars
-         */
-        ByteBuffer truncatedDigest = ByteBuffer.wrap(digest, 0, 8);
-
-        ByteBuffer base64Bytes = Base64.getEncoder().encode(truncatedDigest);
-
-        return StandardCharsets.US_ASCII.decode(base64Bytes).toString();
+    private void readObject(ObjectInputStream stream)
+            throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+        // The registry index is only valid within one JVM
+        Constant constant = ConstantRegistry.get(json);
+        json = constant.getJson();
+        index = constant.getIndex();
     }
 
 }
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.LoggerFactory;
+
+import elemental.json.JsonValue;
+
+/**
+ * Application wide registry of the JSON constants referenced by
+ * {@link ConstantPoolKey} instances.
+ * <p>
+ * Identical constants used by any number of UIs share a single JSON instance
+ * and id. The JSON instances are only weakly referenced, so a constant which
+ * is no longer used by any UI can be garbage collected.
+ * <p>
+ * Each constant id also gets a small sequential index which
+ * {@link ConstantPool} uses to track the constants already sent to a client
+ * in a bit set. An index is never reused for another id, since any constant
+ * pool might still have it marked as sent. Only the ids are kept for the
+ * assigned indexes. The index space is therefore shared by all constants ever
+ * seen during the lifetime of the JVM: after {@value #MAX_CONSTANTS} distinct
+ * constants, constants with new ids are tracked by id only in each constant
+ * pool, which is logged once as a warning.
+ * <p>
+ * The indexes are only meaningful within the running JVM and must never be
+ * serialized.
+ *
+ * @author Vaadin Ltd
+ * @since 2.2
+ */
+final class ConstantRegistry {
+
+    /**
+     * The maximum number of constant indexes during the lifetime of the JVM.
+     * This bounds both the memory used for the ids of the registry and the
+     * size of the bit set of each constant pool.
+     */
+    static final int MAX_CONSTANTS = 16384;
+
+    private static final Map<String, ConstantReference> constants = new ConcurrentHashMap<>();
+
+    private static final ReferenceQueue<JsonValue> collectedConstants = new ReferenceQueue<>();
+
+    private static final Map<String, Integer> indexes = new ConcurrentHashMap<>();
+
+    // Guarded by the class lock
+    private static final List<String> ids = new ArrayList<>();
+
+    private static volatile boolean full;
+
+    /**
+     * A registered JSON constant.
+     */
+    static final class Constant {
+        private final int index;
+        private final String id;
+        private final JsonValue json;
+
+        private Constant(int index, String id, JsonValue json) {
+            this.index = index;
+            this.id = id;
+            this.json = json;
+        }
+
+        /**
+         * Gets the index of the constant.
+         *
+         * @return the index of the constant, or <code>-1</code> if no index
+         *         could be assigned to the constant
+         */
+        int getIndex() {
+            return index;
+        }
+
+        String getId() {
+            return id;
+        }
+
+        JsonValue getJson() {
+            return json;
+        }
+    }
+
+    /**
+     * Weak reference to the shared JSON instance of a constant.
+     */
+    private static final class ConstantReference
+            extends WeakReference<JsonValue> {
+        private final String jsonString;
+        private final int index;
+        private final String id;
+
+        private ConstantReference(String jsonString, int index, String id,
+                JsonValue json) {
+            super(json, collectedConstants);
+            this.jsonString = jsonString;
+            this.index = index;
+            this.id = id;
+        }
+    }
+
+    private ConstantRegistry() {
+        // Only static methods
+    }
+
+    /**
+     * Gets the constant for the given JSON value, registering it if it hasn't
+     * been encountered before or if it has been garbage collected.
+     *
+     * @param json
+     *            the JSON value, not <code>null</code>
+     * @return the constant, not <code>null</code>
+     */
+    static Constant get(JsonValue json) {
+        removeCollectedConstants();
+
+        String jsonString = json.toJson();
+        ConstantReference reference = constants.get(jsonString);
+        if (reference != null) {
+            JsonValue sharedJson = reference.get();
+            if (sharedJson != null) {
+                return new Constant(reference.index, reference.id,
+                        sharedJson);
+            }
+        }
+
+        String id = calculateHash(jsonString);
+        int index = getIndex(id);
+        // A concurrently registered equal instance may be replaced, which
+        // only means that the instances are not shared
+        constants.put(jsonString,
+                new ConstantReference(jsonString, index, id, json));
+        return new Constant(index, id, json);
+    }
+
+    /**
+     * Gets the id of the constant with the given index.
+     *
+     * @param index
+     *            the index of a registered constant
+     * @return the id of the constant, not <code>null</code>
+     */
+    static synchronized String getId(int index) {
+        return ids.get(index);
+    }
+
+    private static int getIndex(String id) {
+        Integer index = indexes.get(id);
+        if (index != null) {
+            return index.intValue();
+        }
+        if (full) {
+            return -1;
+        }
+        return assignIndex(id);
+    }
+
+    private static synchronized int assignIndex(String id) {
+        Integer index = indexes.get(id);
+        if (index != null) {
+            return index.intValue();
+        }
+        if (ids.size() >= MAX_CONSTANTS) {
+            full = true;
+            LoggerFactory.getLogger(ConstantRegistry.class).warn(
+                    "All {} constant indexes have been assigned. New constants "
+                            + "are tracked by id in each constant pool.",
+                    MAX_CONSTANTS);
+            return -1;
+        }
+        int newIndex = ids.size();
+        ids.add(id);
+        indexes.put(id, Integer.valueOf(newIndex));
+        return newIndex;
+    }
+
+    private static void removeCollectedConstants() {
+        ConstantReference reference;
+        while ((reference = (ConstantReference) collectedConstants
+                .poll()) != null) {
+            // Don't remove a newer instance registered for the same JSON
+            constants.remove(reference.jsonString, reference);
+        }
+    }
+
+    /**
+     * Calculates the id of a JSON value by Base 64 encoding a 64 bit FNV-1a
+     * hash of the JSON's string representation. A non-cryptographic hash is
+     * enough since the id only needs to tell different constants apart, and
+     * it is considerably cheaper to compute than a digest.
+     *
+     * @param jsonString
+     *            the JSON string to get a hash of, not <code>null</code>
+     * @return the key identifying the given JSON value
+     */
+    private static String calculateHash(String jsonString) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < jsonString.length(); i++) {
+            hash ^= jsonString.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        // 64 bits base64 -> 11 ASCII chars
+        ByteBuffer hashBytes = ByteBuffer.allocate(Long.BYTES).putLong(0, hash);
+        ByteBuffer base64Bytes = Base64.getEncoder().withoutPadding()
+                .encode(hashBytes);
+
+        return StandardCharsets.US_ASCII.decode(base64Bytes).toString();
+    }
+}
@@ -180,6 +180,57 @@ public class ResponseWriter implements Serializable {
         }
     }
 
+    /**
+     * Writes the given in-memory contents and content type (if available) to
+     * the response. A compressed variant of the contents is written instead if
+     * one is given and the browser accepts it.
+     *
+     * @param filenameWithPath
+     *            the name of the file being sent
+     * @param contents
+     *            the uncompressed contents, not <code>null</code>
+     * @param gzipContents
+     *            the gzip compressed contents, or <code>null</code> if not
+     *            available
+     * @param brotliContents
+     *            the Brotli compressed contents, or <code>null</code> if not
+     *            available
+     * @param request
+     *            the request object to read from
+     * @param response
+     *            the response object to write to
+     * @throws IOException
+     *             if the servlet container threw an exception while opening
+     *             the response stream
+     */
+    public void writeResponseContents(String filenameWithPath, byte[] contents,
+            byte[] gzipContents, byte[] brotliContents,
+            HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        writeContentType(filenameWithPath, request, response);
+
+        byte[] data = contents;
+        if (brotliEnabled && brotliContents != null
+                && acceptsBrotliResource(request)) {
+            data = brotliContents;
+            response.setHeader("Content-Encoding", "br");
+        } else if (gzipContents != null && acceptsGzippedResource(request)) {
+            data = gzipContents;
+            response.setHeader("Content-Encoding", "gzip");
+        }
+        if (gzipContents != null || brotliContents != null) {
+            response.setHeader("Vary", "Accept-Encoding");
+        }
+        response.setContentLengthLong(data.length);
+
+        try {
+            // Single write of the whole array, no intermediate buffer
+            response.getOutputStream().write(data);
+        } catch (IOException e) {
+            getLogger().debug("Error writing static file to user", e);
+        }
+    }
+
     private URL getResource(HttpServletRequest request, String resource )
             throws MalformedURLException {
         URL url = request.getServletContext()
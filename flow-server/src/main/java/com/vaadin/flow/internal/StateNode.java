@@ -138,7 +138,17 @@ public class StateNode implements Serializable {
      */
     private Serializable features;
 
-    private Map<Class<? extends NodeFeature>, Serializable> changes;
+    /**
+     * Change trackers for the features of this node, indexed in the same way
+     * as the features, or <code>null</code> if there are no pending changes.
+     */
+    private Serializable[] changes;
+
+    /**
+     * The dirty generation of the owning tree during which this node was last
+     * marked as dirty, or 0 if it hasn't been marked in its current tree.
+     */
+    private int dirtyGeneration;
 
     private List<Command> attachListeners;
 
@@ -457,6 +467,20 @@ public class StateNode implements Serializable {
         return featureIndex.intValue();
     }
 
+    private int getChangeTrackerIndex(NodeFeature feature) {
+        Class<?> type = feature.getClass();
+        while (type != null) {
+            Integer featureIndex = featureSet.mappings.get(type);
+            if (featureIndex != null) {
+                return featureIndex.intValue();
+            }
+            // Subclass of a registered feature type, e.g. a proxy
+            type = type.getSuperclass();
+        }
+        throw new IllegalStateException(
+                "Node does not have the feature " + feature.getClass());
+    }
+
     /**
      * Gets the feature of the given type if it has been initialized. This
      * method throws {@link IllegalStateException} if this node isn't configured
@@ -605,18 +629,28 @@ public class StateNode implements Serializable {
 
     private void doCollectChanges(Consumer<NodeChange> collector,
             Stream<NodeFeature> features) {
-        features.filter(this::hasChangeTracker).forEach(feature -> {
-            feature.collectChanges(collector);
-            changes.remove(feature.getClass());
-        });
-        isInitialChanges = false;
-        if (changes != null && changes.isEmpty()) {
-            changes = null;
+        if (changes != null) {
+            features.forEach(feature -> {
+                int index = getChangeTrackerIndex(feature);
+                if (changes[index] != null) {
+                    feature.collectChanges(collector);
+                    changes[index] = null;
+                }
+            });
+            if (hasNoChangeTrackers()) {
+                changes = null;
+            }
         }
+        isInitialChanges = false;
     }
 
-    private boolean hasChangeTracker(NodeFeature nodeFeature) {
-        return changes != null && changes.containsKey(nodeFeature.getClass());
+    private boolean hasNoChangeTrackers() {
+        for (Serializable tracker : changes) {
+            if (tracker != null) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -688,6 +722,29 @@ public class StateNode implements Serializable {
                             + "removeFromTree");
         }
         owner = tree;
+        // A dirty generation from a previous tree is meaningless in this one
+        dirtyGeneration = 0;
+    }
+
+    /**
+     * Gets the dirty generation of the owning tree during which this node was
+     * last marked as dirty.
+     *
+     * @return the dirty generation, or 0 if not marked in the current tree
+     */
+    int getDirtyGeneration() {
+        return dirtyGeneration;
+    }
+
+    /**
+     * Sets the dirty generation of the owning tree during which this node was
+     * marked as dirty.
+     *
+     * @param dirtyGeneration
+     *            the dirty generation
+     */
+    void setDirtyGeneration(int dirtyGeneration) {
+        this.dirtyGeneration = dirtyGeneration;
     }
 
     private boolean handleOnAttach() {
@@ -815,11 +872,16 @@ public class StateNode implements Serializable {
     public <T extends Serializable> T getChangeTracker(NodeFeature feature,
             Supplier<T> factory) {
         if (changes == null) {
-            changes = new HashMap<>();
+            changes = new Serializable[featureSet.mappings.size()];
         }
 
-        return (T) changes.computeIfAbsent(feature.getClass(),
-                k -> factory.get());
+        int index = getChangeTrackerIndex(feature);
+        Serializable tracker = changes[index];
+        if (tracker == null) {
+            tracker = factory.get();
+            changes[index] = tracker;
+        }
+        return (T) tracker;
     }
 
     /**
@@ -17,6 +17,7 @@
 package com.vaadin.flow.internal;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -131,7 +132,18 @@ public class StateTree implements NodeOwner {
         void remove();
     }
 
-    private Set<StateNode> dirtyNodes = new LinkedHashSet<>();
+    /**
+     * Nodes marked as dirty, in the order they were marked. A node is only
+     * added once per collection round since each node remembers the dirty
+     * generation it was last added for.
+     */
+    private ArrayList<StateNode> dirtyNodes = new ArrayList<>();
+
+    /**
+     * The current dirty generation. Incremented whenever the dirty nodes are
+     * collected. Zero is reserved for nodes that have not been marked.
+     */
+    private int dirtyGeneration = 1;
 
     private final Map<Integer, StateNode> idToNode = new HashMap<>();
 
@@ -257,15 +269,30 @@ public class StateTree implements NodeOwner {
      *            a consumer accepting node changes
      */
     public void collectChanges(Consumer<NodeChange> collector) {
-        Set<StateNode> allDirtyNodes = new LinkedHashSet<>();
-        boolean evaluateNewDirtyNodes = true;
+        List<StateNode> allDirtyNodes = takeDirtyNodes();
+        allDirtyNodes.forEach(StateNode::updateActiveState);
 
         // The updateActiveState method can create new dirty nodes, so they need
-        // to be collected as well
-        while (evaluateNewDirtyNodes) {
-            Set<StateNode> dirtyNodesSet = doCollectDirtyNodes(true);
-            dirtyNodesSet.forEach(StateNode::updateActiveState);
-            evaluateNewDirtyNodes = allDirtyNodes.addAll(dirtyNodesSet);
+        // to be collected as well. This is rare, so the set used for detecting
+        // already collected nodes is only created when needed.
+        Set<StateNode> collectedNodes = null;
+        while (hasDirtyNodes()) {
+            List<StateNode> newDirtyNodes = takeDirtyNodes();
+            newDirtyNodes.forEach(StateNode::updateActiveState);
+
+            if (collectedNodes == null) {
+                collectedNodes = new HashSet<>(allDirtyNodes);
+            }
+            boolean evaluateNewDirtyNodes = false;
+            for (StateNode node : newDirtyNodes) {
+                if (collectedNodes.add(node)) {
+                    allDirtyNodes.add(node);
+                    evaluateNewDirtyNodes = true;
+                }
+            }
+            if (!evaluateNewDirtyNodes) {
+                break;
+            }
         }
 
         // TODO fire preCollect events
@@ -278,7 +305,10 @@ public class StateTree implements NodeOwner {
         assert node.getOwner() == this;
         checkHasLock();
 
-        dirtyNodes.add(node);
+        if (node.getDirtyGeneration() != dirtyGeneration) {
+            node.setDirtyGeneration(dirtyGeneration);
+            dirtyNodes.add(node);
+        }
     }
 
     /**
@@ -287,7 +317,7 @@ public class StateTree implements NodeOwner {
      * @return a set of dirty nodes, in the order they were marked dirty
      */
     public Set<StateNode> collectDirtyNodes() {
-        return doCollectDirtyNodes(false);
+        return Collections.unmodifiableSet(new LinkedHashSet<>(dirtyNodes));
     }
 
     /**
@@ -410,20 +440,19 @@ public class StateTree implements NodeOwner {
     }
 
     /**
-     * Gets all the nodes that have been marked as dirty.
-     * <p>
-     * If {@code reset} is {@code true} then dirty nodes collection is reset.
+     * Gets all the nodes that have been marked as dirty and resets the dirty
+     * nodes collection by starting a new dirty generation.
      *
-     * @return a set of dirty nodes, in the order they were marked dirty
+     * @return a list of dirty nodes, in the order they were marked dirty
      */
-    private Set<StateNode> doCollectDirtyNodes(boolean reset) {
-        if (reset) {
-            Set<StateNode> collectedNodes = dirtyNodes;
-            dirtyNodes = new LinkedHashSet<>();
-            return collectedNodes;
-        } else {
-            return Collections.unmodifiableSet(dirtyNodes);
+    private List<StateNode> takeDirtyNodes() {
+        List<StateNode> collectedNodes = dirtyNodes;
+        dirtyNodes = new ArrayList<>();
+        dirtyGeneration++;
+        if (dirtyGeneration == 0) {
+            // Zero is reserved for nodes that have never been marked
+            dirtyGeneration = 1;
         }
-
+        return collectedNodes;
     }
 }
@@ -20,6 +20,8 @@ import com.vaadin.flow.internal.nodefeature.NodeFeature;
 import com.vaadin.flow.internal.nodefeature.NodeList;
 import com.vaadin.flow.shared.JsonConstants;
 
+import elemental.json.Json;
+import elemental.json.JsonArray;
 import elemental.json.JsonObject;
 
 /**
@@ -53,4 +55,13 @@ public class EmptyChange extends NodeFeatureChange {
         super.populateJson(json, constantPool);
     }
 
+    @Override
+    protected void populateCompactJson(JsonArray json,
+            ConstantPool constantPool) {
+        append(json, Json.create(JsonConstants.COMPACT_CHANGE_TYPE_NOOP));
+        super.populateCompactJson(json, constantPool);
+        append(json,
+                Json.create(NodeList.class.isAssignableFrom(getFeature())));
+    }
+
 }
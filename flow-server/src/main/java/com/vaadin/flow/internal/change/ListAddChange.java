@@ -127,4 +127,25 @@ public class ListAddChange<T extends Serializable>
         json.put(addKey, newItemsJson);
     }
 
+    @Override
+    protected void populateCompactJson(JsonArray json,
+            ConstantPool constantPool) {
+        int type = nodeValues ? JsonConstants.COMPACT_CHANGE_TYPE_SPLICE_NODES
+                : JsonConstants.COMPACT_CHANGE_TYPE_SPLICE;
+        append(json, Json.create(type));
+        super.populateCompactJson(json, constantPool);
+        append(json, Json.create(getIndex()));
+        // Nothing to remove
+        append(json, Json.create(0));
+
+        JsonArray newItemsJson = Json.createArray();
+        for (T item : newItems) {
+            append(newItemsJson,
+                    nodeValues ? Json.create(((StateNode) item).getId())
+                            : JsonCodec.encodeWithConstantPool(item,
+                                    constantPool));
+        }
+        append(json, newItemsJson);
+    }
+
 }
@@ -23,6 +23,7 @@ import com.vaadin.flow.internal.nodefeature.NodeFeature;
 import com.vaadin.flow.shared.JsonConstants;
 
 import elemental.json.Json;
+import elemental.json.JsonArray;
 import elemental.json.JsonObject;
 
 /**
@@ -91,4 +92,23 @@ public class MapPutChange extends NodeFeatureChange {
                     JsonCodec.encodeWithConstantPool(value, constantPool));
         }
     }
+
+    @Override
+    protected void populateCompactJson(JsonArray json,
+            ConstantPool constantPool) {
+        boolean nodeValue = value instanceof StateNode;
+        int type = nodeValue ? JsonConstants.COMPACT_CHANGE_TYPE_PUT_NODE
+                : JsonConstants.COMPACT_CHANGE_TYPE_PUT;
+        append(json, Json.create(type));
+
+        super.populateCompactJson(json, constantPool);
+
+        append(json, Json.create(key));
+        if (nodeValue) {
+            append(json, Json.create(((StateNode) value).getId()));
+        } else {
+            append(json,
+                    JsonCodec.encodeWithConstantPool(value, constantPool));
+        }
+    }
 }
@@ -23,7 +23,9 @@ import com.vaadin.flow.internal.StateNode;
 import com.vaadin.flow.shared.JsonConstants;
 
 import elemental.json.Json;
+import elemental.json.JsonArray;
 import elemental.json.JsonObject;
+import elemental.json.JsonValue;
 
 /**
  * Base class describing a change to a state node.
@@ -72,6 +74,27 @@ public abstract class NodeChange implements Serializable {
         return json;
     }
 
+    /**
+     * Serializes this change to a compact JSON array on the form
+     * <code>[node, type, ...]</code>, where the type is one of the
+     * <code>COMPACT_CHANGE_TYPE_</code> constants in {@link JsonConstants}.
+     *
+     * @param constantPool
+     *            the constant pool to use for serializing constant pool
+     *            references
+     *
+     * @return a compact json representation of this change
+     */
+    public JsonArray toCompactJson(ConstantPool constantPool) {
+        JsonArray json = Json.createArray();
+
+        json.set(0, node.getId());
+
+        populateCompactJson(json, constantPool);
+
+        return json;
+    }
+
     /**
      * Overridden by subclasses to populate a JSON object when serializing.
      *
@@ -83,4 +106,31 @@ public abstract class NodeChange implements Serializable {
      */
     protected abstract void populateJson(JsonObject json,
             ConstantPool constantPool);
+
+    /**
+     * Overridden by subclasses to populate a compact JSON array when
+     * serializing. The array already contains the node id and subclasses are
+     * expected to append the change type followed by the type specific
+     * values.
+     *
+     * @param json
+     *            the json array to populate
+     * @param constantPool
+     *            the constant pool to use for serializing constant pool
+     *            references
+     */
+    protected abstract void populateCompactJson(JsonArray json,
+            ConstantPool constantPool);
+
+    /**
+     * Appends a value to the end of a JSON array.
+     *
+     * @param json
+     *            the json array to append to
+     * @param value
+     *            the value to append
+     */
+    protected static void append(JsonArray json, JsonValue value) {
+        json.set(json.length(), value);
+    }
 }
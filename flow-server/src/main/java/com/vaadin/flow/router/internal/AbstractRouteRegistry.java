@@ -184,6 +184,19 @@ public abstract class AbstractRouteRegistry implements RouteRegistry {
         return configuredRoutes;
     }
 
+    /**
+     * Find the route matching the given location segments from the current
+     * configuration.
+     *
+     * @param segments
+     *            location path segments, not <code>null</code>
+     * @return {@link Optional} containing the match for the longest registered
+     *         path prefix if a route was found
+     */
+    public Optional<RouteSegmentTrie.Match> findRoute(List<String> segments) {
+        return getConfiguration().findRoute(segments);
+    }
+
     @Override
     public List<RouteData> getRegisteredRoutes() {
         return getRegisteredRoutes(getConfiguration());
@@ -41,6 +41,9 @@ public class ConfigureRoutes extends ConfiguredRoutes implements Serializable {
     private final Map<Class<? extends Component>, String> targetRouteMap;
     private final Map<Class<? extends Exception>, Class<? extends Component>> exceptionTargetMap;
 
+    // Built on demand and discarded when paths are added or removed
+    private RouteSegmentTrie editedRouteTrie;
+
     /**
      * Create an immutable RouteConfiguration.
      */
@@ -84,6 +87,23 @@ public class ConfigureRoutes extends ConfiguredRoutes implements Serializable {
         return routeMap;
     }
 
+    /**
+     * Override so that route lookups use the routes being edited.
+     * <p>
+     * The index is cached until a path is added or removed using the mutation
+     * methods of this class. Changes made directly to the map returned by
+     * {@link #getRoutesMap()} are not seen by route lookups.
+     *
+     * @return segment index of the editable routes
+     */
+    @Override
+    protected RouteSegmentTrie getRouteTrie() {
+        if (editedRouteTrie == null) {
+            editedRouteTrie = new RouteSegmentTrie(getRoutesMap());
+        }
+        return editedRouteTrie;
+    }
+
     /**
      * Override so that the getters use the correct target routes map for data.
      *
@@ -115,6 +135,7 @@ public class ConfigureRoutes extends ConfiguredRoutes implements Serializable {
     public void clear() {
         getRoutesMap().clear();
         getTargetRoutes().clear();
+        editedRouteTrie = null;
     }
 
     /**
@@ -134,6 +155,7 @@ public class ConfigureRoutes extends ConfiguredRoutes implements Serializable {
         } else {
             getRoutesMap().computeIfAbsent(path,
                     key -> new RouteTarget(navigationTarget, true));
+            editedRouteTrie = null;
         }
     }
 
@@ -194,6 +216,9 @@ public class ConfigureRoutes extends ConfiguredRoutes implements Serializable {
             }
         });
         emptyRoutes.forEach(getRoutesMap()::remove);
+        if (!emptyRoutes.isEmpty()) {
+            editedRouteTrie = null;
+        }
     }
 
     /**
@@ -213,6 +238,7 @@ public class ConfigureRoutes extends ConfiguredRoutes implements Serializable {
         }
 
         RouteTarget removedRoute = getRoutesMap().remove(path);
+        editedRouteTrie = null;
         for (Class<? extends Component> targetRoute : removedRoute
                 .getRoutes()) {
             updateMainRouteTarget(targetRoute);
@@ -245,6 +271,7 @@ public class ConfigureRoutes extends ConfiguredRoutes implements Serializable {
 
         if (routeTarget.isEmpty()) {
             getRoutesMap().remove(path);
+            editedRouteTrie = null;
         }
 
         if (getTargetRoutes().containsKey(targetRoute) && getTargetRoutes()
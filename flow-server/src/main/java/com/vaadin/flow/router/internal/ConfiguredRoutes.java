@@ -41,6 +41,7 @@ public class ConfiguredRoutes implements Serializable {
     private final Map<String, RouteTarget> routes;
     private final Map<Class<? extends Component>, String> targetRoutes;
     private final Map<Class<? extends Exception>, Class<? extends Component>> exceptionTargets;
+    private final RouteSegmentTrie routeTrie;
 
     /**
      * Create an immutable RouteConfiguration.
@@ -49,6 +50,7 @@ public class ConfiguredRoutes implements Serializable {
         routes = Collections.emptyMap();
         targetRoutes = Collections.emptyMap();
         exceptionTargets = Collections.emptyMap();
+        routeTrie = new RouteSegmentTrie(routes);
     }
 
     /**
@@ -79,6 +81,7 @@ public class ConfiguredRoutes implements Serializable {
         this.exceptionTargets = exceptionTargetMap.isEmpty() ?
                 Collections.emptyMap() :
                 Collections.unmodifiableMap(exceptionTargetMap);
+        this.routeTrie = new RouteSegmentTrie(this.routes);
     }
 
     protected Map<String, RouteTarget> getRoutesMap() {
@@ -134,6 +137,28 @@ public class ConfiguredRoutes implements Serializable {
         return false;
     }
 
+    /**
+     * Find the route matching the given location segments. The longest
+     * registered path prefix having a navigation target for the remaining
+     * segments is used.
+     *
+     * @param segments
+     *         location path segments
+     * @return {@link Optional} containing the match if a route was found
+     */
+    public Optional<RouteSegmentTrie.Match> findRoute(List<String> segments) {
+        return getRouteTrie().find(segments);
+    }
+
+    /**
+     * Get the segment index for the routes of this configuration.
+     *
+     * @return route segment trie
+     */
+    protected RouteSegmentTrie getRouteTrie() {
+        return routeTrie;
+    }
+
     /**
      * Check it the given route target has been registered to the configuration.
      *
@@ -15,11 +15,6 @@
  */
 package com.vaadin.flow.router.internal;
 
-import java.io.Serializable;
-import java.util.ArrayDeque;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.Deque;
 import java.util.List;
 import java.util.Optional;
 
@@ -45,26 +40,18 @@ public class DefaultRouteResolver implements RouteResolver {
     @Override
     public NavigationState resolve(ResolveRequest request) {
         RouteRegistry registry = request.getRouter().getRegistry();
-        PathDetails path = findPathString(registry,
+        Optional<RouteSegmentTrie.Match> match = findRoute(registry,
                 request.getLocation().getSegments());
-        if (path == null) {
+        if (!match.isPresent()) {
             return null;
         }
 
         NavigationStateBuilder builder = new NavigationStateBuilder(
                 request.getRouter());
-        Class<? extends Component> navigationTarget;
+        Class<? extends Component> navigationTarget = match.get().getTarget();
         try {
-            if (!path.segments.isEmpty()) {
-                navigationTarget = getNavigationTargetWithParameter(registry,
-                        path.path, path.segments);
-            } else {
-                navigationTarget = getNavigationTarget(registry, path.path);
-            }
-
             if (HasUrlParameter.class.isAssignableFrom(navigationTarget)) {
-                List<String> pathParameters = getPathParameters(
-                        request.getLocation().getPath(), path.path);
+                List<String> pathParameters = match.get().getUrlParameters();
                 if (!ParameterDeserializer.verifyParameters(navigationTarget,
                         pathParameters)) {
                     return null;
@@ -73,9 +60,10 @@ public class DefaultRouteResolver implements RouteResolver {
             } else {
                 builder.withTarget(navigationTarget);
             }
-            builder.withPath(path.path);
+            builder.withPath(match.get().getPath());
         } catch (NotFoundException nfe) {
-            String message = "Exception while navigation to path " + path;
+            String message = "Exception while navigation to path "
+                    + match.get().getPath();
             LoggerFactory.getLogger(this.getClass().getName()).warn(message,
                     nfe);
             throw nfe;
@@ -84,84 +72,11 @@ public class DefaultRouteResolver implements RouteResolver {
         return builder.build();
     }
 
-    private static class PathDetails implements Serializable {
-        private final String path;
-        private final List<String> segments;
-
-        /**
-         * Constructor for path with segment details.
-         *
-         * @param path
-         *            path
-         * @param segments
-         *            segments for path
-         */
-        public PathDetails(String path, List<String> segments) {
-            this.path = path;
-            this.segments = segments;
-        }
-    }
-
-    private PathDetails findPathString(RouteRegistry registry,
+    private Optional<RouteSegmentTrie.Match> findRoute(RouteRegistry registry,
             List<String> pathSegments) {
-        if (pathSegments.isEmpty()) {
-            return null;
-        }
-
-        Deque<PathDetails> paths = new ArrayDeque<>();
-        StringBuilder pathBuilder = new StringBuilder(pathSegments.get(0));
-        if (!"".equals(pathSegments.get(0))) {
-            paths.push(new PathDetails("", pathSegments));
-        }
-        for (int i = 0; i < pathSegments.size(); i++) {
-            if (i != 0) {
-                pathBuilder.append("/").append(pathSegments.get(i));
-            }
-            paths.push(new PathDetails(pathBuilder.toString(),
-                    pathSegments.subList(i + 1, pathSegments.size())));
-        }
-        while (!paths.isEmpty()) {
-            PathDetails pathDetails = paths.pop();
-            Optional<?> target = registry.getNavigationTarget(pathDetails.path,
-                    pathDetails.segments);
-            if (target.isPresent()) {
-                return pathDetails;
-            }
-        }
-        return null;
-    }
-
-    private Class<? extends Component> getNavigationTarget(
-            RouteRegistry registry, String path) throws NotFoundException {
-        return registry.getNavigationTarget(path)
-                .orElseThrow(() -> new NotFoundException(String.format(
-                        "No navigation target found for path '%s'.", path)));
-    }
-
-    private Class<? extends Component> getNavigationTargetWithParameter(
-            RouteRegistry registry, String path, List<String> segments)
-            throws NotFoundException {
-        return registry.getNavigationTarget(path, segments)
-                .orElseThrow(() -> new NotFoundException(String.format(
-                        "No navigation target found for path '%s'.", path)));
-    }
-
-    private List<String> getPathParameters(String completePath,
-            String routePath) {
-        assert completePath != null;
-        assert routePath != null;
-
-        String parameterPart = completePath.replaceFirst(routePath, "");
-        if (parameterPart.startsWith("/")) {
-            parameterPart = parameterPart.substring(1, parameterPart.length());
-        }
-        if (parameterPart.endsWith("/")) {
-            parameterPart = parameterPart.substring(0,
-                    parameterPart.length() - 1);
-        }
-        if (parameterPart.isEmpty()) {
-            return Collections.emptyList();
+        if (registry instanceof AbstractRouteRegistry) {
+            return ((AbstractRouteRegistry) registry).findRoute(pathSegments);
         }
-        return Arrays.asList(parameterPart.split("/"));
+        return RouteSegmentTrie.find(registry, pathSegments);
     }
 }
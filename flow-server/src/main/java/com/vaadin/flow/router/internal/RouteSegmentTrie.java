@@ -0,0 +1,230 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.router.internal;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.server.RouteRegistry;
+import com.vaadin.flow.server.startup.RouteTarget;
+
+/**
+ * Immutable index of registered routes keyed by path segment.
+ * <p>
+ * The trie resolves the route for a list of location segments in a single
+ * walk: the longest registered path prefix which has a navigation target
+ * accepting the remaining segments as parameters is the match. This is the
+ * same result as probing every path prefix from the longest to the shortest,
+ * without building any intermediate path strings.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @since 2.2
+ */
+public class RouteSegmentTrie implements Serializable {
+
+    private final Node root = new Node();
+
+    /**
+     * Creates a new trie for the given path to route target mapping.
+     *
+     * @param routes
+     *            the registered routes, not <code>null</code>
+     */
+    public RouteSegmentTrie(Map<String, RouteTarget> routes) {
+        for (Map.Entry<String, RouteTarget> route : routes.entrySet()) {
+            add(route.getKey(), route.getValue());
+        }
+    }
+
+    private void add(String path, RouteTarget routeTarget) {
+        Node node = root;
+        if (!path.isEmpty()) {
+            for (String segment : path.split("/", -1)) {
+                node = node.children.computeIfAbsent(segment,
+                        key -> new Node());
+            }
+        }
+        node.path = path;
+        node.routeTarget = routeTarget;
+    }
+
+    /**
+     * Finds the route matching the given location segments.
+     *
+     * @param segments
+     *            the location segments, not <code>null</code>
+     * @return the match for the longest registered path prefix, or an empty
+     *         optional if no route matches
+     */
+    public Optional<Match> find(List<String> segments) {
+        if (segments.isEmpty()) {
+            return Optional.empty();
+        }
+        Node[] nodes = new Node[segments.size() + 1];
+        nodes[0] = root;
+        int depth = 0;
+        Node next = root;
+        while (depth < segments.size()) {
+            next = next.children.get(segments.get(depth));
+            if (next == null) {
+                break;
+            }
+            nodes[++depth] = next;
+        }
+
+        // A leading empty segment is the root path itself
+        int start = 0;
+        if ("".equals(segments.get(0))) {
+            start = 1;
+            nodes[1] = root;
+            depth = Math.max(depth, 1);
+        }
+
+        for (int i = depth; i >= start; i--) {
+            RouteTarget routeTarget = nodes[i].routeTarget;
+            if (routeTarget == null) {
+                continue;
+            }
+            List<String> parameters = segments.subList(i, segments.size());
+            Class<? extends Component> target = routeTarget
+                    .getTarget(parameters);
+            if (target != null) {
+                return Optional.of(
+                        new Match(nodes[i].path, i, target, parameters));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Finds the route matching the given location segments by probing the
+     * registry with every path prefix from the longest to the shortest.
+     * <p>
+     * This is used for registries which do not have a segment index.
+     *
+     * @param registry
+     *            the registry to probe, not <code>null</code>
+     * @param segments
+     *            the location segments, not <code>null</code>
+     * @return the match for the longest registered path prefix, or an empty
+     *         optional if no route matches
+     */
+    public static Optional<Match> find(RouteRegistry registry,
+            List<String> segments) {
+        if (segments.isEmpty()) {
+            return Optional.empty();
+        }
+        int start = "".equals(segments.get(0)) ? 1 : 0;
+        for (int i = segments.size(); i >= start; i--) {
+            String path = i == 0 ? ""
+                    : String.join("/", segments.subList(0, i));
+            List<String> parameters = segments.subList(i, segments.size());
+            Optional<Class<? extends Component>> target = registry
+                    .getNavigationTarget(path, parameters);
+            if (target.isPresent()) {
+                return Optional
+                        .of(new Match(path, i, target.get(), parameters));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static class Node implements Serializable {
+        private final Map<String, Node> children = new HashMap<>(0);
+        private String path;
+        private RouteTarget routeTarget;
+    }
+
+    /**
+     * The result of resolving location segments against a
+     * {@link RouteSegmentTrie}.
+     */
+    public static class Match implements Serializable {
+        private final String path;
+        private final int depth;
+        private final Class<? extends Component> target;
+        private final List<String> segments;
+
+        private Match(String path, int depth, Class<? extends Component> target,
+                List<String> segments) {
+            this.path = path;
+            this.depth = depth;
+            this.target = target;
+            this.segments = segments;
+        }
+
+        /**
+         * Gets the registered path of the matched route.
+         *
+         * @return the route path, not <code>null</code>
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * Gets the number of location segments consumed by the route path.
+         *
+         * @return the number of consumed segments
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        /**
+         * Gets the matched navigation target.
+         *
+         * @return the navigation target, not <code>null</code>
+         */
+        public Class<? extends Component> getTarget() {
+            return target;
+        }
+
+        /**
+         * Gets the location segments following the route path.
+         *
+         * @return the remaining segments, empty if the route path consumed all
+         *         segments
+         */
+        public List<String> getSegments() {
+            return segments;
+        }
+
+        /**
+         * Gets the url parameters of the match, i.e. the remaining segments
+         * without trailing empty segments.
+         *
+         * @return the url parameters, not <code>null</code>
+         */
+        public List<String> getUrlParameters() {
+            int end = segments.size();
+            while (end > 0 && segments.get(end - 1).isEmpty()) {
+                end--;
+            }
+            if (end == 0) {
+                return Collections.emptyList();
+            }
+            return new ArrayList<>(segments.subList(0, end));
+        }
+    }
+}
@@ -26,15 +26,19 @@ import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.ServiceLoader;
+import java.util.UUID;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -46,6 +50,7 @@ import org.jsoup.nodes.DataNode;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.DocumentType;
 import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Entities;
 import org.jsoup.parser.Parser;
 import org.jsoup.parser.Tag;
 import org.jsoup.select.Elements;
@@ -60,6 +65,7 @@ import com.vaadin.flow.component.page.Push;
 import com.vaadin.flow.component.page.Viewport;
 import com.vaadin.flow.function.DeploymentConfiguration;
 import com.vaadin.flow.internal.AnnotationReader;
+import com.vaadin.flow.internal.MessageDigestUtil;
 import com.vaadin.flow.internal.ReflectTools;
 import com.vaadin.flow.internal.UsageStatistics;
 import com.vaadin.flow.internal.UsageStatistics.UsageEntry;
@@ -475,8 +481,7 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
         HandlerHelper.setResponseNoCacheHeaders(response::setHeader,
                 response::setDateHeader);
 
-        Document document = pageBuilder.getBootstrapPage(context);
-        writeBootstrapPage(response, document.outerHtml());
+        writeBootstrapPage(response, pageBuilder.getBootstrapHtml(context));
 
         return true;
     }
@@ -503,6 +508,20 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
          * @return A non-null {@link Document} with bootstrap page.
          */
         Document getBootstrapPage(BootstrapContext context);
+
+        /**
+         * Creates the HTML of the bootstrap page.
+         * <p>
+         * The default implementation serializes the document returned by
+         * {@link #getBootstrapPage(BootstrapContext)}.
+         *
+         * @param context
+         *            Context to build page for.
+         * @return The non-null HTML of the bootstrap page.
+         */
+        default String getBootstrapHtml(BootstrapContext context) {
+            return getBootstrapPage(context).outerHtml();
+        }
     }
 
     /**
@@ -513,6 +532,26 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
     protected static final class BootstrapPageBuilder
             implements PageBuilder, Serializable {
 
+        private static final String TITLE_PLACEHOLDER = "TITLE";
+        private static final String APP_ID_PLACEHOLDER = "APP_ID";
+        private static final String BOOTSTRAP_SCRIPT_PLACEHOLDER = "BOOTSTRAP_SCRIPT";
+
+        private static final int MAX_TEMPLATES = 64;
+
+        // Unique so that it cannot clash with any application content
+        private final String placeholderPrefix = "{{" + UUID.randomUUID()
+                + ":";
+
+        private final Map<String, BootstrapPageTemplate> templates = Collections
+                .synchronizedMap(new LinkedHashMap<String, BootstrapPageTemplate>(
+                        16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(
+                            Map.Entry<String, BootstrapPageTemplate> eldest) {
+                        return size() > MAX_TEMPLATES;
+                    }
+                });
+
         /**
          * Returns the bootstrap page for the given context.
          *
@@ -522,6 +561,113 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
          */
         @Override
         public Document getBootstrapPage(BootstrapContext context) {
+            // Resolving the title cancels the pending title update, so it
+            // needs to be done before the initial UIDL is created
+            Optional<String> title = resolvePageTitle(context);
+            JsonObject initialUIDL = getInitialUidl(context.getUI());
+            Map<LoadMode, JsonArray> dependenciesToProcessOnServer = popDependenciesToProcessOnServer(
+                    initialUIDL);
+            return buildBootstrapPage(context, initialUIDL,
+                    dependenciesToProcessOnServer, title, false);
+        }
+
+        /**
+         * Returns the HTML of the bootstrap page for the given context.
+         * <p>
+         * When the bootstrap template cache is enabled, the page is built
+         * once for each distinct combination of the parts which do not
+         * change between requests, and only the title, the application id
+         * and the bootstrap script with the initial UIDL are inserted for
+         * each request. The cache is bypassed if there are
+         * {@link BootstrapListener}s or {@link PageConfigurator}s which do
+         * not implement {@link CacheableBootstrapCustomization}.
+         *
+         * @param context
+         *            Context to generate bootstrap page for.
+         * @return The HTML of the bootstrap page.
+         */
+        @Override
+        public String getBootstrapHtml(BootstrapContext context) {
+            if (!isTemplateCacheable(context)) {
+                return getBootstrapPage(context).outerHtml();
+            }
+
+            Optional<String> title = resolvePageTitle(context)
+                    .filter(value -> !value.isEmpty());
+            JsonObject initialUIDL = getInitialUidl(context.getUI());
+            Map<LoadMode, JsonArray> dependenciesToProcessOnServer = popDependenciesToProcessOnServer(
+                    initialUIDL);
+
+            String key = getTemplateKey(context, dependenciesToProcessOnServer,
+                    title.isPresent());
+            BootstrapPageTemplate template = templates.get(key);
+            if (template == null) {
+                Document document = buildBootstrapPage(context, initialUIDL,
+                        dependenciesToProcessOnServer, title, true);
+                template = new BootstrapPageTemplate(document.outerHtml(),
+                        placeholderPrefix);
+                templates.put(key, template);
+            }
+
+            Map<String, String> values = new HashMap<>();
+            title.ifPresent(value -> values.put(TITLE_PLACEHOLDER,
+                    Entities.escape(value)));
+            values.put(APP_ID_PLACEHOLDER,
+                    Entities.escape(context.getUI().getInternals().getAppId())
+                            .replace("\"", "&quot;"));
+            values.put(BOOTSTRAP_SCRIPT_PLACEHOLDER,
+                    getBootstrapJS(initialUIDL, context));
+            return template.merge(values);
+        }
+
+        private String placeholder(String name) {
+            return placeholderPrefix + name + "}}";
+        }
+
+        private boolean isTemplateCacheable(BootstrapContext context) {
+            DeploymentConfiguration config = context.getSession()
+                    .getConfiguration();
+            if (!config.isProductionMode() || config.isCompatibilityMode()
+                    || !config.isBootstrapTemplateCache()) {
+                return false;
+            }
+            return context.getSession().getService()
+                    .hasOnlyCacheableBootstrapListeners()
+                    && context.getUI().getChildren()
+                            .filter(PageConfigurator.class::isInstance)
+                            .allMatch(
+                                    CacheableBootstrapCustomization.class::isInstance);
+        }
+
+        private String getTemplateKey(BootstrapContext context,
+                Map<LoadMode, JsonArray> dependenciesToProcessOnServer,
+                boolean hasTitle) {
+            UI ui = context.getUI();
+            StringBuilder key = new StringBuilder(ui.getClass().getName());
+            // Page configuration annotations are read from the route targets
+            ui.getInternals().getActiveRouterTargetsChain()
+                    .forEach(target -> key.append('\n')
+                            .append(target.getClass().getName()));
+            context.getTheme().ifPresent(theme -> key.append('\n')
+                    .append(theme.getTheme().getName()).append(':')
+                    .append(theme.getVariant()));
+            key.append('\n').append(ui.getLocale().getLanguage());
+            key.append('\n').append(getServiceUrl(context));
+            key.append('\n').append(context.getRequest().getService()
+                    .getContextRootRelativePath(context.getRequest()));
+            key.append('\n').append(context.getPushMode());
+            key.append('\n').append(hasTitle);
+            key.append('\n').append(needsSafari10ScriptNoModuleFix(context));
+            dependenciesToProcessOnServer.forEach((mode, dependencies) -> key
+                    .append('\n').append(mode).append(dependencies.toJson()));
+            return Base64.getEncoder().encodeToString(
+                    MessageDigestUtil.sha256(key.toString()));
+        }
+
+        private Document buildBootstrapPage(BootstrapContext context,
+                JsonObject initialUIDL,
+                Map<LoadMode, JsonArray> dependenciesToProcessOnServer,
+                Optional<String> title, boolean template) {
             DeploymentConfiguration config = context.getSession()
                     .getConfiguration();
 
@@ -535,7 +681,8 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
             html.appendElement("body");
 
             List<Element> dependenciesToInlineInBody = setupDocumentHead(head,
-                    context);
+                    context, initialUIDL, dependenciesToProcessOnServer, title,
+                    template);
             dependenciesToInlineInBody.forEach(
                     dependency -> document.body().appendChild(dependency));
             setupDocumentBody(document);
@@ -758,14 +905,15 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
         }
 
         private List<Element> setupDocumentHead(Element head,
-                BootstrapContext context) {
-            setupMetaAndTitle(head, context);
+                BootstrapContext context, JsonObject initialUIDL,
+                Map<LoadMode, JsonArray> dependenciesToProcessOnServer,
+                Optional<String> title, boolean template) {
+            setupMetaAndTitle(head, context,
+                    template ? title.map(value -> placeholder(TITLE_PLACEHOLDER))
+                            : title);
             setupCss(head, context);
 
-            JsonObject initialUIDL = getInitialUidl(context.getUI());
-            Map<LoadMode, JsonArray> dependenciesToProcessOnServer = popDependenciesToProcessOnServer(
-                    initialUIDL);
-            setupFrameworkLibraries(head, initialUIDL, context);
+            setupFrameworkLibraries(head, initialUIDL, context, template);
             return applyUserDependencies(head, context,
                     dependenciesToProcessOnServer);
         }
@@ -869,7 +1017,8 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
         }
 
         private void setupFrameworkLibraries(Element head,
-                JsonObject initialUIDL, BootstrapContext context) {
+                JsonObject initialUIDL, BootstrapContext context,
+                boolean template) {
 
             VaadinService service = context.getSession().getService();
             DeploymentConfiguration conf = service.getDeploymentConfiguration();
@@ -886,7 +1035,9 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
                 appendSafari10ScriptNoModuleFix(head, context);
 
                 try {
-                    appendNpmBundle(head, service, context);
+                    appendNpmBundle(head, service, context, template
+                            ? placeholder(APP_ID_PLACEHOLDER)
+                            : context.getUI().getInternals().getAppId());
                 } catch (IOException e) {
                     throw new BootstrapException(
                             "Unable to read webpack stats file.", e);
@@ -897,13 +1048,18 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
                 head.appendChild(getPushScript(context));
             }
 
-            head.appendChild(getBootstrapScript(initialUIDL, context));
+            if (template) {
+                head.appendChild(createInlineJavaScriptElement("//<![CDATA[\n"
+                        + placeholder(BOOTSTRAP_SCRIPT_PLACEHOLDER) + "//]]>"));
+            } else {
+                head.appendChild(getBootstrapScript(initialUIDL, context));
+            }
             head.appendChild(
                     createJavaScriptElement(getClientEngineUrl(context)));
         }
 
         private void appendNpmBundle(Element head, VaadinService service,
-                BootstrapContext context) throws IOException {
+                BootstrapContext context, String appId) throws IOException {
             String content = FrontendUtils.getStatsAssetsByChunkName(service);
             if (content == null) {
                 throw new IOException(
@@ -923,16 +1079,14 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
                 if (key.endsWith(".es5")) {
                     Element script = createJavaScriptElement(
                             "./" + VAADIN_MAPPING + chunkName);
-                    head.appendChild(
-                            script.attr("nomodule", true).attr("data-app-id",
-                                    context.getUI().getInternals().getAppId()));
+                    head.appendChild(script.attr("nomodule", true)
+                            .attr("data-app-id", appId));
                 } else {
                     Element script = createJavaScriptElement(
                             "./" + VAADIN_MAPPING + chunkName,
                             false);
                     head.appendChild(script.attr("type", "module")
-                            .attr("data-app-id",
-                                    context.getUI().getInternals().getAppId())
+                            .attr("data-app-id", appId)
                             // Fixes basic auth in Safari #6560
                             .attr("crossorigin", true));
                 }
@@ -986,16 +1140,19 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
 
         private void appendSafari10ScriptNoModuleFix(Element head,
                 BootstrapContext context) {
-            if (context.getSession().getBrowser().isSafari()
-                    && context.getSession().getBrowser()
-                            .getBrowserMajorVersion() == 10
-                    && context.getSession().getBrowser()
-                            .getBrowserMinorVersion() <= 1) {
+            if (needsSafari10ScriptNoModuleFix(context)) {
                 head.appendChild(createInlineJavaScriptElement(
                         SAFARI_10_1_SCRIPT_NOMODULE_FIX));
             }
         }
 
+        private boolean needsSafari10ScriptNoModuleFix(
+                BootstrapContext context) {
+            WebBrowser browser = context.getSession().getBrowser();
+            return browser.isSafari() && browser.getBrowserMajorVersion() == 10
+                    && browser.getBrowserMinorVersion() <= 1;
+        }
+
         private void setupCss(Element head, BootstrapContext context) {
             Element styles = head.appendElement("style").attr("type",
                     CSS_TYPE_ATTRIBUTE_VALUE);
@@ -1024,7 +1181,8 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
                     + "}"); // @formatter:on
         }
 
-        private void setupMetaAndTitle(Element head, BootstrapContext context) {
+        private void setupMetaAndTitle(Element head, BootstrapContext context,
+                Optional<String> title) {
             head.appendElement(META_TAG).attr("http-equiv", "Content-Type")
                     .attr(CONTENT_ATTRIBUTE,
                             ApplicationConstants.CONTENT_TYPE_TEXT_HTML_UTF_8);
@@ -1044,9 +1202,9 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
                             .attr("name", name)
                             .attr(CONTENT_ATTRIBUTE, content));
 
-            resolvePageTitle(context).ifPresent(title -> {
-                if (!title.isEmpty()) {
-                    head.appendElement("title").appendText(title);
+            title.ifPresent(value -> {
+                if (!value.isEmpty()) {
+                    head.appendElement("title").appendText(value);
                 }
             });
         }
@@ -1320,6 +1478,41 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
         }
     }
 
+    /**
+     * Serialized bootstrap page split at the placeholders for the parts which
+     * change for each request.
+     */
+    private static final class BootstrapPageTemplate implements Serializable {
+        private final List<String> fragments = new ArrayList<>();
+        private final List<String> placeholders = new ArrayList<>();
+        private final int length;
+
+        private BootstrapPageTemplate(String html, String placeholderPrefix) {
+            int start = 0;
+            int index = html.indexOf(placeholderPrefix);
+            while (index >= 0) {
+                int nameStart = index + placeholderPrefix.length();
+                int nameEnd = html.indexOf("}}", nameStart);
+                fragments.add(html.substring(start, index));
+                placeholders.add(html.substring(nameStart, nameEnd));
+                start = nameEnd + 2;
+                index = html.indexOf(placeholderPrefix, start);
+            }
+            fragments.add(html.substring(start));
+            length = html.length();
+        }
+
+        private String merge(Map<String, String> values) {
+            StringBuilder builder = new StringBuilder(length);
+            for (int i = 0; i < placeholders.size(); i++) {
+                builder.append(fragments.get(i))
+                        .append(values.get(placeholders.get(i)));
+            }
+            return builder.append(fragments.get(placeholders.size()))
+                    .toString();
+        }
+    }
+
     private static final class ApplicationParameterBuilder {
         private final Function<VaadinRequest, String> contextCallback;
 
@@ -1398,6 +1591,12 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
                 appConfig.put("requestTiming", true);
             }
 
+            int maxPipelinedRequests = deploymentConfiguration
+                    .getMaxPipelinedRequests();
+            if (maxPipelinedRequests > 1) {
+                appConfig.put("maxPipelinedRequests", maxPipelinedRequests);
+            }
+
             appConfig.put("heartbeatInterval",
                     deploymentConfiguration.getHeartbeatInterval());
 
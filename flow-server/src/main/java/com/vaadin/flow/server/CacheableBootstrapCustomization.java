@@ -0,0 +1,41 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+
+/**
+ * Marks a {@link BootstrapListener} or a {@link PageConfigurator} whose
+ * customizations can be applied once to a cached bootstrap page template
+ * instead of to every bootstrap page.
+ * <p>
+ * When {@link Constants#SERVLET_PARAMETER_BOOTSTRAP_TEMPLATE_CACHE} is
+ * enabled, a template is built for each UI class, navigation target chain,
+ * theme, locale language and relevant browser capability. Implementations
+ * must only make changes to the document which depend on these, since the
+ * changes are reused for all later requests which get the same template. HTTP
+ * headers set by a listener are only applied to the response which caused the
+ * template to be built.
+ * <p>
+ * The template cache is bypassed for a request if any registered listener or
+ * the page configurator of the navigation target does not implement this
+ * interface.
+ *
+ * @author Vaadin Ltd
+ * @since 2.2
+ */
+public interface CacheableBootstrapCustomization extends Serializable {
+}
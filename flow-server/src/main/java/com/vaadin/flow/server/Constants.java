@@ -81,6 +81,55 @@ public final class Constants implements Serializable {
      */
     public static final String SERVLET_PARAMETER_BROTLI = "brotli";
 
+    /**
+     * Configuration name for the parameter that determines whether bootstrap
+     * pages should be built from cached templates in production mode.
+     */
+    public static final String SERVLET_PARAMETER_BOOTSTRAP_TEMPLATE_CACHE = "bootstrapTemplateCache";
+
+    /**
+     * Configuration name for the parameter that sets the maximum total size in
+     * bytes of static resources kept in memory by the static file server in
+     * production mode. The cache is disabled when the value is zero.
+     */
+    public static final String SERVLET_PARAMETER_STATIC_RESOURCE_CACHE_SIZE = "staticResourceCacheSize";
+
+    /**
+     * Configuration name for the parameter that determines whether requests
+     * which do not need exclusive access to the session, such as heartbeats,
+     * are handled without waiting for the session lock held by another
+     * request.
+     */
+    public static final String SERVLET_PARAMETER_NON_EXCLUSIVE_SESSION_ACCESS = "nonExclusiveSessionAccess";
+
+    /**
+     * Configuration name for the parameter that determines whether the time
+     * spent in the phases of handling UIDL requests should be reported to the
+     * browser in a <code>Server-Timing</code> response header.
+     */
+    public static final String SERVLET_PARAMETER_SERVER_TIMING = "serverTiming";
+
+    /**
+     * Configuration name for the parameter that sets how many UIDL requests the
+     * client may have in progress at the same time. Requests are only
+     * pipelined when the value is greater than one.
+     */
+    public static final String SERVLET_PARAMETER_MAX_PIPELINED_REQUESTS = "maxPipelinedRequests";
+
+    /**
+     * Configuration name for the parameter that determines whether UIDL
+     * responses should be written directly to the response stream instead of
+     * first building the complete response JSON in memory.
+     */
+    public static final String SERVLET_PARAMETER_STREAMING_UIDL = "streamingUidl";
+
+    /**
+     * Configuration name for the parameter that determines whether state tree
+     * changes should be sent to the client using the compact positional array
+     * encoding instead of JSON objects with named properties.
+     */
+    public static final String SERVLET_PARAMETER_COMPACT_CHANGES = "compactChanges";
+
     /**
      * Configuration name for loading the ES5 adapters.
      */
@@ -97,6 +97,7 @@ public class DefaultDeploymentConfiguration
     private boolean syncIdCheck;
     private boolean sendUrlsAsParameters;
     private boolean requestTiming;
+    private int maxPipelinedRequests;
 
     private static AtomicBoolean loggWarning = new AtomicBoolean(true);
 
@@ -127,6 +128,7 @@ public class DefaultDeploymentConfiguration
         checkPushURL();
         checkSyncIdCheck();
         checkSendUrlsAsParameters();
+        checkMaxPipelinedRequests();
     }
 
     /**
@@ -160,6 +162,16 @@ public class DefaultDeploymentConfiguration
         return requestTiming;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The default is <code>1</code>.
+     */
+    @Override
+    public int getMaxPipelinedRequests() {
+        return maxPipelinedRequests;
+    }
+
     /**
      * {@inheritDoc}
      * <p>
@@ -289,6 +301,14 @@ public class DefaultDeploymentConfiguration
                 Constants.SERVLET_PARAMETER_REQUEST_TIMING, !productionMode);
     }
 
+    /**
+     * Reads and validates the maximum number of pipelined requests once, as it
+     * is needed for every UIDL request.
+     */
+    private void checkMaxPipelinedRequests() {
+        maxPipelinedRequests = super.getMaxPipelinedRequests();
+    }
+
     /**
      * Log a warning if cross-site request forgery protection is disabled.
      */
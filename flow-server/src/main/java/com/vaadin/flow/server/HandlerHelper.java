@@ -35,6 +35,13 @@ public class HandlerHelper implements Serializable {
      */
     static final SystemMessages DEFAULT_SYSTEM_MESSAGES = new SystemMessages();
 
+    /**
+     * The request attribute marking requests which do not need exclusive
+     * access to the session.
+     */
+    static final String NON_EXCLUSIVE_REQUEST_ATTRIBUTE = HandlerHelper.class
+            .getName() + ".nonExclusiveRequest";
+
     /**
      * Framework internal enum for tracking the type of a request.
      */
@@ -89,6 +96,22 @@ public class HandlerHelper implements Serializable {
                 .getParameter(ApplicationConstants.REQUEST_TYPE_PARAMETER));
     }
 
+    /**
+     * Checks whether the given request may be handled without exclusive access
+     * to the session. Such requests do not wait for the session lock when it
+     * is held by another request.
+     *
+     * @param request
+     *            the request to check
+     * @return <code>true</code> if the request does not need exclusive access
+     *         to the session, <code>false</code> otherwise
+     * @see Constants#SERVLET_PARAMETER_NON_EXCLUSIVE_SESSION_ACCESS
+     */
+    public static boolean isNonExclusiveRequest(VaadinRequest request) {
+        return Boolean.TRUE.equals(
+                request.getAttribute(NON_EXCLUSIVE_REQUEST_ATTRIBUTE));
+    }
+
     /**
      * Helper to find the most most suitable Locale. These potential sources are
      * checked in order until a Locale is found:
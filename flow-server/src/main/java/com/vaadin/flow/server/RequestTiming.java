@@ -0,0 +1,148 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.vaadin.flow.internal.CurrentInstance;
+
+/**
+ * Collects the time spent in the different phases of handling a request.
+ * <p>
+ * A timing instance is available through {@link #getCurrent()} while a
+ * request is handled if {@link Constants#SERVLET_PARAMETER_SERVER_TIMING
+ * server timing} is enabled or there are
+ * {@link VaadinService#addRequestTimingListener(RequestTimingListener)
+ * request timing listeners}. The durations of phases which occur several
+ * times during the request, such as RPC invocations of the same type, are
+ * summed up.
+ *
+ * @author Vaadin Ltd
+ * @since 2.2
+ */
+public class RequestTiming implements Serializable {
+
+    /**
+     * Time spent waiting for the session lock.
+     */
+    public static final String LOCK_WAIT = "lock";
+
+    /**
+     * Time spent reading and parsing the RPC message from the client.
+     */
+    public static final String RPC_DECODE = "decode";
+
+    /**
+     * Prefix for the time spent in the RPC invocation handlers, followed by
+     * the RPC type.
+     */
+    public static final String RPC_INVOCATION_PREFIX = "rpc-";
+
+    /**
+     * Time spent running the tasks registered to be run before the client
+     * response.
+     */
+    public static final String BEFORE_CLIENT_RESPONSE = "beforeResponse";
+
+    /**
+     * Time spent collecting the state tree changes, excluding encoding them.
+     */
+    public static final String COLLECT_CHANGES = "collect";
+
+    /**
+     * Time spent encoding the response to JSON. Not recorded for streamed
+     * responses, since they are encoded while being written.
+     */
+    public static final String ENCODE = "encode";
+
+    /**
+     * Time spent writing the response, including encoding the state changes
+     * of a streamed response. Recorded after the <code>Server-Timing</code>
+     * header has been written, so it is only available to timing listeners.
+     */
+    public static final String WRITE = "write";
+
+    /**
+     * The total time spent handling the request.
+     */
+    public static final String TOTAL = "total";
+
+    private final Map<String, Long> durations = new LinkedHashMap<>();
+
+    /**
+     * Adds time spent in a phase of the request handling.
+     *
+     * @param phase
+     *            the name of the phase, not <code>null</code>
+     * @param nanos
+     *            the time spent in nanoseconds
+     */
+    public void add(String phase, long nanos) {
+        durations.merge(phase, nanos, Long::sum);
+    }
+
+    /**
+     * Adds the time spent in a phase of the request handling from the given
+     * start time until now.
+     *
+     * @param phase
+     *            the name of the phase, not <code>null</code>
+     * @param startNanos
+     *            the start time of the phase as given by
+     *            {@link System#nanoTime()}
+     */
+    public void addSince(String phase, long startNanos) {
+        add(phase, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Gets the time spent in each phase of the request handling, in the order
+     * the phases were first recorded.
+     *
+     * @return an unmodifiable map of durations in nanoseconds by phase name
+     */
+    public Map<String, Long> getDurations() {
+        return Collections.unmodifiableMap(durations);
+    }
+
+    /**
+     * Formats the recorded durations as the value of a
+     * <code>Server-Timing</code> HTTP header.
+     *
+     * @return the header value, empty if no durations have been recorded
+     */
+    public String toServerTimingHeader() {
+        return durations.entrySet().stream()
+                .map(entry -> String.format(Locale.ROOT, "%s;dur=%.3f",
+                        entry.getKey(), entry.getValue() / 1_000_000.0))
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Gets the timing of the request currently being handled.
+     *
+     * @return the current request timing, or <code>null</code> if request
+     *         timing is not enabled or there is no current request
+     */
+    public static RequestTiming getCurrent() {
+        return CurrentInstance.get(RequestTiming.class);
+    }
+}
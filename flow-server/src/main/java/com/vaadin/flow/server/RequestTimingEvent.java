@@ -0,0 +1,96 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.util.EventObject;
+
+/**
+ * Event fired to {@link RequestTimingListener} when a request has been
+ * handled.
+ *
+ * @author Vaadin Ltd
+ * @since 2.2
+ */
+public class RequestTimingEvent extends EventObject {
+
+    private final VaadinSession session;
+    private final transient VaadinRequest request;
+    private final RequestTiming timing;
+
+    /**
+     * Creates a new event.
+     *
+     * @param service
+     *            the Vaadin service from which the event originates
+     * @param session
+     *            the Vaadin session of the request, or <code>null</code> if
+     *            the request did not use a session
+     * @param request
+     *            the handled request
+     * @param timing
+     *            the timing of the request
+     */
+    public RequestTimingEvent(VaadinService service, VaadinSession session,
+            VaadinRequest request, RequestTiming timing) {
+        super(service);
+        this.session = session;
+        this.request = request;
+        this.timing = timing;
+    }
+
+    @Override
+    public VaadinService getSource() {
+        return (VaadinService) super.getSource();
+    }
+
+    /**
+     * Gets the Vaadin service from which this event originates.
+     *
+     * @return the Vaadin service instance
+     */
+    public VaadinService getService() {
+        return getSource();
+    }
+
+    /**
+     * Gets the Vaadin session of the request.
+     *
+     * @return the Vaadin session, or <code>null</code> if the request did not
+     *         use a session
+     */
+    public VaadinSession getSession() {
+        return session;
+    }
+
+    /**
+     * Gets the handled request.
+     *
+     * @return the request
+     */
+    public VaadinRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * Gets the timing of the request.
+     *
+     * @return the request timing
+     */
+    public RequestTiming getTiming() {
+        return timing;
+    }
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+
+/**
+ * Event listener that can be registered to a {@link VaadinService} to get the
+ * {@link RequestTiming} of each handled request, e.g. for reporting to a
+ * metrics backend.
+ *
+ * @see VaadinService#addRequestTimingListener(RequestTimingListener)
+ *
+ * @author Vaadin Ltd
+ * @since 2.2
+ */
+public interface RequestTimingListener extends Serializable {
+    /**
+     * Invoked after a request has been handled and the response has been
+     * written. The listener is invoked in the request thread, so it should
+     * not perform any slow operations.
+     *
+     * @param event
+     *            the request timing event
+     */
+    void requestTimed(RequestTimingEvent event);
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the time request handlers spend waiting for the session lock.
+ * <p>
+ * The statistics are collected for each request handler type over all the
+ * sessions of a {@link VaadinService}.
+ *
+ * @author Vaadin Ltd
+ * @since 2.2
+ * @see VaadinService#getSessionLockStatistics()
+ */
+public class SessionLockStatistics implements Serializable {
+
+    private final Map<String, LockWait> lockWaits = new ConcurrentHashMap<>();
+
+    /**
+     * Lock wait statistics for one request handler type.
+     */
+    public static class LockWait implements Serializable {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        // Not a LongAccumulator, since its function would be serialized too
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private void record(long waitNanos) {
+            count.increment();
+            totalNanos.add(waitNanos);
+            long max;
+            while (waitNanos > (max = maxNanos.get())
+                    && !maxNanos.compareAndSet(max, waitNanos)) {
+                // Retry with the new maximum
+            }
+        }
+
+        /**
+         * Gets the number of times the session has been locked.
+         *
+         * @return the number of times the session has been locked
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * Gets the total time spent waiting for the session lock.
+         *
+         * @return the total wait time in nanoseconds
+         */
+        public long getTotalWaitNanos() {
+            return totalNanos.sum();
+        }
+
+        /**
+         * Gets the longest time spent waiting for the session lock.
+         *
+         * @return the longest wait time in nanoseconds
+         */
+        public long getMaxWaitNanos() {
+            return maxNanos.get();
+        }
+    }
+
+    /**
+     * Records the time a request handler spent waiting for the session lock.
+     *
+     * @param handlerType
+     *            the type of the request handler, not <code>null</code>
+     * @param waitNanos
+     *            the wait time in nanoseconds
+     */
+    public void record(Class<?> handlerType, long waitNanos) {
+        lockWaits.computeIfAbsent(handlerType.getName(), name -> new LockWait())
+                .record(waitNanos);
+    }
+
+    /**
+     * Gets the lock wait statistics by request handler class name.
+     *
+     * @return an unmodifiable map of the lock wait statistics, not
+     *         <code>null</code>
+     */
+    public Map<String, LockWait> getLockWaits() {
+        return Collections.unmodifiableMap(lockWaits);
+    }
+
+    /**
+     * Locks the session, recording the time spent waiting for the lock for the
+     * given request handler type.
+     *
+     * @param session
+     *            the session to lock, not <code>null</code>
+     * @param handlerType
+     *            the type of the request handler locking the session, not
+     *            <code>null</code>
+     */
+    public static void lock(VaadinSession session, Class<?> handlerType) {
+        long start = System.nanoTime();
+        session.lock();
+        long waitNanos = System.nanoTime() - start;
+        VaadinService service = session.getService();
+        SessionLockStatistics statistics = service == null ? null
+                : service.getSessionLockStatistics();
+        if (statistics != null) {
+            statistics.record(handlerType, waitNanos);
+        }
+        RequestTiming timing = RequestTiming.getCurrent();
+        if (timing != null) {
+            timing.add(RequestTiming.LOCK_WAIT, waitNanos);
+        }
+    }
+}
@@ -31,6 +31,7 @@ import com.vaadin.flow.router.RoutesChangedEvent;
 import com.vaadin.flow.router.RoutesChangedListener;
 import com.vaadin.flow.router.internal.AbstractRouteRegistry;
 import com.vaadin.flow.router.internal.ConfiguredRoutes;
+import com.vaadin.flow.router.internal.RouteSegmentTrie;
 import com.vaadin.flow.shared.Registration;
 
 /**
@@ -167,6 +168,26 @@ public class SessionRouteRegistry extends AbstractRouteRegistry {
         return getParentRegistry().getNavigationTarget(pathString, segments);
     }
 
+    @Override
+    public Optional<RouteSegmentTrie.Match> findRoute(List<String> segments) {
+        Optional<RouteSegmentTrie.Match> match = super.findRoute(segments);
+        RouteRegistry parentRegistry = getParentRegistry();
+        Optional<RouteSegmentTrie.Match> parentMatch;
+        if (parentRegistry instanceof AbstractRouteRegistry) {
+            parentMatch = ((AbstractRouteRegistry) parentRegistry)
+                    .findRoute(segments);
+        } else {
+            parentMatch = RouteSegmentTrie.find(parentRegistry, segments);
+        }
+
+        // Session routes mask application routes on the same path
+        if (match.isPresent() && (!parentMatch.isPresent() || match.get()
+                .getDepth() >= parentMatch.get().getDepth())) {
+            return match;
+        }
+        return parentMatch;
+    }
+
     @Override
     public Optional<String> getTargetUrl(
             Class<? extends Component> navigationTarget) {
@@ -45,6 +45,9 @@ import static com.vaadin.flow.shared.ApplicationConstants.VAADIN_STATIC_FILES_PA
  * production mode site you should consider serving static resources directly
  * from the servlet (using a default servlet if such exists) or through a stand
  * alone static file server.
+ * <p>
+ * In production mode, resolved resources can be kept in memory by setting
+ * {@link Constants#SERVLET_PARAMETER_STATIC_RESOURCE_CACHE_SIZE}.
  *
  * @author Vaadin Ltd
  * @since 1.0
@@ -57,9 +60,15 @@ public class StaticFileServer implements StaticFileHandler {
     private static final Pattern PARENT_DIRECTORY_REGEX = Pattern
             .compile("(/|\\\\)\\.\\.(/|\\\\)", Pattern.CASE_INSENSITIVE);
 
+    private static final Pattern COMPRESSIBLE_MIME_TYPE_REGEX = Pattern
+            .compile("javascript|json|xml|svg");
+    private static final Pattern COMPRESSIBLE_FILE_REGEX = Pattern
+            .compile("\\.(js|mjs|css|html|json|svg|txt|map)$");
+
     private final ResponseWriter responseWriter;
     private final VaadinServletService servletService;
     private DeploymentConfiguration deploymentConfiguration;
+    private final StaticResourceCache resourceCache;
 
     /**
      * Constructs a file server.
@@ -71,6 +80,10 @@ public class StaticFileServer implements StaticFileHandler {
         this.servletService = servletService;
         deploymentConfiguration = servletService.getDeploymentConfiguration();
         responseWriter = new ResponseWriter(deploymentConfiguration);
+        long cacheSize = deploymentConfiguration.getStaticResourceCacheSize();
+        // Resources may change at any time in development mode
+        resourceCache = deploymentConfiguration.isProductionMode()
+                && cacheSize > 0 ? new StaticResourceCache(cacheSize) : null;
     }
 
     @Override
@@ -85,6 +98,10 @@ public class StaticFileServer implements StaticFileHandler {
             return false;
         }
 
+        if (resourceCache != null && resourceCache.contains(requestFilename)) {
+            return true;
+        }
+
         if (requestFilename.startsWith("/" + VAADIN_STATIC_FILES_PATH)
                 || requestFilename.startsWith("/" + VAADIN_BUILD_FILES_PATH)) {
             // The path is reserved for internal resources only
@@ -114,19 +131,33 @@ public class StaticFileServer implements StaticFileHandler {
             return true;
         }
 
-        URL resourceUrl = null;
-        if (isAllowedVAADINBuildUrl(filenameWithPath)) {
-            resourceUrl = servletService.getClassLoader()
-                    .getResource("META-INF" + filenameWithPath);
-        }
-        if (resourceUrl == null) {
-            resourceUrl = servletService.getStaticResource(filenameWithPath);
-        }
-        if (resourceUrl == null && shouldFixIncorrectWebjarPaths()
-                && isIncorrectWebjarPath(filenameWithPath)) {
-            // Flow issue #4601
-            resourceUrl = servletService.getStaticResource(
-                    fixIncorrectWebjarPath(filenameWithPath));
+        URL resourceUrl;
+        if (resourceCache != null) {
+            if (resourceCache.isNotFound(filenameWithPath)) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return true;
+            }
+            StaticResourceCache.CachedResource resource = resourceCache
+                    .get(filenameWithPath);
+            if (resource != null) {
+                writeCachedResource(filenameWithPath, resource, request,
+                        response);
+                return true;
+            }
+            resourceUrl = getResourceUrl(filenameWithPath);
+            if (resourceUrl == null) {
+                resourceCache.markNotFound(filenameWithPath);
+            } else if (!resourceCache.isTooLarge(filenameWithPath)) {
+                resource = loadCachedResource(filenameWithPath, resourceUrl,
+                        request);
+                if (resource != null) {
+                    writeCachedResource(filenameWithPath, resource, request,
+                            response);
+                    return true;
+                }
+            }
+        } else {
+            resourceUrl = getResourceUrl(filenameWithPath);
         }
 
         if (resourceUrl == null) {
@@ -153,6 +184,91 @@ public class StaticFileServer implements StaticFileHandler {
         return true;
     }
 
+    private URL getResourceUrl(String filenameWithPath) {
+        URL resourceUrl = null;
+        if (isAllowedVAADINBuildUrl(filenameWithPath)) {
+            resourceUrl = servletService.getClassLoader()
+                    .getResource("META-INF" + filenameWithPath);
+        }
+        if (resourceUrl == null) {
+            resourceUrl = servletService.getStaticResource(filenameWithPath);
+        }
+        if (resourceUrl == null && shouldFixIncorrectWebjarPaths()
+                && isIncorrectWebjarPath(filenameWithPath)) {
+            // Flow issue #4601
+            resourceUrl = servletService.getStaticResource(
+                    fixIncorrectWebjarPath(filenameWithPath));
+        }
+        return resourceUrl;
+    }
+
+    private StaticResourceCache.CachedResource loadCachedResource(
+            String filenameWithPath, URL resourceUrl,
+            HttpServletRequest request) {
+        try {
+            URL brotliUrl = deploymentConfiguration.isBrotli()
+                    ? getResourceUrl(filenameWithPath + ".br")
+                    : null;
+            return resourceCache.load(filenameWithPath, resourceUrl,
+                    getResourceUrl(filenameWithPath + ".gz"), brotliUrl,
+                    isCompressible(filenameWithPath, request));
+        } catch (IOException e) {
+            getLogger().debug("Failed to cache static resource {}",
+                    filenameWithPath, e);
+            return null;
+        }
+    }
+
+    private void writeCachedResource(String filenameWithPath,
+            StaticResourceCache.CachedResource resource,
+            HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        // Intentionally writing cache headers also for 304 responses
+        writeCacheHeaders(filenameWithPath, response);
+        response.setHeader("ETag", resource.getETag());
+        if (resource.getLastModified() >= 0L) {
+            response.setDateHeader("Last-Modified",
+                    resource.getLastModified());
+        }
+
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        boolean browserHasNewestVersion = ifNoneMatch != null
+                ? matchesETag(ifNoneMatch, resource.getETag())
+                : browserHasNewestVersion(request, resource.getLastModified());
+        if (browserHasNewestVersion) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        responseWriter.writeResponseContents(filenameWithPath,
+                resource.getContents(), resource.getGzipContents(),
+                resource.getBrotliContents(), request, response);
+    }
+
+    private static boolean matchesETag(String ifNoneMatch, String eTag) {
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            // Weak comparison is used for conditional GET requests
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if ("*".equals(tag) || eTag.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isCompressible(String filenameWithPath,
+            HttpServletRequest request) {
+        String mimeType = request.getServletContext()
+                .getMimeType(filenameWithPath);
+        if (mimeType != null) {
+            return mimeType.startsWith("text/")
+                    || COMPRESSIBLE_MIME_TYPE_REGEX.matcher(mimeType).find();
+        }
+        return COMPRESSIBLE_FILE_REGEX.matcher(filenameWithPath).find();
+    }
+
     // When referring to webjar resources from application stylesheets (loaded
     // using @StyleSheet) using relative paths, the paths will be different in
     // development mode and in production mode. The reason is that in production
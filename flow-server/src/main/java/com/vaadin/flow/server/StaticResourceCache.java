@@ -0,0 +1,302 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import com.vaadin.flow.internal.MessageDigestUtil;
+
+/**
+ * Bounded in-memory cache of static resources used by {@link StaticFileServer}
+ * in production mode.
+ * <p>
+ * Each cached resource holds the resource contents together with its gzip and
+ * Brotli variants, the last modification timestamp and a strong ETag, so that
+ * serving a cached resource does not need to locate or open the resource
+ * again. The least recently used resources are evicted when the total size
+ * would exceed the configured maximum.
+ * <p>
+ * Resources which were not found or are too large to be cached are also
+ * recorded, so that they are not looked up or read again for every request.
+ *
+ * @author Vaadin Ltd
+ * @since 2.2
+ */
+class StaticResourceCache implements Serializable {
+
+    /**
+     * Resources smaller than this are not worth compressing.
+     */
+    private static final int MIN_COMPRESSED_SIZE = 1024;
+
+    /**
+     * The maximum number of recorded resources which are not cached.
+     */
+    private static final int MAX_UNCACHED_ENTRIES = 1024;
+
+    private final long maxSize;
+    private final long maxResourceSize;
+
+    private final LinkedHashMap<String, CachedResource> resources = new LinkedHashMap<>(
+            16, 0.75f, true);
+    private long size;
+
+    /**
+     * Resources which are not cached, mapped to whether the resource exists.
+     */
+    private final LinkedHashMap<String, Boolean> uncached = new LinkedHashMap<String, Boolean>(
+            16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > MAX_UNCACHED_ENTRIES;
+        }
+    };
+
+    /**
+     * A static resource loaded into memory.
+     */
+    static class CachedResource implements Serializable {
+        private final byte[] contents;
+        private final byte[] gzipContents;
+        private final byte[] brotliContents;
+        private final long lastModified;
+        private final String eTag;
+
+        private CachedResource(byte[] contents, byte[] gzipContents,
+                byte[] brotliContents, long lastModified) {
+            this.contents = contents;
+            this.gzipContents = gzipContents;
+            this.brotliContents = brotliContents;
+            this.lastModified = lastModified;
+            eTag = '"' + Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(MessageDigestUtil.sha256(contents)) + '"';
+        }
+
+        byte[] getContents() {
+            return contents;
+        }
+
+        byte[] getGzipContents() {
+            return gzipContents;
+        }
+
+        byte[] getBrotliContents() {
+            return brotliContents;
+        }
+
+        long getLastModified() {
+            return lastModified;
+        }
+
+        String getETag() {
+            return eTag;
+        }
+
+        private long getSize() {
+            return contents.length + length(gzipContents)
+                    + length(brotliContents);
+        }
+
+        private static int length(byte[] data) {
+            return data == null ? 0 : data.length;
+        }
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize
+     *            the maximum total size of the cached resources in bytes
+     */
+    StaticResourceCache(long maxSize) {
+        this.maxSize = maxSize;
+        // A single resource may not push out most of the other resources
+        maxResourceSize = maxSize / 4;
+    }
+
+    /**
+     * Gets a cached resource.
+     *
+     * @param filenameWithPath
+     *            the name and path of the resource
+     * @return the cached resource, or <code>null</code> if not cached
+     */
+    synchronized CachedResource get(String filenameWithPath) {
+        return resources.get(filenameWithPath);
+    }
+
+    /**
+     * Checks whether a resource is cached.
+     *
+     * @param filenameWithPath
+     *            the name and path of the resource
+     * @return <code>true</code> if the resource is cached
+     */
+    synchronized boolean contains(String filenameWithPath) {
+        return resources.containsKey(filenameWithPath);
+    }
+
+    /**
+     * Checks whether a resource has been recorded as not found.
+     *
+     * @param filenameWithPath
+     *            the name and path of the resource
+     * @return <code>true</code> if the resource is known not to exist
+     * @see #markNotFound(String)
+     */
+    synchronized boolean isNotFound(String filenameWithPath) {
+        return Boolean.FALSE.equals(uncached.get(filenameWithPath));
+    }
+
+    /**
+     * Checks whether a resource has been recorded as too large to be cached.
+     *
+     * @param filenameWithPath
+     *            the name and path of the resource
+     * @return <code>true</code> if the resource is known to be too large
+     */
+    synchronized boolean isTooLarge(String filenameWithPath) {
+        return Boolean.TRUE.equals(uncached.get(filenameWithPath));
+    }
+
+    /**
+     * Records that a resource does not exist, so that it is not looked up
+     * again.
+     *
+     * @param filenameWithPath
+     *            the name and path of the resource
+     */
+    synchronized void markNotFound(String filenameWithPath) {
+        uncached.put(filenameWithPath, Boolean.FALSE);
+    }
+
+    /**
+     * Loads the resource from the given URLs and stores it in the cache.
+     *
+     * @param filenameWithPath
+     *            the name and path of the resource
+     * @param resourceUrl
+     *            the URL of the uncompressed resource, not <code>null</code>
+     * @param gzipUrl
+     *            the URL of a precompressed gzip variant, or <code>null</code>
+     * @param brotliUrl
+     *            the URL of a precompressed Brotli variant, or
+     *            <code>null</code>
+     * @param compress
+     *            whether a gzip variant should be created if no
+     *            precompressed one is available
+     * @return the cached resource, or <code>null</code> if the resource is
+     *         too large to be cached, in which case this is recorded for
+     *         {@link #isTooLarge(String)}
+     * @throws IOException
+     *             if reading the resource fails
+     */
+    CachedResource load(String filenameWithPath, URL resourceUrl, URL gzipUrl,
+            URL brotliUrl, boolean compress) throws IOException {
+        URLConnection connection = resourceUrl.openConnection();
+        long lastModified = connection.getLastModified();
+        // Remove milliseconds the same way as StaticFileServer does
+        lastModified = lastModified > 0L ? lastModified - lastModified % 1000
+                : -1L;
+        byte[] contents = read(connection);
+        if (contents == null) {
+            markTooLarge(filenameWithPath);
+            return null;
+        }
+
+        byte[] gzipContents = gzipUrl == null ? null
+                : read(gzipUrl.openConnection());
+        if (gzipContents == null && compress
+                && contents.length >= MIN_COMPRESSED_SIZE) {
+            gzipContents = gzip(contents);
+        }
+        byte[] brotliContents = brotliUrl == null ? null
+                : read(brotliUrl.openConnection());
+
+        CachedResource resource = new CachedResource(contents, gzipContents,
+                brotliContents, lastModified);
+        if (resource.getSize() > maxResourceSize) {
+            markTooLarge(filenameWithPath);
+            return null;
+        }
+        put(filenameWithPath, resource);
+        return resource;
+    }
+
+    private synchronized void markTooLarge(String filenameWithPath) {
+        uncached.put(filenameWithPath, Boolean.TRUE);
+    }
+
+    private synchronized void put(String filenameWithPath,
+            CachedResource resource) {
+        CachedResource previous = resources.put(filenameWithPath, resource);
+        if (previous != null) {
+            size -= previous.getSize();
+        }
+        size += resource.getSize();
+
+        Iterator<Map.Entry<String, CachedResource>> eldest = resources
+                .entrySet().iterator();
+        while (size > maxSize && eldest.hasNext()) {
+            CachedResource evicted = eldest.next().getValue();
+            if (evicted != resource) {
+                size -= evicted.getSize();
+                eldest.remove();
+            }
+        }
+    }
+
+    private byte[] read(URLConnection connection) throws IOException {
+        long length = connection.getContentLengthLong();
+        if (length > maxResourceSize) {
+            connection.getInputStream().close();
+            return null;
+        }
+        try (InputStream stream = connection.getInputStream()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(
+                    length > 0L ? (int) length : MIN_COMPRESSED_SIZE);
+            byte[] buffer = new byte[8 * 1024];
+            int bytes;
+            while ((bytes = stream.read(buffer)) >= 0) {
+                out.write(buffer, 0, bytes);
+                if (out.size() > maxResourceSize) {
+                    return null;
+                }
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static byte[] gzip(byte[] contents) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(
+                contents.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(contents);
+        }
+        // Only worth keeping if the compression actually helps
+        return out.size() < contents.length ? out.toByteArray() : null;
+    }
+}
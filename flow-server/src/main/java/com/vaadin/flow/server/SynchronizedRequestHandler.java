@@ -35,7 +35,11 @@ public abstract class SynchronizedRequestHandler implements RequestHandler {
             return false;
         }
 
-        session.lock();
+        if (!HandlerHelper.isNonExclusiveRequest(request)) {
+            SessionLockStatistics.lock(session, getClass());
+        } else if (!session.getLockInstance().tryLock()) {
+            return nonExclusiveHandleRequest(session, request, response);
+        }
         try {
             return synchronizedHandleRequest(session, request, response);
         } finally {
@@ -65,6 +69,61 @@ public abstract class SynchronizedRequestHandler implements RequestHandler {
     public abstract boolean synchronizedHandleRequest(VaadinSession session,
             VaadinRequest request, VaadinResponse response) throws IOException;
 
+    /**
+     * Handles a request without exclusive access to the session. This is
+     * called instead of
+     * {@link #synchronizedHandleRequest(VaadinSession, VaadinRequest, VaadinResponse)}
+     * for requests which
+     * {@link #isExclusiveSessionAccessRequired(VaadinRequest) do not require
+     * exclusive session access} when the session is locked by another request
+     * and {@link Constants#SERVLET_PARAMETER_NON_EXCLUSIVE_SESSION_ACCESS
+     * non-exclusive session access} is enabled.
+     * <p>
+     * Implementations may only use thread-safe parts of the session, such as
+     * {@link VaadinSession#access(Command)}. The default implementation waits
+     * for the session lock and handles the request with
+     * {@link #synchronizedHandleRequest(VaadinSession, VaadinRequest, VaadinResponse)}.
+     *
+     * @param session
+     *            The session for the request
+     * @param request
+     *            The request to handle
+     * @param response
+     *            The response object to which a response can be written.
+     * @return true if a response has been written and no further request
+     *         handlers should be called, otherwise false
+     *
+     * @throws IOException
+     *             If an IO error occurred
+     */
+    public boolean nonExclusiveHandleRequest(VaadinSession session,
+            VaadinRequest request, VaadinResponse response) throws IOException {
+        SessionLockStatistics.lock(session, getClass());
+        try {
+            return synchronizedHandleRequest(session, request, response);
+        } finally {
+            session.unlock();
+        }
+    }
+
+    /**
+     * Checks whether handling the given request needs exclusive access to the
+     * session. Requests which do not need it are handled with
+     * {@link #nonExclusiveHandleRequest(VaadinSession, VaadinRequest, VaadinResponse)}
+     * when the session is locked by another request, if
+     * {@link Constants#SERVLET_PARAMETER_NON_EXCLUSIVE_SESSION_ACCESS
+     * non-exclusive session access} is enabled. The default implementation
+     * returns <code>true</code>.
+     *
+     * @param request
+     *            the request to handle
+     * @return <code>true</code> if the request must be handled with the
+     *         session locked, <code>false</code> otherwise
+     */
+    protected boolean isExclusiveSessionAccessRequired(VaadinRequest request) {
+        return true;
+    }
+
     /**
      * Check whether a request may be handled by this handler. This can be used
      * as an optimization to avoid locking the session just to investigate some
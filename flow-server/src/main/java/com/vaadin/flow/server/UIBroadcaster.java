@@ -0,0 +1,234 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+
+/**
+ * Applies the same update to a large number of UIs, e.g. when a server-side
+ * event affects a dashboard shown in every UI.
+ * <p>
+ * The update of each UI is run with the session of the UI locked, in at most
+ * the given number of parallel tasks on the given executor, so a broadcast
+ * to thousands of UIs doesn't occupy all threads of the executor. Changes are
+ * pushed when the session is unlocked for UIs with automatic push.
+ * <p>
+ * The same payload instance is passed to the update of every UI, so values
+ * such as {@link elemental.json.JsonValue} instances can be computed once and
+ * set as property values of each UI without being encoded again for every UI.
+ * The payload must therefore not be modified by the update.
+ *
+ * @author Vaadin Ltd
+ * @since 2.2
+ */
+public class UIBroadcaster {
+
+    private final Executor executor;
+    private final int parallelism;
+
+    /**
+     * Statistics of a completed broadcast.
+     */
+    public static class BroadcastResult {
+        private final long[] sortedLatencies;
+        private final int failedCount;
+
+        private BroadcastResult(long[] sortedLatencies, int failedCount) {
+            this.sortedLatencies = sortedLatencies;
+            this.failedCount = failedCount;
+        }
+
+        /**
+         * Gets the number of UIs which were updated.
+         *
+         * @return the number of updated UIs
+         */
+        public int getUpdatedCount() {
+            return sortedLatencies.length;
+        }
+
+        /**
+         * Gets the number of UIs which could not be updated because they were
+         * detached or the update failed.
+         *
+         * @return the number of UIs not updated
+         */
+        public int getFailedCount() {
+            return failedCount;
+        }
+
+        /**
+         * Gets the latency of the given percentile of the updated UIs, from
+         * the start of the broadcast until the update had been applied and the
+         * session of the UI unlocked.
+         *
+         * @param percentile
+         *            the percentile, between <code>0</code> and
+         *            <code>100</code>
+         * @return the latency in nanoseconds, or <code>0</code> if no UI was
+         *         updated
+         */
+        public long getLatencyNanos(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException(
+                        "Percentile must be between 0 and 100: " + percentile);
+            }
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100
+                    * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)];
+        }
+
+        /**
+         * Gets the longest latency of the updated UIs.
+         *
+         * @return the longest latency in nanoseconds
+         * @see #getLatencyNanos(double)
+         */
+        public long getMaxLatencyNanos() {
+            return getLatencyNanos(100);
+        }
+    }
+
+    /**
+     * Creates a new broadcaster.
+     *
+     * @param executor
+     *            the executor to run the updates on, not <code>null</code>
+     * @param parallelism
+     *            the maximum number of UIs to update in parallel, at least
+     *            <code>1</code>
+     */
+    public UIBroadcaster(Executor executor, int parallelism) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(
+                    "Parallelism must be at least 1: " + parallelism);
+        }
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Runs the given update for each of the given UIs with the session of
+     * the UI locked.
+     *
+     * @param <P>
+     *            the payload type
+     * @param uis
+     *            the UIs to update, not <code>null</code>
+     * @param payload
+     *            the payload shared by all the updates
+     * @param update
+     *            the update to run for each UI, not <code>null</code>
+     * @return a future which is completed with the statistics of the
+     *         broadcast once all UIs have been updated, or completed
+     *         exceptionally with the first error thrown by an update, once
+     *         the remaining UIs have been updated
+     */
+    public <P> CompletableFuture<BroadcastResult> broadcast(
+            Collection<UI> uis, P payload, BiConsumer<UI, ? super P> update) {
+        long start = System.nanoTime();
+        List<UI> targets = new ArrayList<>(uis);
+        CompletableFuture<BroadcastResult> result = new CompletableFuture<>();
+        if (targets.isEmpty()) {
+            result.complete(new BroadcastResult(new long[0], 0));
+            return result;
+        }
+
+        // -1 for UIs which were not updated
+        AtomicLongArray latencies = new AtomicLongArray(targets.size());
+        AtomicInteger remaining = new AtomicInteger(targets.size());
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Queue<Integer> pending = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < targets.size(); i++) {
+            pending.add(Integer.valueOf(i));
+        }
+
+        Runnable worker = () -> {
+            Integer index;
+            while ((index = pending.poll()) != null) {
+                UI ui = targets.get(index.intValue());
+                long latency = -1;
+                try {
+                    ui.accessSynchronously(() -> update.accept(ui, payload));
+                    latency = System.nanoTime() - start;
+                } catch (UIDetachedException e) {
+                    // Nothing to update in a detached UI
+                } catch (RuntimeException e) {
+                    LoggerFactory.getLogger(UIBroadcaster.class)
+                            .error("Broadcast update failed for a UI", e);
+                } catch (Throwable e) {
+                    // Keep going so that the other UIs are still updated
+                    // even if this is the only worker
+                    error.compareAndSet(null, e);
+                } finally {
+                    latencies.set(index.intValue(), latency);
+                    if (remaining.decrementAndGet() == 0) {
+                        complete(result, latencies, error.get());
+                    }
+                }
+            }
+        };
+        for (int i = 0; i < Math.min(parallelism, targets.size()); i++) {
+            executor.execute(worker);
+        }
+        return result;
+    }
+
+    private static void complete(CompletableFuture<BroadcastResult> result,
+            AtomicLongArray latencies, Throwable error) {
+        if (error != null) {
+            result.completeExceptionally(error);
+        } else {
+            result.complete(createResult(latencies));
+        }
+    }
+
+    private static BroadcastResult createResult(AtomicLongArray latencies) {
+        long[] updated = new long[latencies.length()];
+        int count = 0;
+        for (int i = 0; i < latencies.length(); i++) {
+            long latency = latencies.get(i);
+            if (latency >= 0) {
+                updated[count++] = latency;
+            }
+        }
+        long[] sorted = Arrays.copyOf(updated, count);
+        Arrays.sort(sorted);
+        return new BroadcastResult(sorted, latencies.length() - count);
+    }
+}
@@ -167,6 +167,7 @@ public abstract class VaadinService implements Serializable {
     private final List<SessionInitListener> sessionInitListeners = new CopyOnWriteArrayList<>();
     private final List<UIInitListener> uiInitListeners = new CopyOnWriteArrayList<>();
     private final List<SessionDestroyListener> sessionDestroyListeners = new CopyOnWriteArrayList<>();
+    private final List<RequestTimingListener> requestTimingListeners = new CopyOnWriteArrayList<>();
 
     private SystemMessagesProvider systemMessagesProvider = DefaultSystemMessagesProvider
             .get();
@@ -199,6 +200,8 @@ public abstract class VaadinService implements Serializable {
 
     private DependencyTreeCache<String> htmlImportDependencyCache;
 
+    private final SessionLockStatistics sessionLockStatistics = new SessionLockStatistics();
+
     private Registration htmlImportDependencyCacheClearRegistration;
 
     private VaadinContext vaadinContext;
@@ -614,6 +617,22 @@ public abstract class VaadinService implements Serializable {
         return () -> sessionDestroyListeners.remove(listener);
     }
 
+    /**
+     * Adds a listener that gets notified of the {@link RequestTiming} of each
+     * request handled by this service. Request timing is collected for all
+     * requests while there are request timing listeners.
+     *
+     * @param listener
+     *            the request timing listener
+     * @return a handle that can be used for removing the listener
+     * @see RequestTimingListener
+     */
+    public Registration addRequestTimingListener(
+            RequestTimingListener listener) {
+        requestTimingListeners.add(listener);
+        return () -> requestTimingListeners.remove(listener);
+    }
+
     /**
      * Fires the
      * {@link BootstrapListener#modifyBootstrapPage(BootstrapPageResponse)}
@@ -630,6 +649,22 @@ public abstract class VaadinService implements Serializable {
                 .forEach(listener -> listener.modifyBootstrapPage(response));
     }
 
+    /**
+     * Checks whether all registered {@link BootstrapListener}s allow their
+     * modifications to be applied to a cached bootstrap page template.
+     *
+     * @return <code>true</code> if every listener implements
+     *         {@link CacheableBootstrapCustomization}
+     */
+    boolean hasOnlyCacheableBootstrapListeners() {
+        for (BootstrapListener listener : bootstrapListeners) {
+            if (!(listener instanceof CacheableBootstrapCustomization)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Handles destruction of the given session. Internally ensures proper
      * locking is done.
@@ -832,6 +867,14 @@ public abstract class VaadinService implements Serializable {
         WrappedSession wrappedSession = getWrappedSession(request,
                 requestCanCreateSession);
 
+        if (HandlerHelper.isNonExclusiveRequest(request)) {
+            VaadinSession session = findVaadinSessionWithoutLock(
+                    wrappedSession);
+            if (session != null) {
+                return session;
+            }
+        }
+
         try {
             lockSession(wrappedSession);
         } catch (IllegalStateException e) {
@@ -847,6 +890,32 @@ public abstract class VaadinService implements Serializable {
 
     }
 
+    /**
+     * Finds an existing Vaadin session without waiting for the session lock
+     * if the lock is held by another request, which has then already loaded
+     * the session.
+     *
+     * @param wrappedSession
+     *            the wrapped session of the request
+     * @return the existing Vaadin session, or <code>null</code> if the session
+     *         needs to be looked up with the session locked
+     * @throws SessionExpiredException
+     *             if the session has been invalidated
+     */
+    private VaadinSession findVaadinSessionWithoutLock(
+            WrappedSession wrappedSession) throws SessionExpiredException {
+        Lock lock = getSessionLock(wrappedSession);
+        if (!(lock instanceof ReentrantLock)
+                || !((ReentrantLock) lock).isLocked()) {
+            return null;
+        }
+        try {
+            return readFromHttpSession(wrappedSession);
+        } catch (IllegalStateException e) {
+            throw new SessionExpiredException();
+        }
+    }
+
     /**
      * Finds or creates a Vaadin session. Assumes necessary synchronization has
      * been done by the caller to ensure this is not called simultaneously by
@@ -1456,6 +1525,33 @@ public abstract class VaadinService implements Serializable {
         }
         setCurrentInstances(request, response);
         request.setAttribute(REQUEST_START_TIME_ATTRIBUTE, System.nanoTime());
+        if (!requestTimingListeners.isEmpty()
+                || getDeploymentConfiguration().isServerTiming()) {
+            CurrentInstance.set(RequestTiming.class, new RequestTiming());
+        }
+        if (getDeploymentConfiguration().isNonExclusiveSessionAccess()
+                && !isExclusiveSessionAccessRequired(request)) {
+            request.setAttribute(HandlerHelper.NON_EXCLUSIVE_REQUEST_ATTRIBUTE,
+                    Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Checks whether the request handler handling the given request needs
+     * exclusive access to the session. The first
+     * {@link SynchronizedRequestHandler} which can handle the request decides.
+     */
+    private boolean isExclusiveSessionAccessRequired(VaadinRequest request) {
+        for (RequestHandler handler : getRequestHandlers()) {
+            if (handler instanceof SynchronizedRequestHandler) {
+                SynchronizedRequestHandler synchronizedHandler = (SynchronizedRequestHandler) handler;
+                if (synchronizedHandler.canHandleRequest(request)) {
+                    return synchronizedHandler
+                            .isExclusiveSessionAccessRequired(request);
+                }
+            }
+        }
+        return true;
     }
 
     /**
@@ -1474,17 +1570,62 @@ public abstract class VaadinService implements Serializable {
             VaadinSession session) {
         if (session != null) {
             assert VaadinSession.getCurrent() == session;
-            session.lock();
+            if (HandlerHelper.isNonExclusiveRequest(request)) {
+                // The request holding the lock cleans up the session
+                if (session.getLockInstance().tryLock()) {
+                    endRequestWithLock(request, session);
+                }
+            } else {
+                session.lock();
+                endRequestWithLock(request, session);
+            }
+        }
+        try {
+            RequestTiming timing = RequestTiming.getCurrent();
+            if (timing != null) {
+                fireRequestTimingEvent(request, session, timing);
+            }
+        } finally {
+            CurrentInstance.clearAll();
+        }
+    }
+
+    private void fireRequestTimingEvent(VaadinRequest request,
+            VaadinSession session, RequestTiming timing) {
+        timing.addSince(RequestTiming.TOTAL,
+                (Long) request.getAttribute(REQUEST_START_TIME_ATTRIBUTE));
+        RequestTimingEvent event = new RequestTimingEvent(this, session,
+                request, timing);
+        for (RequestTimingListener listener : requestTimingListeners) {
             try {
-                cleanupSession(session);
-                final long duration = (System.nanoTime() - (Long) request
-                        .getAttribute(REQUEST_START_TIME_ATTRIBUTE)) / 1000000;
-                session.setLastRequestDuration(duration);
-            } finally {
-                session.unlock();
+                listener.requestTimed(event);
+            } catch (RuntimeException e) {
+                getLogger().error("Request timing listener {} failed",
+                        listener, e);
             }
         }
-        CurrentInstance.clearAll();
+    }
+
+    private void endRequestWithLock(VaadinRequest request,
+            VaadinSession session) {
+        try {
+            cleanupSession(session);
+            final long duration = (System.nanoTime() - (Long) request
+                    .getAttribute(REQUEST_START_TIME_ATTRIBUTE)) / 1000000;
+            session.setLastRequestDuration(duration);
+        } finally {
+            session.unlock();
+        }
+    }
+
+    /**
+     * Gets the statistics of the time request handlers have spent waiting for
+     * the session lock.
+     *
+     * @return the session lock statistics, not <code>null</code>
+     */
+    public SessionLockStatistics getSessionLockStatistics() {
+        return sessionLockStatistics;
     }
 
     /**
@@ -47,6 +47,7 @@ import com.vaadin.flow.component.UI;
 import com.vaadin.flow.function.DeploymentConfiguration;
 import com.vaadin.flow.i18n.I18NProvider;
 import com.vaadin.flow.internal.CurrentInstance;
+import com.vaadin.flow.server.communication.PushScheduler;
 import com.vaadin.flow.shared.communication.PushMode;
 
 /**
@@ -642,7 +643,8 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
      * <p>
      * For UIs in this session that have its push mode set to
      * {@link PushMode#AUTOMATIC automatic}, pending changes will be pushed to
-     * their respective clients.
+     * their respective clients, possibly delayed by the
+     * {@link PushScheduler} of the UI.
      *
      * @see #lock()
      * @see UI#push()
@@ -665,7 +667,13 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
                         Map<Class<?>, CurrentInstance> oldCurrent = CurrentInstance
                                 .setCurrent(ui);
                         try {
-                            ui.push();
+                            PushScheduler scheduler = ui.getInternals()
+                                    .getPushScheduler();
+                            if (scheduler != null) {
+                                scheduler.requestPush(ui);
+                            } else {
+                                ui.push();
+                            }
                         } finally {
                             CurrentInstance.restoreInstances(oldCurrent);
                         }
@@ -20,7 +20,7 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Reader;
 import java.io.Serializable;
-import java.io.StringReader;
+import java.util.Arrays;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -56,8 +56,13 @@ public class AtmospherePushConnection implements PushConnection {
      * Represents a message that can arrive as multiple fragments.
      */
     protected static class FragmentedMessage implements Serializable {
-        private final StringBuilder message = new StringBuilder();
+        // The buffer grows as data arrives, so that an announced length
+        // alone cannot make the server allocate a large buffer
+        private static final int INITIAL_BUFFER_SIZE = 1024;
+
         private final int messageLength;
+        private char[] message;
+        private int received;
 
         /**
          * Creates a message by reading from the given reader.
@@ -74,17 +79,23 @@ public class AtmospherePushConnection implements PushConnection {
         public FragmentedMessage(Reader reader) throws IOException {
             // Messages are prefixed by the total message length plus a
             // delimiter
-            String length = "";
+            StringBuilder length = new StringBuilder();
             int c;
             while ((c = reader.read()) != -1
                     && c != PushConstants.MESSAGE_DELIMITER) {
-                length += (char) c;
+                length.append((char) c);
             }
             try {
-                messageLength = Integer.parseInt(length);
+                messageLength = Integer.parseInt(length.toString());
             } catch (NumberFormatException e) {
                 throw new IOException("Invalid message length " + length, e);
             }
+            if (messageLength < 0) {
+                throw new IOException("Invalid message length " + length);
+            }
+            // Fragments are read directly into the buffer, which grows up to
+            // the announced length
+            message = new char[Math.min(messageLength, INITIAL_BUFFER_SIZE)];
         }
 
         /**
@@ -98,18 +109,29 @@ public class AtmospherePushConnection implements PushConnection {
          *             if an IO error occurred
          */
         public boolean append(Reader reader) throws IOException {
-            char[] buffer = new char[PushConstants.WEBSOCKET_BUFFER_SIZE];
             int read;
-            while ((read = reader.read(buffer)) != -1) {
-                message.append(buffer, 0, read);
-                assert message.length() <= messageLength : "Received message "
-                        + message.length() + "chars, expected " + messageLength;
+            while (received < messageLength) {
+                if (received == message.length) {
+                    int newSize = (int) Math.min(messageLength,
+                            2L * message.length);
+                    message = Arrays.copyOf(message, newSize);
+                }
+                read = reader.read(message, received,
+                        message.length - received);
+                if (read == -1) {
+                    break;
+                }
+                received += read;
+            }
+            if (received == messageLength && reader.read() != -1) {
+                throw new IOException("Received message longer than "
+                        + messageLength + " chars");
             }
-            return message.length() == messageLength;
+            return received == messageLength;
         }
 
         public Reader getReader() {
-            return new StringReader(message.toString());
+            return new MessageBufferReader(message, received);
         }
     }
 
@@ -251,6 +273,11 @@ public class AtmospherePushConnection implements PushConnection {
         }
     }
 
+    @Override
+    public boolean isSending() {
+        return outgoingMessage != null && !outgoingMessage.isDone();
+    }
+
     @Override
     public boolean isConnected() {
         assert state != null;
@@ -79,6 +79,43 @@ public class HeartbeatHandler extends SynchronizedRequestHandler
         return true;
     }
 
+    /**
+     * Handles a heartbeat request while the session is locked by another
+     * request. The heartbeat timestamp is updated through
+     * {@link VaadinSession#access(com.vaadin.flow.server.Command)} once the
+     * session lock is released, so the heartbeat is never blocked by a slow
+     * request in the same session. A missing UI is only reported by a
+     * heartbeat which is handled with the session locked.
+     */
+    @Override
+    public boolean nonExclusiveHandleRequest(VaadinSession session,
+            VaadinRequest request, VaadinResponse response) throws IOException {
+        String uiIdString = request
+                .getParameter(ApplicationConstants.UI_ID_PARAMETER);
+        if (uiIdString == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND,
+                    "UI not found");
+            return true;
+        }
+        int uiId = Integer.parseInt(uiIdString);
+        long heartbeat = System.currentTimeMillis();
+        session.access(() -> {
+            UI ui = session.getUIById(uiId);
+            if (ui != null && ui.getInternals()
+                    .getLastHeartbeatTimestamp() < heartbeat) {
+                ui.getInternals().setLastHeartbeatTimestamp(heartbeat);
+            }
+        });
+        response.setHeader("Cache-Control", "no-cache");
+        response.setHeader("Content-Type", "text/plain");
+        return true;
+    }
+
+    @Override
+    protected boolean isExclusiveSessionAccessRequired(VaadinRequest request) {
+        return false;
+    }
+
     /*
      * (non-Javadoc)
      *
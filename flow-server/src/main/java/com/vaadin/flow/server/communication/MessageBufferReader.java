@@ -0,0 +1,56 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.communication;
+
+import java.io.CharArrayReader;
+
+/**
+ * Reader for a complete message that has been received into a char buffer,
+ * allowing the unread part of the message to be converted into a string
+ * without first copying it through another buffer.
+ *
+ * @author Vaadin Ltd
+ * @since 2.2
+ */
+class MessageBufferReader extends CharArrayReader {
+
+    /**
+     * Creates a reader for the given buffer, which must not be modified
+     * after this.
+     *
+     * @param buffer
+     *            the buffer containing the message
+     * @param length
+     *            the length of the message in the buffer
+     */
+    MessageBufferReader(char[] buffer, int length) {
+        super(buffer, 0, length);
+    }
+
+    /**
+     * Reads the rest of the message as a string.
+     *
+     * @return the unread part of the message, not <code>null</code>
+     */
+    String readRemaining() {
+        synchronized (lock) {
+            String remaining = buf == null ? ""
+                    : new String(buf, pos, count - pos);
+            pos = count;
+            return remaining;
+        }
+    }
+}
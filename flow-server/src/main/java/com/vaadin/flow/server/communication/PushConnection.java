@@ -57,4 +57,14 @@ public interface PushConnection extends Serializable {
      */
     boolean isConnected();
 
+    /**
+     * Returns whether a message pushed using this connection has not yet been
+     * sent to the client.
+     *
+     * @return true if a message is being sent, false otherwise
+     */
+    default boolean isSending() {
+        return false;
+    }
+
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.communication;
+
+import java.io.Serializable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.component.internal.UIInternals;
+import com.vaadin.flow.shared.communication.PushMode;
+
+/**
+ * Limits the rate of automatic pushes for a UI by coalescing changes made in
+ * consecutive {@link UI#access(com.vaadin.flow.server.Command)} tasks into a
+ * single push.
+ * <p>
+ * When the session is unlocked, a UI with {@link PushMode#AUTOMATIC automatic}
+ * push and a scheduler set using
+ * {@link UIInternals#setPushScheduler(PushScheduler)} is pushed right away
+ * only if the minimum interval has passed since the previous push and the
+ * previous message has been sent. Otherwise, the push is done once the
+ * interval has passed, including all changes made until then. While the
+ * previous message is still being sent, the delay between the checks grows up
+ * to 64 milliseconds. Changes are pushed right away if the executor rejects
+ * the delayed push.
+ * <p>
+ * A scheduler keeps track of the pushes of a single UI, so an instance must not
+ * be shared between UIs. The executor is not serialized, changes are pushed
+ * right away after deserialization.
+ *
+ * @author Vaadin Ltd
+ * @since 2.2
+ */
+public class PushScheduler implements Serializable {
+
+    // Delay before checking again if the previous message has been sent,
+    // doubled for each consecutive check
+    private static final long RETRY_DELAY_NANOS = TimeUnit.MILLISECONDS
+            .toNanos(1);
+
+    static final long MAX_RETRY_DELAY_MILLIS = 64;
+
+    private final long minIntervalNanos;
+
+    private transient ScheduledExecutorService executor;
+
+    private long lastPushTime;
+    private boolean pushed;
+    // Not serialized since the scheduled push is not either
+    private transient boolean pushScheduled;
+    private transient long retryDelayNanos;
+
+    private final AtomicLong framesSent = new AtomicLong();
+    private final AtomicLong coalescedPushes = new AtomicLong();
+
+    /**
+     * Creates a new push scheduler.
+     *
+     * @param executor
+     *            the executor used for delayed pushes, not <code>null</code>
+     * @param minInterval
+     *            the minimum time between two pushes, not negative
+     * @param unit
+     *            the time unit of the interval, not <code>null</code>
+     */
+    public PushScheduler(ScheduledExecutorService executor, long minInterval,
+            TimeUnit unit) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        if (minInterval < 0) {
+            throw new IllegalArgumentException(
+                    "Minimum interval cannot be negative: " + minInterval);
+        }
+        this.executor = executor;
+        minIntervalNanos = unit.toNanos(minInterval);
+    }
+
+    /**
+     * Pushes the pending changes of the given UI now, or schedules a push if
+     * the previous push was too recent or its message has not been sent yet.
+     * <p>
+     * The session of the UI must be locked when calling this method.
+     *
+     * @param ui
+     *            the UI to push, not <code>null</code>
+     */
+    public void requestPush(UI ui) {
+        if (!ui.getInternals().isDirty()) {
+            return;
+        }
+        if (pushScheduled) {
+            coalescedPushes.incrementAndGet();
+            return;
+        }
+
+        long now = System.nanoTime();
+        long delay = pushed ? minIntervalNanos - (now - lastPushTime) : 0;
+        if (executor == null || (delay <= 0 && !isSending(ui))) {
+            push(ui, now);
+            return;
+        }
+        if (delay <= 0) {
+            retryDelayNanos = retryDelayNanos == 0 ? RETRY_DELAY_NANOS
+                    : Math.min(retryDelayNanos * 2, TimeUnit.MILLISECONDS
+                            .toNanos(MAX_RETRY_DELAY_MILLIS));
+            delay = Math.max(minIntervalNanos, retryDelayNanos);
+        }
+
+        try {
+            // The push itself is done when the session is unlocked after the
+            // task
+            executor.schedule(() -> {
+                try {
+                    ui.access(() -> pushScheduled = false);
+                } catch (UIDetachedException e) {
+                    // Nothing to push to a detached UI
+                }
+            }, delay, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // The executor has been shut down, don't keep the changes waiting
+            push(ui, now);
+            return;
+        }
+        // The task cannot reset the flag before this since the session is
+        // locked
+        pushScheduled = true;
+        coalescedPushes.incrementAndGet();
+    }
+
+    private void push(UI ui, long now) {
+        lastPushTime = now;
+        pushed = true;
+        retryDelayNanos = 0;
+        framesSent.incrementAndGet();
+        ui.push();
+    }
+
+    /**
+     * Gets the number of pushes done by this scheduler.
+     *
+     * @return the number of pushed frames
+     */
+    public long getFramesSent() {
+        return framesSent.get();
+    }
+
+    /**
+     * Gets the number of times changes were not pushed right away but
+     * included in a later push.
+     *
+     * @return the number of coalesced push requests
+     */
+    public long getCoalescedPushes() {
+        return coalescedPushes.get();
+    }
+
+    private static boolean isSending(UI ui) {
+        PushConnection connection = ui.getInternals().getPushConnection();
+        return connection != null && connection.isSending();
+    }
+}
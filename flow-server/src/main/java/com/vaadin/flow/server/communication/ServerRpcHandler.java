@@ -34,9 +34,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.internal.UIInternals;
 import com.vaadin.flow.internal.MessageDigestUtil;
 import com.vaadin.flow.internal.StateNode;
 import com.vaadin.flow.server.ErrorEvent;
+import com.vaadin.flow.server.RequestTiming;
 import com.vaadin.flow.server.VaadinRequest;
 import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.communication.rpc.AttachExistingElementRpcHandler;
@@ -243,6 +245,9 @@ public class ServerRpcHandler implements Serializable {
             throws IOException, InvalidUIDLSecurityKeyException {
         ui.getSession().setLastRequestTimestamp(System.currentTimeMillis());
 
+        RequestTiming timing = RequestTiming.getCurrent();
+        long decodeStart = timing == null ? 0 : System.nanoTime();
+
         String changeMessage = getMessage(reader);
 
         if (changeMessage == null || changeMessage.equals("")) {
@@ -251,6 +256,9 @@ public class ServerRpcHandler implements Serializable {
         }
 
         RpcRequest rpcRequest = new RpcRequest(changeMessage, request);
+        if (timing != null) {
+            timing.addSince(RequestTiming.RPC_DECODE, decodeStart);
+        }
 
         // Security: double cookie submission pattern unless disabled by
         // property
@@ -258,17 +266,20 @@ public class ServerRpcHandler implements Serializable {
             throw new InvalidUIDLSecurityKeyException();
         }
 
-        String hashMessage = changeMessage;
-        if (hashMessage.length() > 64 * 1024) {
-            hashMessage = changeMessage.substring(0, 64 * 1024);
-        }
-        byte[] messageHash = MessageDigestUtil.sha256(hashMessage);
+        byte[] messageHash = hashMessage(changeMessage);
 
         int expectedId = ui.getInternals().getLastProcessedClientToServerId()
                 + 1;
         int requestId = rpcRequest.getClientToServerId();
+        int maxPipelinedRequests = request.getService()
+                .getDeploymentConfiguration().getMaxPipelinedRequests();
 
-        if (requestId != -1 && requestId != expectedId) {
+        if (requestId != -1 && requestId > expectedId
+                && maxPipelinedRequests > 1) {
+            handlePipelinedRpc(ui, changeMessage, messageHash, expectedId,
+                    requestId, maxPipelinedRequests);
+            return;
+        } else if (requestId != -1 && requestId != expectedId) {
             // Invalid message id, skip RPC processing but force a full
             // re-synchronization of the client as it might have not received
             // the previous response (e.g. due to a bad connection)
@@ -309,14 +320,31 @@ public class ServerRpcHandler implements Serializable {
             throw new UnsupportedOperationException(
                     message + " Expected sync id: " + expectedId + ", got "
                             + requestId + ". Message start: " + messageStart);
-        } else {
-            // Message id ok, process RPCs
-            ui.getInternals().setLastProcessedClientToServerId(expectedId,
-                    messageHash);
-            handleInvocations(ui, rpcRequest.getRpcInvocationsData());
         }
 
-        if (rpcRequest.isResynchronize()) {
+        // Message id ok, process RPCs
+        ui.getInternals().setLastProcessedClientToServerId(expectedId,
+                messageHash);
+        handleInvocations(ui, rpcRequest.getRpcInvocationsData());
+        boolean resynchronize = rpcRequest.isResynchronize();
+
+        if (maxPipelinedRequests > 1 && requestId != -1) {
+            // Process messages which arrived before this one, in the order
+            // they were sent
+            int nextId = expectedId + 1;
+            String nextMessage;
+            while ((nextMessage = ui.getInternals()
+                    .removePipelinedClientMessage(nextId)) != null) {
+                RpcRequest nextRequest = new RpcRequest(nextMessage, request);
+                ui.getInternals().setLastProcessedClientToServerId(nextId,
+                        hashMessage(nextMessage));
+                handleInvocations(ui, nextRequest.getRpcInvocationsData());
+                resynchronize |= nextRequest.isResynchronize();
+                nextId++;
+            }
+        }
+
+        if (resynchronize) {
             getLogger().warn("Resynchronizing UI by client's request. Under "
                     + "normal operations this should not happen and may "
                     + "indicate a bug in Vaadin platform. If you see this "
@@ -330,6 +358,46 @@ public class ServerRpcHandler implements Serializable {
         }
     }
 
+    /**
+     * Handles a message which is ahead of the next expected id when the client
+     * may send several messages without waiting for the responses.
+     * <p>
+     * A message which has arrived before the messages sent before it is stored
+     * and processed once the earlier messages have been processed. If a
+     * message is so far ahead that the missing messages cannot be in progress
+     * any more, the stored messages are discarded and a full
+     * re-synchronization of the client is forced.
+     */
+    private void handlePipelinedRpc(UI ui, String changeMessage,
+            byte[] messageHash, int expectedId, int requestId,
+            int maxPipelinedRequests) {
+        UIInternals internals = ui.getInternals();
+        if (requestId - expectedId < maxPipelinedRequests) {
+            if (!internals.hasPipelinedClientMessage(requestId)) {
+                internals.addPipelinedClientMessage(requestId, changeMessage);
+            }
+        } else {
+            getLogger().warn(
+                    "Message {} from the client is out of the pipelining window "
+                            + "starting at {}, resynchronizing the UI",
+                    requestId, expectedId);
+            internals.clearPipelinedClientMessages();
+            internals.setLastProcessedClientToServerId(requestId,
+                    messageHash);
+            internals.getStateTree().getRootNode()
+                    .visitNodeTree(StateNode::markAsDirty);
+            throw new ResynchronizationRequiredException();
+        }
+    }
+
+    private static byte[] hashMessage(String message) {
+        String hashMessage = message;
+        if (hashMessage.length() > 64 * 1024) {
+            hashMessage = message.substring(0, 64 * 1024);
+        }
+        return MessageDigestUtil.sha256(hashMessage);
+    }
+
     /**
      * Gets {@link RpcInvocationHandler}s map where the key is the type of the
      * handler gotten via {@link RpcInvocationHandler#getRpcType()}.
@@ -363,6 +431,8 @@ public class ServerRpcHandler implements Serializable {
 
         RpcInvocationHandler mapSyncHandler = getInvocationHandlers()
                 .get(JsonConstants.RPC_TYPE_MAP_SYNC);
+        RequestTiming timing = RequestTiming.getCurrent();
+        long mapSyncStart = timing == null ? 0 : System.nanoTime();
 
         for (int i = 0; i < invocationsData.length(); i++) {
             JsonObject invocationJson = invocationsData.getObject(i);
@@ -378,7 +448,11 @@ public class ServerRpcHandler implements Serializable {
         }
 
         pendingChangeEvents.forEach(runnable -> runMapSyncTask(ui, runnable));
-        data.forEach(json -> handleInvocationData(ui, json));
+        if (timing != null && data.size() < invocationsData.length()) {
+            timing.addSince(RequestTiming.RPC_INVOCATION_PREFIX
+                    + JsonConstants.RPC_TYPE_MAP_SYNC, mapSyncStart);
+        }
+        data.forEach(json -> handleInvocationData(ui, json, timing));
     }
 
     private void runMapSyncTask(UI ui, Runnable runnable) {
@@ -389,13 +463,15 @@ public class ServerRpcHandler implements Serializable {
         }
     }
 
-    private void handleInvocationData(UI ui, JsonObject invocationJson) {
+    private void handleInvocationData(UI ui, JsonObject invocationJson,
+            RequestTiming timing) {
         String type = invocationJson.getString(JsonConstants.RPC_TYPE);
         RpcInvocationHandler handler = getInvocationHandlers().get(type);
         if (handler == null) {
             throw new IllegalArgumentException(
                     "Unsupported event type: " + type);
         }
+        long start = timing == null ? 0 : System.nanoTime();
         try {
             Optional<Runnable> handle = handler.handle(ui, invocationJson);
             assert !handle.isPresent() : "RPC handler "
@@ -403,10 +479,19 @@ public class ServerRpcHandler implements Serializable {
                     + " returned a Runnable even though it shouldn't";
         } catch (Throwable throwable) {
             ui.getSession().getErrorHandler().error(new ErrorEvent(throwable));
+        } finally {
+            if (timing != null) {
+                timing.addSince(RequestTiming.RPC_INVOCATION_PREFIX + type,
+                        start);
+            }
         }
     }
 
     protected String getMessage(Reader reader) throws IOException {
+        if (reader instanceof MessageBufferReader) {
+            // Reassembled push message, already in memory
+            return ((MessageBufferReader) reader).readRemaining();
+        }
 
         StringBuilder sb = new StringBuilder(MAX_BUFFER_SIZE);
         char[] buffer = new char[MAX_BUFFER_SIZE];
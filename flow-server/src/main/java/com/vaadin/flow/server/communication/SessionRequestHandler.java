@@ -19,7 +19,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.vaadin.flow.server.HandlerHelper;
 import com.vaadin.flow.server.RequestHandler;
+import com.vaadin.flow.server.SessionLockStatistics;
 import com.vaadin.flow.server.VaadinRequest;
 import com.vaadin.flow.server.VaadinResponse;
 import com.vaadin.flow.server.VaadinSession;
@@ -51,7 +53,13 @@ public class SessionRequestHandler implements RequestHandler {
     public boolean handleRequest(VaadinSession session, VaadinRequest request,
             VaadinResponse response) throws IOException {
         // Use a copy to avoid ConcurrentModificationException
-        session.lock();
+        if (!HandlerHelper.isNonExclusiveRequest(request)) {
+            SessionLockStatistics.lock(session, getClass());
+        } else if (!session.getLockInstance().tryLock()) {
+            // Session handlers are not consulted while another request holds
+            // the lock
+            return false;
+        }
         List<RequestHandler> requestHandlers;
         try {
             requestHandlers = new ArrayList<>(session.getRequestHandlers());
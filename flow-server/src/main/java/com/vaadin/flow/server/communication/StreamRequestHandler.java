@@ -29,6 +29,7 @@ import org.slf4j.LoggerFactory;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.server.AbstractStreamResource;
 import com.vaadin.flow.server.RequestHandler;
+import com.vaadin.flow.server.SessionLockStatistics;
 import com.vaadin.flow.server.StreamReceiver;
 import com.vaadin.flow.server.StreamResource;
 import com.vaadin.flow.server.VaadinRequest;
@@ -84,7 +85,7 @@ public class StreamRequestHandler implements RequestHandler {
         }
 
         Optional<AbstractStreamResource> abstractStreamResource;
-        session.lock();
+        SessionLockStatistics.lock(session, getClass());
         try {
             abstractStreamResource = StreamRequestHandler.getPathUri(pathInfo)
                     .flatMap(session.getResourceRegistry()::getResource);
@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Serializable;
 
+import com.vaadin.flow.server.SessionLockStatistics;
 import com.vaadin.flow.server.StreamResource;
 import com.vaadin.flow.server.StreamResourceWriter;
 import com.vaadin.flow.server.VaadinRequest;
@@ -58,7 +59,7 @@ public class StreamResourceHandler implements Serializable {
             throws IOException {
 
         StreamResourceWriter writer;
-        session.lock();
+        SessionLockStatistics.lock(session, getClass());
         try {
             ServletContext context = ((VaadinServletRequest) request)
                     .getServletContext();
@@ -16,9 +16,12 @@
 
 package com.vaadin.flow.server.communication;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.io.Writer;
 
 import org.slf4j.Logger;
@@ -27,6 +30,7 @@ import org.slf4j.LoggerFactory;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.server.HandlerHelper;
 import com.vaadin.flow.server.HandlerHelper.RequestType;
+import com.vaadin.flow.server.RequestTiming;
 import com.vaadin.flow.server.SessionExpiredHandler;
 import com.vaadin.flow.server.SynchronizedRequestHandler;
 import com.vaadin.flow.server.VaadinRequest;
@@ -55,6 +59,8 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 public class UidlRequestHandler extends SynchronizedRequestHandler
         implements SessionExpiredHandler {
 
+    private static final String SERVER_TIMING_HEADER = "Server-Timing";
+
     private ServerRpcHandler rpcHandler;
 
     @Override
@@ -83,10 +89,16 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
             return true;
         }
 
+        boolean streaming = session.getService().getDeploymentConfiguration()
+                .isStreamingUidl();
         StringWriter stringWriter = new StringWriter();
 
         try {
             getRpcHandler(session).handleRpc(uI, request.getReader(), request);
+            if (streaming) {
+                streamJsonResponse(uI, response, false);
+                return true;
+            }
             writeUidl(uI, stringWriter, false);
         } catch (JsonException e) {
             getLogger().error("Error writing JSON to response", e);
@@ -101,15 +113,48 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
             return true;
         } catch (ResynchronizationRequiredException e) { // NOSONAR
             // Resync on the client side
+            if (streaming) {
+                streamJsonResponse(uI, response, true);
+                return true;
+            }
             writeUidl(uI, stringWriter, true);
         } finally {
             stringWriter.close();
         }
 
+        RequestTiming timing = RequestTiming.getCurrent();
+        long writeStart = 0;
+        if (timing != null) {
+            writeServerTimingHeader(uI, response, timing);
+            writeStart = System.nanoTime();
+        }
+
         commitJsonResponse(response, stringWriter.toString());
+
+        if (timing != null) {
+            timing.addSince(RequestTiming.WRITE, writeStart);
+        }
         return true;
     }
 
+    /**
+     * Adds the durations recorded so far to the response as a
+     * <code>Server-Timing</code> header if enabled. The header has to be
+     * written before the response is committed, so the time spent writing
+     * the response is not included.
+     */
+    private static void writeServerTimingHeader(UI ui,
+            VaadinResponse response, RequestTiming timing) {
+        if (!ui.getSession().getService().getDeploymentConfiguration()
+                .isServerTiming()) {
+            return;
+        }
+        String serverTiming = timing.toServerTimingHeader();
+        if (!serverTiming.isEmpty()) {
+            response.setHeader(SERVER_TIMING_HEADER, serverTiming);
+        }
+    }
+
     private void writeRefresh(VaadinResponse response) throws IOException {
         String json = VaadinService.createCriticalNotificationJSON(null, null,
                 null, null);
@@ -120,11 +165,65 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
             throws IOException {
         JsonObject uidl = new UidlWriter().createUidl(ui, false, resync);
 
+        RequestTiming timing = RequestTiming.getCurrent();
+        long start = timing == null ? 0 : System.nanoTime();
         // some dirt to prevent cross site scripting
         String responseString = "for(;;);[" + uidl.toJson() + "]";
+        if (timing != null) {
+            timing.addSince(RequestTiming.ENCODE, start);
+        }
         writer.write(responseString);
     }
 
+    /**
+     * Writes the UIDL response directly to the output stream of the response
+     * without buffering the complete response in memory. The output stream is
+     * only opened once all application code has run and the changes have
+     * been collected, so failures in application code are handled the same
+     * way as when the response is buffered. Since the response is committed
+     * while the collected changes are encoded and written, errors after that
+     * point, such as the client closing the connection, can no longer be
+     * reported to the client.
+     * <p>
+     * The encoding of the changes is recorded as part of the time spent
+     * writing the response, which is not included in the
+     * <code>Server-Timing</code> header.
+     */
+    private static void streamJsonResponse(UI ui, VaadinResponse response,
+            boolean resync) throws IOException {
+        RequestTiming timing = RequestTiming.getCurrent();
+        Writer[] writer = new Writer[1];
+        long[] writeStart = new long[1];
+        new UidlWriter().writeUidl(ui, false, resync, () -> {
+            if (timing != null) {
+                writeServerTimingHeader(ui, response, timing);
+                writeStart[0] = System.nanoTime();
+            }
+            response.setContentType(JsonConstants.JSON_CONTENT_TYPE);
+
+            // Ensure that the browser does not cache UIDL responses.
+            // iOS 6 Safari requires this (#9732)
+            response.setHeader("Cache-Control", "no-cache");
+
+            try {
+                writer[0] = new BufferedWriter(new OutputStreamWriter(
+                        response.getOutputStream(), UTF_8));
+                // some dirt to prevent cross site scripting
+                writer[0].write("for(;;);[");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return writer[0];
+        });
+        writer[0].write("]");
+        // NOTE GateIn requires the buffers to be flushed to work
+        writer[0].flush();
+
+        if (timing != null) {
+            timing.addSince(RequestTiming.WRITE, writeStart[0]);
+        }
+    }
+
     private static final Logger getLogger() {
         return LoggerFactory.getLogger(UidlRequestHandler.class.getName());
     }
@@ -19,17 +19,21 @@ package com.vaadin.flow.server.communication;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import org.apache.commons.io.IOUtils;
@@ -43,6 +47,8 @@ import com.vaadin.flow.component.internal.DependencyList;
 import com.vaadin.flow.component.internal.PendingJavaScriptInvocation;
 import com.vaadin.flow.component.internal.UIInternals;
 import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.function.SerializableSupplier;
+import com.vaadin.flow.internal.ConstantPool;
 import com.vaadin.flow.internal.JsonCodec;
 import com.vaadin.flow.internal.JsonUtils;
 import com.vaadin.flow.internal.StateNode;
@@ -54,6 +60,7 @@ import com.vaadin.flow.internal.nodefeature.ReturnChannelMap;
 import com.vaadin.flow.internal.nodefeature.ReturnChannelRegistration;
 import com.vaadin.flow.server.DependencyFilter;
 import com.vaadin.flow.server.DependencyFilter.FilterContext;
+import com.vaadin.flow.server.RequestTiming;
 import com.vaadin.flow.server.SystemMessages;
 import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.VaadinSession;
@@ -68,6 +75,7 @@ import elemental.json.Json;
 import elemental.json.JsonArray;
 import elemental.json.JsonObject;
 import elemental.json.JsonValue;
+import elemental.json.impl.JsonUtil;
 
 /**
  * Serializes pending server-side changes to UI state to JSON. This includes
@@ -148,7 +156,80 @@ public class UidlWriter implements Serializable {
      */
     public JsonObject createUidl(UI ui, boolean async, boolean resync) {
         JsonObject response = Json.createObject();
+        JsonArray stateChanges = Json.createArray();
+
+        writeUidl(ui, async, resync, () -> new UidlOutput() {
+            @Override
+            public void put(String key, JsonValue value) {
+                response.put(key, value);
+            }
 
+            @Override
+            public void addChange(JsonValue change) {
+                stateChanges.set(stateChanges.length(), change);
+            }
+
+            @Override
+            public void endChanges() {
+                if (stateChanges.length() != 0) {
+                    response.put("changes", stateChanges);
+                }
+            }
+        });
+
+        return response;
+    }
+
+    /**
+     * Writes all pending changes to the given UI directly to a writer as a
+     * JSON object, without building the complete response in memory first.
+     * <p>
+     * The written JSON contains the same data as the object returned by
+     * {@link #createUidl(UI, boolean, boolean)}. Pending access tasks and
+     * before client response executions are run and the state changes are
+     * collected before the writer is requested, so that failures in
+     * application code are thrown before anything has been written. Only the
+     * encoding of the collected changes is streamed to the writer.
+     *
+     * @param ui
+     *            The {@link UI} whose changes to write
+     * @param async
+     *            True if this message is sent by the server asynchronously,
+     *            false if it is a response to a client message
+     * @param resync
+     *            True iff the client should be asked to resynchronize
+     * @param writerSupplier
+     *            supplies the writer to write the UIDL response to once all
+     *            changes have been collected, not <code>null</code>. The
+     *            supplier is called exactly once and may throw an
+     *            {@link UncheckedIOException} if the writer cannot be opened
+     * @throws IOException
+     *             if opening or writing to the writer fails
+     */
+    public void writeUidl(UI ui, boolean async, boolean resync,
+            SerializableSupplier<Writer> writerSupplier) throws IOException {
+        Objects.requireNonNull(writerSupplier);
+        StreamingUidlOutput[] output = new StreamingUidlOutput[1];
+        try {
+            writeUidl(ui, async, resync, () -> {
+                output[0] = new StreamingUidlOutput(
+                        Objects.requireNonNull(writerSupplier.get()));
+                output[0].begin();
+                return output[0];
+            });
+            output[0].end();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Runs all application code that may produce changes for the response and
+     * collects the response contents before opening the output, then writes
+     * the response to the output.
+     */
+    private void writeUidl(UI ui, boolean async, boolean resync,
+            Supplier<UidlOutput> outputSupplier) {
         UIInternals uiInternals = ui.getInternals();
 
         VaadinSession session = ui.getSession();
@@ -163,52 +244,59 @@ public class UidlWriter implements Serializable {
 
         int syncId = service.getDeploymentConfiguration().isSyncIdCheckEnabled()
                 ? uiInternals.getServerSyncId() : -1;
-
-        response.put(ApplicationConstants.SERVER_SYNC_ID, syncId);
-        if (resync) {
-            response.put(ApplicationConstants.RESYNCHRONIZE_ID, true);
-        }
         int nextClientToServerMessageId = uiInternals
                 .getLastProcessedClientToServerId() + 1;
-        response.put(ApplicationConstants.CLIENT_TO_SERVER_ID,
-                nextClientToServerMessageId);
 
         SystemMessages messages = ui.getSession().getService()
                 .getSystemMessages(ui.getLocale(), null);
 
         JsonObject meta = new MetadataWriter().createMetadata(ui, false, async,
                 messages);
-        if (meta.keys().length > 0) {
-            response.put("meta", meta);
+
+        List<NodeChange> changes = collectChanges(ui);
+
+        Map<LoadMode, JsonArray> dependencies = collectDependencies(
+                uiInternals.getDependencyList(),
+                new ResolveContext(service, session.getBrowser(), null));
+
+        List<PendingJavaScriptInvocation> executeJavaScriptList = uiInternals
+                .dumpPendingJavaScriptInvocations();
+        JsonArray executeJavaScript = executeJavaScriptList.isEmpty() ? null
+                : encodeExecuteJavaScriptList(executeJavaScriptList);
+
+        UidlOutput output = outputSupplier.get();
+
+        output.put(ApplicationConstants.SERVER_SYNC_ID, Json.create(syncId));
+        if (resync) {
+            output.put(ApplicationConstants.RESYNCHRONIZE_ID,
+                    Json.create(true));
         }
+        output.put(ApplicationConstants.CLIENT_TO_SERVER_ID,
+                Json.create(nextClientToServerMessageId));
 
-        JsonArray stateChanges = Json.createArray();
+        if (meta.keys().length > 0) {
+            output.put("meta", meta);
+        }
 
-        encodeChanges(ui, stateChanges);
+        encodeChanges(ui, changes, output);
 
-        populateDependencies(response, uiInternals.getDependencyList(),
-                new ResolveContext(service, session.getBrowser(), null));
+        dependencies.forEach(
+                (loadMode, json) -> output.put(loadMode.name(), json));
 
         if (uiInternals.getConstantPool().hasNewConstants()) {
-            response.put("constants",
+            output.put("constants",
                     uiInternals.getConstantPool().dumpConstants());
         }
-        if (stateChanges.length() != 0) {
-            response.put("changes", stateChanges);
-        }
+        output.endChanges();
 
-        List<PendingJavaScriptInvocation> executeJavaScriptList = uiInternals
-                .dumpPendingJavaScriptInvocations();
-        if (!executeJavaScriptList.isEmpty()) {
-            response.put(JsonConstants.UIDL_KEY_EXECUTE,
-                    encodeExecuteJavaScriptList(executeJavaScriptList));
+        if (executeJavaScript != null) {
+            output.put(JsonConstants.UIDL_KEY_EXECUTE, executeJavaScript);
         }
         if (ui.getSession().getService().getDeploymentConfiguration()
                 .isRequestTiming()) {
-            response.put("timings", createPerformanceData(ui));
+            output.put("timings", createPerformanceData(ui));
         }
         uiInternals.incrementServerId();
-        return response;
     }
 
     /**
@@ -225,7 +313,7 @@ public class UidlWriter implements Serializable {
         return createUidl(ui, async, false);
     }
 
-    private static void populateDependencies(JsonObject response,
+    private static Map<LoadMode, JsonArray> collectDependencies(
             DependencyList dependencyList, ResolveContext context) {
         Collection<Dependency> pendingSendToClient = dependencyList
                 .getPendingSendToClient();
@@ -239,12 +327,11 @@ public class UidlWriter implements Serializable {
                     new ArrayList<>(pendingSendToClient), filterContext);
         }
 
-        if (!pendingSendToClient.isEmpty()) {
-            groupDependenciesByLoadMode(pendingSendToClient, context)
-                    .forEach((loadMode, dependencies) -> response
-                            .put(loadMode.name(), dependencies));
-        }
+        Map<LoadMode, JsonArray> dependencies = pendingSendToClient.isEmpty()
+                ? Collections.emptyMap()
+                : groupDependenciesByLoadMode(pendingSendToClient, context);
         dependencyList.clearPendingSendToClient();
+        return dependencies;
     }
 
     private static Map<LoadMode, JsonArray> groupDependenciesByLoadMode(
@@ -393,23 +480,31 @@ public class UidlWriter implements Serializable {
     }
 
     /**
-     * Encodes the state tree changes of the given UI. The executions registered
-     * at
+     * Collects the state tree changes of the given UI. The executions
+     * registered at
      * {@link StateTree#beforeClientResponse(com.vaadin.flow.internal.StateNode, com.vaadin.flow.function.SerializableConsumer)}
-     * at evaluated before the changes are encoded.
+     * at evaluated before the changes are collected.
      *
      * @param ui
      *            the UI
-     * @param stateChanges
-     *            a JSON array to put state changes into
+     * @return the collected changes
      * @see StateTree#runExecutionsBeforeClientResponse()
      */
-    private void encodeChanges(UI ui, JsonArray stateChanges) {
+    private List<NodeChange> collectChanges(UI ui) {
         UIInternals uiInternals = ui.getInternals();
         StateTree stateTree = uiInternals.getStateTree();
 
+        RequestTiming timing = RequestTiming.getCurrent();
+        long start = timing == null ? 0 : System.nanoTime();
+
         stateTree.runExecutionsBeforeClientResponse();
 
+        if (timing != null) {
+            timing.addSince(RequestTiming.BEFORE_CLIENT_RESPONSE, start);
+            start = System.nanoTime();
+        }
+
+        List<NodeChange> changes = new ArrayList<>();
         Set<Class<? extends Component>> componentsWithDependencies = new LinkedHashSet<>();
         stateTree.collectChanges(change -> {
             if (attachesComponent(change)) {
@@ -417,14 +512,47 @@ public class UidlWriter implements Serializable {
                         .ifPresent(component -> addComponentHierarchy(ui,
                                 componentsWithDependencies, component));
             }
-
-            // Encode the actual change
-            stateChanges.set(stateChanges.length(),
-                    change.toJson(uiInternals.getConstantPool()));
+            changes.add(change);
         });
 
+        if (timing != null) {
+            timing.addSince(RequestTiming.COLLECT_CHANGES, start);
+        }
+
         componentsWithDependencies
                 .forEach(uiInternals::addComponentDependencies);
+        return changes;
+    }
+
+    /**
+     * Encodes the collected state tree changes of the given UI.
+     *
+     * @param ui
+     *            the UI
+     * @param changes
+     *            the changes to encode
+     * @param output
+     *            the output to put state changes into
+     */
+    private void encodeChanges(UI ui, List<NodeChange> changes,
+            UidlOutput output) {
+        // Streamed changes are written while they are encoded, so the time is
+        // included in the time spent writing the response
+        RequestTiming timing = output instanceof StreamingUidlOutput ? null
+                : RequestTiming.getCurrent();
+        long start = timing == null ? 0 : System.nanoTime();
+
+        boolean compact = ui.getSession().getService()
+                .getDeploymentConfiguration().isCompactChanges();
+        ConstantPool constantPool = ui.getInternals().getConstantPool();
+        for (NodeChange change : changes) {
+            output.addChange(compact ? change.toCompactJson(constantPool)
+                    : change.toJson(constantPool));
+        }
+
+        if (timing != null) {
+            timing.addSince(RequestTiming.ENCODE, start);
+        }
     }
 
     private static boolean attachesComponent(NodeChange change) {
@@ -453,6 +581,95 @@ public class UidlWriter implements Serializable {
         return timings;
     }
 
+    /**
+     * Receives the parts of a UIDL response in the order they are produced.
+     * State changes are passed one by one and are finished by
+     * {@link #endChanges()} once all other parts that may depend on the
+     * encoded changes (dependencies and constants) have been added.
+     */
+    private interface UidlOutput extends Serializable {
+        void put(String key, JsonValue value);
+
+        void addChange(JsonValue change);
+
+        void endChanges();
+    }
+
+    /**
+     * UIDL output which writes each part directly to a writer. The changes
+     * array is closed as soon as any other member is written after it.
+     */
+    private static class StreamingUidlOutput implements UidlOutput {
+        private final Writer writer;
+        private boolean firstMember = true;
+        private boolean changesOpen;
+        private boolean changesWritten;
+
+        private StreamingUidlOutput(Writer writer) {
+            this.writer = writer;
+        }
+
+        private void begin() {
+            write("{");
+        }
+
+        private void end() {
+            closeChanges();
+            write("}");
+        }
+
+        @Override
+        public void put(String key, JsonValue value) {
+            closeChanges();
+            writeKey(key);
+            write(value.toJson());
+        }
+
+        @Override
+        public void addChange(JsonValue change) {
+            if (changesOpen) {
+                write(",");
+            } else {
+                assert !changesWritten : "All changes should be added at once";
+                writeKey("changes");
+                write("[");
+                changesOpen = true;
+                changesWritten = true;
+            }
+            write(change.toJson());
+        }
+
+        @Override
+        public void endChanges() {
+            closeChanges();
+        }
+
+        private void closeChanges() {
+            if (changesOpen) {
+                write("]");
+                changesOpen = false;
+            }
+        }
+
+        private void writeKey(String key) {
+            if (firstMember) {
+                firstMember = false;
+            } else {
+                write(",");
+            }
+            write(JsonUtil.quote(key));
+            write(":");
+        }
+
+        private void write(String string) {
+            try {
+                writer.write(string);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
     private static final Logger getLogger() {
         return LoggerFactory.getLogger(UidlWriter.class.getName());
     }
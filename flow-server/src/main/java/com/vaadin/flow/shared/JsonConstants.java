@@ -124,6 +124,61 @@ public class JsonConstants implements Serializable {
      */
     public static final String CHANGE_PUT_NODE_VALUE = "nodeValue";
 
+    /**
+     * Compact change type for attaching nodes. Compact changes are encoded as
+     * JSON arrays on the form <code>[node, type, ...]</code> instead of JSON
+     * objects with named properties.
+     */
+    public static final int COMPACT_CHANGE_TYPE_ATTACH = 0;
+
+    /**
+     * Compact change type for detaching nodes.
+     */
+    public static final int COMPACT_CHANGE_TYPE_DETACH = 1;
+
+    /**
+     * Compact change type for empty change. Encoded as
+     * <code>[node, type, feature, isList]</code>.
+     */
+    public static final int COMPACT_CHANGE_TYPE_NOOP = 2;
+
+    /**
+     * Compact change type for map put changes with a regular value. Encoded
+     * as <code>[node, type, feature, key, value]</code>.
+     */
+    public static final int COMPACT_CHANGE_TYPE_PUT = 3;
+
+    /**
+     * Compact change type for map put changes with a node value. Encoded as
+     * <code>[node, type, feature, key, nodeId]</code>.
+     */
+    public static final int COMPACT_CHANGE_TYPE_PUT_NODE = 4;
+
+    /**
+     * Compact change type for map remove changes. Encoded as
+     * <code>[node, type, feature, key]</code>.
+     */
+    public static final int COMPACT_CHANGE_TYPE_REMOVE = 5;
+
+    /**
+     * Compact change type for list splice changes with regular values.
+     * Encoded as <code>[node, type, feature, index, remove, add]</code>
+     * where <code>add</code> is optional.
+     */
+    public static final int COMPACT_CHANGE_TYPE_SPLICE = 6;
+
+    /**
+     * Compact change type for list splice changes with node values. Encoded
+     * as <code>[node, type, feature, index, remove, addNodes]</code>.
+     */
+    public static final int COMPACT_CHANGE_TYPE_SPLICE_NODES = 7;
+
+    /**
+     * Compact change type for list clear changes. Encoded as
+     * <code>[node, type, feature]</code>.
+     */
+    public static final int COMPACT_CHANGE_TYPE_CLEAR = 8;
+
     /**
      * Key holding the type in of messages sent from the client.
      */
@@ -15,6 +15,7 @@
  */
 package com.vaadin.flow.internal;
 
+import org.apache.commons.lang3.SerializationUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -74,4 +75,51 @@ public class ConstantPoolTest {
         Assert.assertNotEquals(constantId, otherId);
         Assert.assertTrue(constantPool.hasNewConstants());
     }
+
+    @Test
+    public void sameValueInDifferentPools_sharedJsonInstance() {
+        ConstantPool otherPool = new ConstantPool();
+
+        String constantId = constantPool.getConstantId(
+                new ConstantPoolKey(Json.parse("{\"foo\":\"bar\"}")));
+        String otherId = otherPool.getConstantId(
+                new ConstantPoolKey(Json.parse("{\"foo\":\"bar\"}")));
+
+        Assert.assertEquals(constantId, otherId);
+        Assert.assertSame(constantPool.dumpConstants().get(constantId),
+                otherPool.dumpConstants().get(otherId));
+    }
+
+    @Test
+    public void serializedPool_knownValuesNotSentAgain() {
+        String constantId = constantPool.getConstantId(
+                new ConstantPoolKey(Json.parse("[\"serialized\"]")));
+        constantPool.dumpConstants();
+
+        ConstantPool copy = SerializationUtils
+                .deserialize(SerializationUtils.serialize(constantPool));
+
+        Assert.assertEquals(constantId, copy.getConstantId(
+                new ConstantPoolKey(Json.parse("[\"serialized\"]"))));
+        Assert.assertFalse(copy.hasNewConstants());
+
+        copy.getConstantId(new ConstantPoolKey(Json.createArray()));
+        Assert.assertTrue(copy.hasNewConstants());
+    }
+
+    @Test
+    public void sameValueCreatedAgain_sameIndex() {
+        ConstantPoolKey key = new ConstantPoolKey(
+                Json.parse("[\"created again\"]"));
+        int index = key.getIndex();
+        String id = key.getId();
+        key = null;
+        // The shared JSON instance may be collected, the index is kept
+        System.gc();
+
+        ConstantPoolKey other = new ConstantPoolKey(
+                Json.parse("[\"created again\"]"));
+        Assert.assertEquals(index, other.getIndex());
+        Assert.assertEquals(id, other.getId());
+    }
 }
@@ -49,6 +49,7 @@ import com.vaadin.flow.internal.nodefeature.ElementPropertyMap;
 import com.vaadin.flow.internal.nodefeature.NodeFeature;
 import com.vaadin.tests.util.TestUtil;
 
+import elemental.json.JsonArray;
 import elemental.json.JsonObject;
 
 public class StateTreeTest {
@@ -89,6 +90,11 @@ public class StateTreeTest {
                 protected void populateJson(JsonObject json,
                         ConstantPool constantPool) {
                 }
+
+                @Override
+                protected void populateCompactJson(JsonArray json,
+                        ConstantPool constantPool) {
+                }
             });
         }
     }
@@ -231,6 +237,43 @@ public class StateTreeTest {
                 tree.collectDirtyNodes().toArray());
     }
 
+    @Test
+    public void testDirtyNodeMarkedOnlyOnce() {
+        StateNode node = StateNodeTest.createEmptyNode("node");
+        StateNodeTest.setParent(node, tree.getRootNode());
+        tree.collectChanges(change -> {
+        });
+
+        node.markAsDirty();
+        node.markAsDirty();
+        tree.getRootNode().markAsDirty();
+        node.markAsDirty();
+
+        Assert.assertArrayEquals(
+                new Object[] { node, tree.getRootNode() },
+                tree.collectDirtyNodes().toArray());
+    }
+
+    @Test
+    public void testDirtyNodeMovedToAnotherTree() {
+        StateNode node = StateNodeTest.createEmptyNode("node");
+        StateNodeTest.setParent(node, tree.getRootNode());
+        tree.collectChanges(change -> {
+        });
+
+        StateTree anotherTree = new StateTree(new UI().getInternals(),
+                ElementChildrenList.class);
+        anotherTree.collectChanges(change -> {
+        });
+
+        node.markAsDirty();
+        node.removeFromTree();
+        StateNodeTest.setParent(node, anotherTree.getRootNode());
+
+        Assert.assertTrue("Node should be dirty in the new tree",
+                anotherTree.collectDirtyNodes().contains(node));
+    }
+
     @Test
     public void testDetachInChanges() {
         StateNode node1 = tree.getRootNode();
@@ -8,6 +8,8 @@ import org.junit.Test;
 
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.router.BeforeEvent;
+import com.vaadin.flow.router.HasUrlParameter;
 import com.vaadin.flow.router.RouterLayout;
 import com.vaadin.flow.server.startup.RouteTarget;
 
@@ -70,10 +72,67 @@ public class ConfiguredRoutesTest {
                 immutable.getParentLayouts("", BaseTarget.class));
     }
 
+    @Test
+    public void findRoute_longestPrefixWithTargetIsMatched() {
+        ConfigureRoutes mutable = new ConfigureRoutes();
+        mutable.setRoute("", BaseTarget.class);
+        mutable.setRoute("foo", BaseTarget.class);
+        mutable.setRoute("foo/bar", ParameterTarget.class);
+        mutable.setRoute("foo/bar/baz", BaseTarget.class);
+
+        ConfiguredRoutes immutable = new ConfiguredRoutes(mutable);
+
+        RouteSegmentTrie.Match match = immutable
+                .findRoute(Arrays.asList("foo", "bar", "baz")).get();
+        Assert.assertEquals("foo/bar/baz", match.getPath());
+        Assert.assertEquals(BaseTarget.class, match.getTarget());
+        Assert.assertTrue(match.getUrlParameters().isEmpty());
+
+        match = immutable.findRoute(Arrays.asList("foo", "bar", "qux"))
+                .get();
+        Assert.assertEquals("foo/bar", match.getPath());
+        Assert.assertEquals(ParameterTarget.class, match.getTarget());
+        Assert.assertEquals(Collections.singletonList("qux"),
+                match.getUrlParameters());
+
+        match = immutable.findRoute(Collections.singletonList("")).get();
+        Assert.assertEquals("", match.getPath());
+        Assert.assertEquals(BaseTarget.class, match.getTarget());
+
+        Assert.assertFalse("Base target doesn't accept parameters",
+                immutable.findRoute(Arrays.asList("foo", "qux", "quux"))
+                        .isPresent());
+    }
+
+    @Test
+    public void findRoute_mutableConfiguration_seesEditedRoutes() {
+        ConfigureRoutes mutable = new ConfigureRoutes();
+        Assert.assertFalse(mutable.findRoute(Collections.singletonList("foo"))
+                .isPresent());
+
+        mutable.setRoute("foo", BaseTarget.class);
+
+        RouteSegmentTrie.Match match = mutable
+                .findRoute(Collections.singletonList("foo")).get();
+        Assert.assertEquals(BaseTarget.class, match.getTarget());
+
+        mutable.removeRoute("foo");
+        Assert.assertFalse(mutable.findRoute(Collections.singletonList("foo"))
+                .isPresent());
+    }
+
     @Tag("div")
     public static class BaseTarget extends Component {
     }
 
+    @Tag("div")
+    public static class ParameterTarget extends Component
+            implements HasUrlParameter<String> {
+        @Override
+        public void setParameter(BeforeEvent event, String parameter) {
+        }
+    }
+
     @Tag("div")
     public static class ParentTarget extends Component implements RouterLayout {
     }
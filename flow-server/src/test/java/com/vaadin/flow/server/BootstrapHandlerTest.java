@@ -1754,6 +1754,63 @@ public class BootstrapHandlerTest {
         Assert.assertFalse(bundle.hasAttr("defer"));
     }
 
+    @Test
+    public void getBootstrapHtml_templateCacheEnabled_pageBuiltOnceAndRequestPartsInserted()
+            throws ServiceException {
+        mocks.setProductionMode(true);
+        deploymentConfiguration.setApplicationOrSystemProperty(
+                Constants.SERVLET_PARAMETER_BOOTSTRAP_TEMPLATE_CACHE, "true");
+
+        ClassLoader classLoader = Mockito.mock(ClassLoader.class);
+        service.setClassLoader(classLoader);
+        String statsJson = "{ \"assetsByChunkName\": { "
+                + "\"bundle\": \"build/vaadin-bundle.cache.js\" } }";
+        Mockito.when(classLoader.getResourceAsStream(Mockito.anyString()))
+                .thenAnswer(invocation -> new ByteArrayInputStream(
+                        statsJson.getBytes(StandardCharsets.UTF_8)));
+
+        AtomicReference<Integer> modifications = new AtomicReference<>(0);
+        service.addBootstrapListener(new CountingCacheableListener(
+                () -> modifications.updateAndGet(count -> count + 1)));
+
+        initUI(testUI);
+        String firstPage = pageBuilder.getBootstrapHtml(context);
+
+        TestUI anotherUI = new TestUI();
+        anotherUI.getInternals().setSession(session);
+        initUI(anotherUI);
+        String secondPage = pageBuilder.getBootstrapHtml(context);
+
+        Assert.assertEquals(
+                "Bootstrap listeners should only be applied when the template is built",
+                Integer.valueOf(1), modifications.get());
+        Assert.assertThat(firstPage,
+                CoreMatchers.containsString(testUI.getCsrfToken()));
+        Assert.assertThat(secondPage,
+                CoreMatchers.containsString(anotherUI.getCsrfToken()));
+        Assert.assertThat(secondPage, CoreMatchers
+                .not(CoreMatchers.containsString(testUI.getCsrfToken())));
+        Assert.assertThat(secondPage,
+                CoreMatchers.not(CoreMatchers.containsString("{{")));
+        Assert.assertThat(secondPage, CoreMatchers.containsString(
+                "data-app-id=\"" + anotherUI.getInternals().getAppId()
+                        + "\""));
+    }
+
+    private static class CountingCacheableListener
+            implements BootstrapListener, CacheableBootstrapCustomization {
+        private final Runnable counter;
+
+        private CountingCacheableListener(Runnable counter) {
+            this.counter = counter;
+        }
+
+        @Override
+        public void modifyBootstrapPage(BootstrapPageResponse response) {
+            counter.run();
+        }
+    }
+
     private void assertStringEquals(String message, String expected,
             String actual) {
         Assert.assertThat(message,
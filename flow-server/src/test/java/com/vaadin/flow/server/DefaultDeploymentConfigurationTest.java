@@ -119,6 +119,29 @@ public class DefaultDeploymentConfigurationTest {
         createDeploymentConfig(initParameters);
     }
 
+    @Test
+    public void maxPipelinedRequests_readOnce() {
+        Properties initParameters = new Properties(DEFAULT_PARAMS);
+        initParameters.setProperty(
+                Constants.SERVLET_PARAMETER_MAX_PIPELINED_REQUESTS, "4");
+
+        DefaultDeploymentConfiguration config = createDeploymentConfig(
+                initParameters);
+        initParameters.setProperty(
+                Constants.SERVLET_PARAMETER_MAX_PIPELINED_REQUESTS, "8");
+
+        assertEquals(4, config.getMaxPipelinedRequests());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void maxPipelinedRequests_exceptionOnInvalidValueWhenCreated() {
+        Properties initParameters = new Properties(DEFAULT_PARAMS);
+        initParameters.setProperty(
+                Constants.SERVLET_PARAMETER_MAX_PIPELINED_REQUESTS, "0");
+
+        createDeploymentConfig(initParameters);
+    }
+
     @Test
     public void frontendPrefixes_developmentMode() {
         Properties initParameters = new Properties(DEFAULT_PARAMS);
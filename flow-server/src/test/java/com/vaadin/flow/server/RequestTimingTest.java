@@ -0,0 +1,94 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.util.Arrays;
+import java.util.ArrayList;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.internal.CurrentInstance;
+
+public class RequestTimingTest {
+
+    private RequestTiming timing = new RequestTiming();
+
+    @After
+    public void tearDown() {
+        CurrentInstance.clearAll();
+    }
+
+    @Test
+    public void samePhaseAddedTwice_durationsSummed() {
+        timing.add(RequestTiming.RPC_INVOCATION_PREFIX + "event", 1000);
+        timing.add(RequestTiming.LOCK_WAIT, 500);
+        timing.add(RequestTiming.RPC_INVOCATION_PREFIX + "event", 2000);
+
+        Assert.assertEquals(Long.valueOf(3000), timing.getDurations()
+                .get(RequestTiming.RPC_INVOCATION_PREFIX + "event"));
+        Assert.assertEquals(
+                Arrays.asList(RequestTiming.RPC_INVOCATION_PREFIX + "event",
+                        RequestTiming.LOCK_WAIT),
+                new ArrayList<>(timing.getDurations().keySet()));
+    }
+
+    @Test
+    public void toServerTimingHeader_durationsInMilliseconds() {
+        Assert.assertEquals("", timing.toServerTimingHeader());
+
+        timing.add(RequestTiming.LOCK_WAIT, 1_500_000);
+        timing.add(RequestTiming.ENCODE, 250);
+
+        Assert.assertEquals("lock;dur=1.500, encode;dur=0.000",
+                timing.toServerTimingHeader());
+    }
+
+    @Test
+    public void sessionLockedByHandler_lockWaitRecorded() {
+        CurrentInstance.set(RequestTiming.class, timing);
+        VaadinSession session = new MockVaadinSession(
+                new MockVaadinServletService());
+
+        SessionLockStatistics.lock(session, getClass());
+        session.unlock();
+
+        Assert.assertTrue(timing.getDurations()
+                .containsKey(RequestTiming.LOCK_WAIT));
+        Assert.assertEquals(1, session.getService().getSessionLockStatistics()
+                .getLockWaits().get(getClass().getName()).getCount());
+    }
+
+    @Test
+    public void timingListenerThrows_currentInstancesCleared() {
+        VaadinService service = new MockVaadinServletService();
+        service.addRequestTimingListener(event -> {
+            throw new IllegalStateException("Listener failure");
+        });
+        VaadinRequest request = Mockito.mock(VaadinRequest.class);
+        Mockito.when(request.getAttribute("requestStartTime"))
+                .thenReturn(System.nanoTime());
+        CurrentInstance.set(RequestTiming.class, timing);
+        VaadinService.setCurrent(service);
+
+        service.requestEnd(request, Mockito.mock(VaadinResponse.class), null);
+
+        Assert.assertNull(RequestTiming.getCurrent());
+        Assert.assertNull(VaadinService.getCurrent());
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SessionLockStatisticsTest {
+
+    private SessionLockStatistics statistics = new SessionLockStatistics();
+
+    @Test
+    public void record_countTotalAndMaxCollected() {
+        statistics.record(String.class, 30);
+        statistics.record(String.class, 50);
+        statistics.record(String.class, 20);
+
+        SessionLockStatistics.LockWait wait = statistics.getLockWaits()
+                .get(String.class.getName());
+        Assert.assertEquals(3, wait.getCount());
+        Assert.assertEquals(100, wait.getTotalWaitNanos());
+        Assert.assertEquals(50, wait.getMaxWaitNanos());
+    }
+
+    @Test
+    public void waitsRecorded_serializable() {
+        statistics.record(String.class, 42);
+
+        SessionLockStatistics copy = SerializationUtils
+                .deserialize(SerializationUtils.serialize(statistics));
+
+        Assert.assertEquals(42, copy.getLockWaits().get(String.class.getName())
+                .getMaxWaitNanos());
+    }
+}
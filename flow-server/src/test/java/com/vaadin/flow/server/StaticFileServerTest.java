@@ -36,6 +36,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -750,4 +751,155 @@ public class StaticFileServerTest implements Serializable {
         Assert.assertEquals(HttpServletResponse.SC_NOT_FOUND,
                 responseCode.get());
     }
+
+    @Test
+    public void resourceCacheEnabled_resourceIsResolvedOnlyOnce()
+            throws IOException {
+        Mockito.when(configuration.getStaticResourceCacheSize())
+                .thenReturn(1024L * 1024L);
+        fileServer = new OverrideableStaticFileServer(servletService);
+
+        setupRequestURI("", "/some", "/file.js");
+        byte[] fileData = "function() {eval('foo');};"
+                .getBytes(StandardCharsets.UTF_8);
+        Mockito.when(servletService.getStaticResource("/some/file.js"))
+                .thenReturn(createFileURLWithDataAndLength("/some/file.js",
+                        fileData, 123000L));
+
+        CapturingServletOutputStream out = new CapturingServletOutputStream();
+        Mockito.when(response.getOutputStream()).thenReturn(out);
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+        Assert.assertArrayEquals(fileData, out.getOutput());
+        Assert.assertEquals(fileData.length, responseContentLength.get());
+        Assert.assertEquals(123000L,
+                dateHeaders.get("Last-Modified").longValue());
+        String eTag = headers.get("ETag");
+        Assert.assertNotNull("Cached resource should have an ETag", eTag);
+
+        out = new CapturingServletOutputStream();
+        Mockito.when(response.getOutputStream()).thenReturn(out);
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+        Assert.assertArrayEquals(fileData, out.getOutput());
+        Assert.assertEquals(eTag, headers.get("ETag"));
+
+        Mockito.verify(servletService, Mockito.times(1))
+                .getStaticResource("/some/file.js");
+        Assert.assertTrue(fileServer.isStaticResourceRequest(request));
+    }
+
+    @Test
+    public void resourceCacheEnabled_matchingETag_notModified()
+            throws IOException {
+        Mockito.when(configuration.getStaticResourceCacheSize())
+                .thenReturn(1024L * 1024L);
+        fileServer = new OverrideableStaticFileServer(servletService);
+
+        setupRequestURI("", "/some", "/file.js");
+        byte[] fileData = "function() {eval('foo');};"
+                .getBytes(StandardCharsets.UTF_8);
+        Mockito.when(servletService.getStaticResource("/some/file.js"))
+                .thenReturn(createFileURLWithDataAndLength("/some/file.js",
+                        fileData));
+        Mockito.when(response.getOutputStream())
+                .thenReturn(new CapturingServletOutputStream());
+        fileServer.serveStaticResource(request, response);
+
+        Mockito.when(request.getHeader("If-None-Match"))
+                .thenReturn("\"other\", " + headers.get("ETag"));
+        CapturingServletOutputStream out = new CapturingServletOutputStream();
+        Mockito.when(response.getOutputStream()).thenReturn(out);
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+        Assert.assertEquals(HttpServletResponse.SC_NOT_MODIFIED,
+                responseCode.get());
+        Assert.assertEquals(0, out.getOutput().length);
+    }
+
+    @Test
+    public void resourceCacheEnabled_largeTextResource_servedGzipped()
+            throws IOException {
+        Mockito.when(configuration.getStaticResourceCacheSize())
+                .thenReturn(1024L * 1024L);
+        fileServer = new OverrideableStaticFileServer(servletService);
+
+        setupRequestURI("", "/some", "/file.js");
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            builder.append("function() {eval('foo');};");
+        }
+        byte[] fileData = builder.toString().getBytes(StandardCharsets.UTF_8);
+        Mockito.when(servletService.getStaticResource("/some/file.js"))
+                .thenReturn(createFileURLWithDataAndLength("/some/file.js",
+                        fileData));
+        Mockito.when(request.getHeader("Accept-Encoding"))
+                .thenReturn("gzip, deflate");
+
+        CapturingServletOutputStream out = new CapturingServletOutputStream();
+        Mockito.when(response.getOutputStream()).thenReturn(out);
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+
+        Assert.assertEquals("gzip", headers.get("Content-Encoding"));
+        Assert.assertEquals("Accept-Encoding", headers.get("Vary"));
+        Assert.assertEquals(out.getOutput().length,
+                responseContentLength.get());
+        ByteArrayOutputStream unzipped = new ByteArrayOutputStream();
+        try (GZIPInputStream stream = new GZIPInputStream(
+                new ByteArrayInputStream(out.getOutput()))) {
+            byte[] buffer = new byte[1024];
+            int bytes;
+            while ((bytes = stream.read(buffer)) >= 0) {
+                unzipped.write(buffer, 0, bytes);
+            }
+        }
+        Assert.assertArrayEquals(fileData, unzipped.toByteArray());
+    }
+
+    @Test
+    public void resourceCacheEnabled_missingResource_resolvedOnlyOnce()
+            throws IOException {
+        Mockito.when(configuration.getStaticResourceCacheSize())
+                .thenReturn(1024L * 1024L);
+        fileServer = new OverrideableStaticFileServer(servletService);
+
+        setupRequestURI("", "/some", "/missing.js");
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+        Assert.assertEquals(HttpServletResponse.SC_NOT_FOUND,
+                responseCode.get());
+
+        responseCode.set(-1);
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+        Assert.assertEquals(HttpServletResponse.SC_NOT_FOUND,
+                responseCode.get());
+
+        Mockito.verify(servletService, Mockito.times(1))
+                .getStaticResource("/some/missing.js");
+    }
+
+    @Test
+    public void resourceCacheEnabled_tooLargeResource_loadedOnlyOnce()
+            throws IOException {
+        // Resources larger than a quarter of the cache size are not cached
+        Mockito.when(configuration.getStaticResourceCacheSize())
+                .thenReturn(64L);
+        fileServer = new OverrideableStaticFileServer(servletService);
+
+        setupRequestURI("", "/some", "/file.js");
+        byte[] fileData = "function() {eval('foo');};"
+                .getBytes(StandardCharsets.UTF_8);
+        Mockito.when(servletService.getStaticResource("/some/file.js"))
+                .thenReturn(createFileURLWithDataAndLength("/some/file.js",
+                        fileData));
+
+        for (int i = 0; i < 2; i++) {
+            CapturingServletOutputStream out = new CapturingServletOutputStream();
+            Mockito.when(response.getOutputStream()).thenReturn(out);
+            Assert.assertTrue(
+                    fileServer.serveStaticResource(request, response));
+            Assert.assertArrayEquals(fileData, out.getOutput());
+        }
+
+        Mockito.verify(servletService, Mockito.times(2))
+                .getStaticResource("/some/file.js");
+        Mockito.verify(servletService, Mockito.times(1))
+                .getStaticResource("/some/file.js.gz");
+    }
 }
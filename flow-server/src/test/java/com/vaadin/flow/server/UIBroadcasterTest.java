@@ -0,0 +1,108 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+
+public class UIBroadcasterTest {
+
+    private UIBroadcaster broadcaster = new UIBroadcaster(Runnable::run, 2);
+
+    @Test
+    public void broadcast_payloadSharedAndDetachedUiCountedAsFailed()
+            throws Exception {
+        UI first = createUI();
+        UI second = createUI();
+        UI detached = Mockito.mock(UI.class);
+        Mockito.doThrow(new UIDetachedException()).when(detached)
+                .accessSynchronously(Mockito.any());
+        Object payload = new Object();
+        List<UI> updated = new ArrayList<>();
+
+        UIBroadcaster.BroadcastResult result = broadcaster
+                .broadcast(Arrays.asList(first, detached, second), payload,
+                        (ui, value) -> {
+                            Assert.assertSame(payload, value);
+                            updated.add(ui);
+                        })
+                .get();
+
+        Assert.assertEquals(Arrays.asList(first, second), updated);
+        Assert.assertEquals(2, result.getUpdatedCount());
+        Assert.assertEquals(1, result.getFailedCount());
+        Assert.assertTrue(result.getLatencyNanos(50) <= result
+                .getMaxLatencyNanos());
+    }
+
+    @Test
+    public void broadcast_noUIs_completedRightAway() throws Exception {
+        UIBroadcaster.BroadcastResult result = broadcaster
+                .broadcast(Collections.emptyList(), "payload", (ui, value) -> {
+                }).get();
+
+        Assert.assertEquals(0, result.getUpdatedCount());
+        Assert.assertEquals(0, result.getLatencyNanos(99));
+    }
+
+    @Test
+    public void broadcast_updateThrowsError_otherUIsUpdatedAndFutureFailed()
+            throws Exception {
+        UIBroadcaster singleWorker = new UIBroadcaster(Runnable::run, 1);
+        UI failing = createUI();
+        UI other = createUI();
+        AssertionError error = new AssertionError("Update failed");
+        List<UI> updated = new ArrayList<>();
+
+        CompletableFuture<UIBroadcaster.BroadcastResult> result = singleWorker
+                .broadcast(Arrays.asList(failing, other), "payload",
+                        (ui, value) -> {
+                            if (ui == failing) {
+                                throw error;
+                            }
+                            updated.add(ui);
+                        });
+
+        Assert.assertEquals(Collections.singletonList(other), updated);
+        Assert.assertTrue(result.isCompletedExceptionally());
+        try {
+            result.get();
+            Assert.fail("Error should be passed to the future");
+        } catch (ExecutionException e) {
+            Assert.assertSame(error, e.getCause());
+        }
+    }
+
+    private static UI createUI() {
+        UI ui = Mockito.mock(UI.class);
+        Mockito.doAnswer(invocation -> {
+            ((Command) invocation.getArguments()[0]).execute();
+            return null;
+        }).when(ui).accessSynchronously(Mockito.any());
+        return ui;
+    }
+}
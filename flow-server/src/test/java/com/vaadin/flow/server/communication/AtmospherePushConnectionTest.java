@@ -19,6 +19,7 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.StringReader;
 
 import org.atmosphere.cpr.AtmosphereResource;
 import org.easymock.EasyMock;
@@ -27,7 +28,9 @@ import org.junit.Test;
 
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.server.communication.AtmospherePushConnection;
+import com.vaadin.flow.server.communication.AtmospherePushConnection.FragmentedMessage;
 import com.vaadin.flow.server.communication.AtmospherePushConnection.State;
+import com.vaadin.flow.shared.communication.PushConstants;
 
 /**
  * @author Vaadin Ltd
@@ -55,4 +58,38 @@ public class AtmospherePushConnectionTest {
 
         Assert.assertEquals(State.DISCONNECTED, connection.getState());
     }
+
+    @Test
+    public void fragmentedMessage_reassembledFromFragments() throws Exception {
+        String payload = "{\"csrfToken\":\"token\"}";
+        StringReader firstFragment = new StringReader(
+                payload.length() + "" + PushConstants.MESSAGE_DELIMITER
+                        + payload.substring(0, 5));
+        FragmentedMessage message = new FragmentedMessage(firstFragment);
+
+        Assert.assertFalse(message.append(firstFragment));
+        Assert.assertFalse(message.append(new StringReader("")));
+        Assert.assertTrue(
+                message.append(new StringReader(payload.substring(5))));
+
+        Assert.assertEquals(payload,
+                new ServerRpcHandler().getMessage(message.getReader()));
+    }
+
+    @Test
+    public void fragmentedMessage_largeAnnouncedLength_bufferGrowsWithData()
+            throws Exception {
+        StringReader firstFragment = new StringReader(
+                "2000000000" + PushConstants.MESSAGE_DELIMITER + "{}");
+        FragmentedMessage message = new FragmentedMessage(firstFragment);
+
+        Assert.assertFalse(message.append(firstFragment));
+
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            data.append('x');
+        }
+        Assert.assertFalse(
+                message.append(new StringReader(data.toString())));
+    }
 }
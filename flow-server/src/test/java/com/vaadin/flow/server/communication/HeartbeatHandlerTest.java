@@ -0,0 +1,96 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.communication;
+
+import java.io.IOException;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.HandlerHelper.RequestType;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.VaadinResponse;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.shared.ApplicationConstants;
+
+public class HeartbeatHandlerTest {
+
+    private HeartbeatHandler handler = new HeartbeatHandler();
+    private VaadinSession session = Mockito.mock(VaadinSession.class);
+    private VaadinRequest request = Mockito.mock(VaadinRequest.class);
+    private VaadinResponse response = Mockito.mock(VaadinResponse.class);
+    private Lock lock = Mockito.mock(Lock.class);
+
+    @Before
+    public void setUp() {
+        Mockito.when(request.getParameter(
+                ApplicationConstants.REQUEST_TYPE_PARAMETER))
+                .thenReturn(RequestType.HEARTBEAT.getIdentifier());
+        Mockito.when(
+                request.getParameter(ApplicationConstants.UI_ID_PARAMETER))
+                .thenReturn("1");
+        Mockito.when(session.getLockInstance()).thenReturn(lock);
+    }
+
+    @Test
+    public void nonExclusiveRequest_sessionLockedByOtherRequest_heartbeatUpdatedWithoutWaiting()
+            throws IOException {
+        // Only the non-exclusive request marker is read from the attributes
+        Mockito.when(request.getAttribute(Mockito.anyString()))
+                .thenReturn(Boolean.TRUE);
+        Mockito.when(lock.tryLock()).thenReturn(false);
+
+        UI ui = new UI();
+        ui.getInternals().setLastHeartbeatTimestamp(0);
+        Mockito.when(session.getUIById(1)).thenReturn(ui);
+
+        Assert.assertTrue(
+                handler.handleRequest(session, request, response));
+
+        Mockito.verify(session, Mockito.never()).lock();
+        Mockito.verify(response).setHeader("Cache-Control", "no-cache");
+        Assert.assertEquals(0, ui.getInternals().getLastHeartbeatTimestamp());
+
+        // Run the access task as if the other request released the lock
+        ArgumentCaptor<Command> task = ArgumentCaptor.forClass(Command.class);
+        Mockito.verify(session).access(task.capture());
+        task.getValue().execute();
+
+        Assert.assertNotEquals(0,
+                ui.getInternals().getLastHeartbeatTimestamp());
+    }
+
+    @Test
+    public void exclusiveRequest_sessionLockedForHeartbeat()
+            throws IOException {
+        Mockito.when(session.getService())
+                .thenReturn(Mockito.mock(VaadinService.class));
+
+        handler.handleRequest(session, request, response);
+
+        Mockito.verify(session).lock();
+        Mockito.verify(lock, Mockito.never()).tryLock();
+        Mockito.verify(session, Mockito.never())
+                .access(Mockito.any(Command.class));
+    }
+}
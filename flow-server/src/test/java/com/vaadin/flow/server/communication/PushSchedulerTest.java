@@ -0,0 +1,164 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.communication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.internal.UIInternals;
+import com.vaadin.flow.server.Command;
+
+public class PushSchedulerTest {
+
+    private UI ui = Mockito.mock(UI.class);
+    private UIInternals internals = Mockito.mock(UIInternals.class);
+    private PushConnection connection = Mockito.mock(PushConnection.class);
+    private ScheduledExecutorService executor = Mockito
+            .mock(ScheduledExecutorService.class);
+
+    @Before
+    public void setUp() {
+        Mockito.when(ui.getInternals()).thenReturn(internals);
+        Mockito.when(internals.getPushConnection()).thenReturn(connection);
+        Mockito.when(internals.isDirty()).thenReturn(true);
+        Mockito.when(ui.access(Mockito.any())).then(invocation -> {
+            ((Command) invocation.getArguments()[0]).execute();
+            return null;
+        });
+    }
+
+    @Test
+    public void previousMessageBeingSent_pushesCoalescedIntoScheduledPush() {
+        PushScheduler scheduler = new PushScheduler(executor, 0,
+                TimeUnit.MILLISECONDS);
+
+        scheduler.requestPush(ui);
+        Mockito.verify(ui).push();
+
+        Mockito.when(connection.isSending()).thenReturn(true);
+        scheduler.requestPush(ui);
+        scheduler.requestPush(ui);
+
+        Mockito.verify(ui).push();
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(executor).schedule(task.capture(), Mockito.anyLong(),
+                Mockito.eq(TimeUnit.NANOSECONDS));
+        Assert.assertEquals(1, scheduler.getFramesSent());
+        Assert.assertEquals(2, scheduler.getCoalescedPushes());
+
+        Mockito.when(connection.isSending()).thenReturn(false);
+        task.getValue().run();
+        scheduler.requestPush(ui);
+
+        Mockito.verify(ui, Mockito.times(2)).push();
+        Assert.assertEquals(2, scheduler.getFramesSent());
+    }
+
+    @Test
+    public void pushedRecently_pushDelayedUntilIntervalPassed() {
+        PushScheduler scheduler = new PushScheduler(executor, 1,
+                TimeUnit.HOURS);
+
+        scheduler.requestPush(ui);
+        scheduler.requestPush(ui);
+
+        Mockito.verify(ui).push();
+        ArgumentCaptor<Long> delay = ArgumentCaptor.forClass(Long.class);
+        Mockito.verify(executor).schedule(Mockito.any(Runnable.class),
+                delay.capture(), Mockito.eq(TimeUnit.NANOSECONDS));
+        Assert.assertTrue(delay.getValue() > TimeUnit.MINUTES.toNanos(59));
+    }
+
+    @Test
+    public void nothingChanged_noPush() {
+        Mockito.when(internals.isDirty()).thenReturn(false);
+        PushScheduler scheduler = new PushScheduler(executor, 0,
+                TimeUnit.MILLISECONDS);
+
+        scheduler.requestPush(ui);
+
+        Mockito.verify(ui, Mockito.never()).push();
+        Assert.assertEquals(0, scheduler.getFramesSent());
+    }
+
+    @Test
+    public void previousMessageStillBeingSent_retryDelayIncreases() {
+        List<Runnable> tasks = new ArrayList<>();
+        List<Long> delays = new ArrayList<>();
+        Mockito.when(executor.schedule(Mockito.any(Runnable.class),
+                Mockito.anyLong(), Mockito.eq(TimeUnit.NANOSECONDS)))
+                .then(invocation -> {
+                    tasks.add((Runnable) invocation.getArguments()[0]);
+                    delays.add((Long) invocation.getArguments()[1]);
+                    return null;
+                });
+        PushScheduler scheduler = new PushScheduler(executor, 0,
+                TimeUnit.MILLISECONDS);
+        scheduler.requestPush(ui);
+        Mockito.when(connection.isSending()).thenReturn(true);
+
+        for (int i = 0; i < 10; i++) {
+            scheduler.requestPush(ui);
+            tasks.get(i).run();
+        }
+
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(1),
+                delays.get(0).longValue());
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(2),
+                delays.get(1).longValue());
+        Assert.assertEquals(
+                TimeUnit.MILLISECONDS
+                        .toNanos(PushScheduler.MAX_RETRY_DELAY_MILLIS),
+                delays.get(9).longValue());
+
+        // The delay starts from the beginning after a push
+        Mockito.when(connection.isSending()).thenReturn(false);
+        scheduler.requestPush(ui);
+        Mockito.when(connection.isSending()).thenReturn(true);
+        scheduler.requestPush(ui);
+
+        Assert.assertEquals(11, delays.size());
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(1),
+                delays.get(10).longValue());
+    }
+
+    @Test
+    public void executorRejectsPush_pushedRightAway() {
+        PushScheduler scheduler = new PushScheduler(executor, 1,
+                TimeUnit.HOURS);
+        Mockito.when(executor.schedule(Mockito.any(Runnable.class),
+                Mockito.anyLong(), Mockito.any(TimeUnit.class)))
+                .thenThrow(new RejectedExecutionException());
+
+        scheduler.requestPush(ui);
+        scheduler.requestPush(ui);
+        scheduler.requestPush(ui);
+
+        Mockito.verify(ui, Mockito.times(3)).push();
+        Assert.assertEquals(3, scheduler.getFramesSent());
+        Assert.assertEquals(0, scheduler.getCoalescedPushes());
+    }
+}
@@ -8,6 +8,8 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.mockito.InOrder;
+import org.mockito.Matchers;
 import org.mockito.Mockito;
 
 import com.vaadin.flow.component.UI;
@@ -25,6 +27,7 @@ public class ServerRpcHandlerTest {
     private UI ui;
     private UIInternals uiInternals;
     private StateTree uiTree;
+    private DeploymentConfiguration deploymentConfiguration;
     final private String csrfToken = "";
 
     private ServerRpcHandler serverRpcHandler;
@@ -47,8 +50,7 @@ public class ServerRpcHandlerTest {
         Mockito.when(ui.getSession()).thenReturn(session);
         Mockito.when(ui.getCsrfToken()).thenReturn(csrfToken);
 
-        DeploymentConfiguration deploymentConfiguration = Mockito
-                .mock(DeploymentConfiguration.class);
+        deploymentConfiguration = Mockito.mock(DeploymentConfiguration.class);
         Mockito.when(service.getDeploymentConfiguration())
                 .thenReturn(deploymentConfiguration);
 
@@ -75,4 +77,94 @@ public class ServerRpcHandlerTest {
         // then
         Assert.assertTrue(uiTree.hasDirtyNodes());
     }
+
+    @Test
+    public void handleRpc_pipelinedMessageAhead_storedAndNotProcessed()
+            throws IOException,
+            ServerRpcHandler.InvalidUIDLSecurityKeyException {
+        Mockito.when(deploymentConfiguration.getMaxPipelinedRequests())
+                .thenReturn(3);
+        String message = createMessage(2);
+
+        serverRpcHandler.handleRpc(ui, new StringReader(message), request);
+
+        Mockito.verify(uiInternals).addPipelinedClientMessage(2, message);
+        Mockito.verify(uiInternals, Mockito.never())
+                .setLastProcessedClientToServerId(Matchers.anyInt(),
+                        Matchers.any(byte[].class));
+    }
+
+    @Test
+    public void handleRpc_missingMessageArrives_storedMessagesProcessedInOrder()
+            throws IOException,
+            ServerRpcHandler.InvalidUIDLSecurityKeyException {
+        Mockito.when(deploymentConfiguration.getMaxPipelinedRequests())
+                .thenReturn(3);
+        Mockito.when(uiInternals.removePipelinedClientMessage(2))
+                .thenReturn(createMessage(2));
+        Mockito.when(uiInternals.removePipelinedClientMessage(3))
+                .thenReturn(createMessage(3));
+
+        serverRpcHandler.handleRpc(ui, new StringReader(createMessage(1)),
+                request);
+
+        InOrder inOrder = Mockito.inOrder(uiInternals);
+        inOrder.verify(uiInternals).setLastProcessedClientToServerId(
+                Matchers.eq(1), Matchers.any(byte[].class));
+        inOrder.verify(uiInternals).setLastProcessedClientToServerId(
+                Matchers.eq(2), Matchers.any(byte[].class));
+        inOrder.verify(uiInternals).setLastProcessedClientToServerId(
+                Matchers.eq(3), Matchers.any(byte[].class));
+        inOrder.verify(uiInternals).removePipelinedClientMessage(4);
+    }
+
+    @Test
+    public void handleRpc_pipelinedMessageOutOfWindow_resynchronizesClient()
+            throws IOException,
+            ServerRpcHandler.InvalidUIDLSecurityKeyException {
+        Mockito.when(deploymentConfiguration.getMaxPipelinedRequests())
+                .thenReturn(3);
+        uiTree.collectChanges(c -> { // clean tree
+        });
+
+        try {
+            serverRpcHandler.handleRpc(ui, new StringReader(createMessage(4)),
+                    request);
+            Assert.fail("Client should be resynchronized");
+        } catch (ServerRpcHandler.ResynchronizationRequiredException e) {
+            // expected
+        }
+
+        Mockito.verify(uiInternals).clearPipelinedClientMessages();
+        Mockito.verify(uiInternals).setLastProcessedClientToServerId(
+                Matchers.eq(4), Matchers.any(byte[].class));
+        Assert.assertTrue(uiTree.hasDirtyNodes());
+    }
+
+    @Test
+    public void handleRpc_pipelinedMessageAlreadyProcessed_throws()
+            throws IOException,
+            ServerRpcHandler.InvalidUIDLSecurityKeyException {
+        Mockito.when(deploymentConfiguration.getMaxPipelinedRequests())
+                .thenReturn(3);
+        thrown.expect(UnsupportedOperationException.class);
+
+        serverRpcHandler.handleRpc(ui, new StringReader(createMessage(0)),
+                request);
+    }
+
+    @Test
+    public void handleRpc_unexpectedMessageWithoutPipelining_throws()
+            throws IOException,
+            ServerRpcHandler.InvalidUIDLSecurityKeyException {
+        thrown.expect(UnsupportedOperationException.class);
+
+        serverRpcHandler.handleRpc(ui, new StringReader(createMessage(2)),
+                request);
+    }
+
+    private String createMessage(int clientId) {
+        return "{\"csrfToken\": \"" + csrfToken
+                + "\", \"rpc\":[], \"clientId\":" + clientId + "}";
+    }
 }
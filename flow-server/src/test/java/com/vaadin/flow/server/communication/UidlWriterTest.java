@@ -16,6 +16,7 @@
 package com.vaadin.flow.server.communication;
 
 import javax.servlet.http.HttpServletRequest;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -40,12 +41,14 @@ import com.vaadin.flow.component.internal.PendingJavaScriptInvocation;
 import com.vaadin.flow.component.internal.UIInternals.JavaScriptInvocation;
 import com.vaadin.flow.dom.Element;
 import com.vaadin.flow.dom.ElementFactory;
+import com.vaadin.flow.internal.CurrentInstance;
 import com.vaadin.flow.internal.JsonUtils;
 import com.vaadin.flow.router.ParentLayout;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.router.RouteConfiguration;
 import com.vaadin.flow.router.RouterLayout;
 import com.vaadin.flow.server.MockServletServiceSessionSetup;
+import com.vaadin.flow.server.RequestTiming;
 import com.vaadin.flow.server.VaadinServletRequest;
 import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.shared.ApplicationConstants;
@@ -63,6 +66,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -365,6 +369,91 @@ public class UidlWriterTest {
                response.getBoolean(ApplicationConstants.RESYNCHRONIZE_ID));
     }
 
+    @Test
+    public void writeUidl_streamedResponseContainsChangesAndDependencies()
+            throws Exception {
+        UI ui = initializeUIForDependenciesTest(new TestUI());
+        UidlWriter uidlWriter = new UidlWriter();
+        addInitialComponentDependencies(ui, uidlWriter);
+
+        ui.add(new ComponentWithAllDependencyTypes());
+
+        StringWriter writer = new StringWriter();
+        uidlWriter.writeUidl(ui, false, false, () -> writer);
+        JsonObject response = Json.parse(writer.toString());
+
+        assertTrue(response.hasKey(ApplicationConstants.SERVER_SYNC_ID));
+        assertTrue(response.hasKey(ApplicationConstants.CLIENT_TO_SERVER_ID));
+        assertFalse(response.hasKey(ApplicationConstants.RESYNCHRONIZE_ID));
+        assertTrue("Streamed response should contain the state changes",
+                response.getArray("changes").length() > 0);
+        for (LoadMode loadMode : LoadMode.values()) {
+            assertThat(loadMode + " dependency should be streamed",
+                    response.getArray(loadMode.name()).length(), is(1));
+        }
+    }
+
+    @Test
+    public void writeUidl_noChanges_streamedResponseHasNoChangesArray()
+            throws Exception {
+        UI ui = initializeUIForDependenciesTest(new TestUI());
+        UidlWriter uidlWriter = new UidlWriter();
+        addInitialComponentDependencies(ui, uidlWriter);
+
+        StringWriter writer = new StringWriter();
+        uidlWriter.writeUidl(ui, false, true, () -> writer);
+        JsonObject response = Json.parse(writer.toString());
+
+        assertFalse(response.hasKey("changes"));
+        assertTrue(response.getBoolean(ApplicationConstants.RESYNCHRONIZE_ID));
+    }
+
+    @Test
+    public void writeUidl_beforeClientResponseFails_nothingWritten()
+            throws Exception {
+        UI ui = initializeUIForDependenciesTest(new TestUI());
+        UidlWriter uidlWriter = new UidlWriter();
+        addInitialComponentDependencies(ui, uidlWriter);
+
+        ui.getInternals().getStateTree().beforeClientResponse(
+                ui.getElement().getNode(), context -> {
+                    throw new IllegalStateException("Expected failure");
+                });
+
+        StringWriter writer = new StringWriter();
+        try {
+            uidlWriter.writeUidl(ui, false, false, () -> writer);
+            fail("The failure should be thrown");
+        } catch (IllegalStateException expected) {
+            assertEquals("Nothing should be written for a failed response",
+                    "", writer.toString());
+        }
+    }
+
+    @Test
+    public void writeUidl_requestTiming_encodingNotRecordedSeparately()
+            throws Exception {
+        UI ui = initializeUIForDependenciesTest(new TestUI());
+        UidlWriter uidlWriter = new UidlWriter();
+        addInitialComponentDependencies(ui, uidlWriter);
+        ui.add(new ComponentWithAllDependencyTypes());
+
+        RequestTiming timing = new RequestTiming();
+        CurrentInstance.set(RequestTiming.class, timing);
+        try {
+            uidlWriter.writeUidl(ui, false, false, StringWriter::new);
+        } finally {
+            CurrentInstance.set(RequestTiming.class, null);
+        }
+
+        Map<String, Long> durations = timing.getDurations();
+        assertTrue(durations
+                .containsKey(RequestTiming.BEFORE_CLIENT_RESPONSE));
+        assertTrue(durations.containsKey(RequestTiming.COLLECT_CHANGES));
+        assertFalse("Streamed encoding is part of writing the response",
+                durations.containsKey(RequestTiming.ENCODE));
+    }
+
     private void assertInlineDependencies(List<JsonObject> inlineDependencies,
             String expectedPrefix) {
         assertThat("Should have an inline dependency", inlineDependencies,